@@ -29,6 +29,6 @@ public class GlobalExceptionHandler {
 
 	@ExceptionHandler(ResponseStatusException.class)
 	public ResponseEntity<String> handleResponseStatus(ResponseStatusException ex) {
-		return new ResponseEntity<>(ex.getReason(), ex.getStatusCode());
+		return new ResponseEntity<>(ex.getReason(), ex.getHeaders(), ex.getStatusCode());
 	}
 }
@@ -0,0 +1,88 @@
+package com.genbridge.backend.analytics;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.BitSet;
+
+/**
+ * One bit per day of a user's activity, starting at an origin day: bit {@code i} is set if the user
+ * was active on {@code origin + i}. A year of history fits in 46 bytes, and "was the user active in
+ * this week" is a single {@link BitSet#nextSetBit} probe instead of a query over activity history.
+ * Not thread-safe — callers guard access with their own lock.
+ */
+public final class ActivityBitmap {
+
+    private LocalDate origin;
+    private BitSet days;
+
+    private ActivityBitmap(LocalDate origin, BitSet days) {
+        this.origin = origin;
+        this.days = days;
+    }
+
+    /** An empty bitmap starting at {@code origin}. */
+    public static ActivityBitmap startingAt(LocalDate origin) {
+        return new ActivityBitmap(origin, new BitSet());
+    }
+
+    /** Decodes a bitmap stored with {@link #toBytes()}. */
+    public static ActivityBitmap of(LocalDate origin, byte[] bytes) {
+        return new ActivityBitmap(origin, BitSet.valueOf(bytes));
+    }
+
+    public LocalDate origin() {
+        return origin;
+    }
+
+    /** Marks {@code day} active, moving the origin back if needed; returns false if it was already marked. */
+    public boolean mark(LocalDate day) {
+        if (day.isBefore(origin)) {
+            int shift = (int) ChronoUnit.DAYS.between(day, origin);
+            BitSet shifted = new BitSet(days.length() + shift);
+            for (int i = days.nextSetBit(0); i >= 0; i = days.nextSetBit(i + 1)) {
+                shifted.set(i + shift);
+            }
+            days = shifted;
+            origin = day;
+        }
+        int index = index(day);
+        if (days.get(index)) {
+            return false;
+        }
+        days.set(index);
+        return true;
+    }
+
+    public boolean isActive(LocalDate day) {
+        return !day.isBefore(origin) && days.get(index(day));
+    }
+
+    /** True if any day in [{@code from}, {@code to}) is marked. */
+    public boolean isActiveBetween(LocalDate from, LocalDate to) {
+        int start = Math.max(0, index(from));
+        int end = index(to);
+        if (end <= start) {
+            return false;
+        }
+        int next = days.nextSetBit(start);
+        return next >= 0 && next < end;
+    }
+
+    /** The first marked day, or null if none is. */
+    public LocalDate firstActiveDay() {
+        int first = days.nextSetBit(0);
+        return first < 0 ? null : origin.plusDays(first);
+    }
+
+    public int activeDays() {
+        return days.cardinality();
+    }
+
+    public byte[] toBytes() {
+        return days.toByteArray();
+    }
+
+    private int index(LocalDate day) {
+        return (int) ChronoUnit.DAYS.between(origin, day);
+    }
+}
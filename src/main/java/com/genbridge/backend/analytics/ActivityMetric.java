@@ -0,0 +1,11 @@
+package com.genbridge.backend.analytics;
+
+/** Counters kept per day in the {@code daily_activity} table. */
+public enum ActivityMetric {
+    /** Learners whose first activity of the day updated their streak. */
+    ACTIVE_USERS,
+    QUIZ_ATTEMPTS,
+    LESSON_COMPLETIONS,
+    QUEST_COMPLETIONS,
+    FORUM_POSTS
+}
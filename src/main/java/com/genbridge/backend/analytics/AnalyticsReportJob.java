@@ -0,0 +1,176 @@
+package com.genbridge.backend.analytics;
+
+import com.genbridge.backend.services.AnalyticsService;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntSupplier;
+
+/**
+ * Builds the admin dashboard report on a single background thread and keeps the latest result.
+ * Requests are answered from that result, so they never hold a pooled connection while the report
+ * is computed; a result older than {@code analytics.report.max-staleness-seconds} is still served
+ * but schedules a rebuild. At most one rebuild runs at a time — extra requests while one is running
+ * are dropped rather than queued.
+ * Admin reconcile and rebuild tasks run on the same thread, so they never hold a request thread or a
+ * second pooled connection; each task is queued at most once and its latest outcome is kept for polling.
+ */
+@Component
+public class AnalyticsReportJob {
+
+    /** A computed dashboard report and when it was built. */
+    public record Report(Map<String, Object> data, LocalDateTime generatedAt) {
+    }
+
+    /** Lifecycle of a background maintenance task. */
+    public enum TaskState { QUEUED, RUNNING, SUCCEEDED, FAILED }
+
+    /** The latest run of a maintenance task: {@code count} is what the task reports on success. */
+    public record TaskStatus(String task, TaskState state, Integer count, String error,
+                             LocalDateTime requestedAt, LocalDateTime finishedAt) {
+
+        boolean isPending() {
+            return state == TaskState.QUEUED || state == TaskState.RUNNING;
+        }
+    }
+
+    private final AnalyticsService analyticsService;
+    private final Duration maxStaleness;
+    private final Executor executor;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile Report latest;
+    private final ConcurrentMap<String, TaskStatus> tasks = new ConcurrentHashMap<>();
+
+    @Autowired
+    public AnalyticsReportJob(AnalyticsService analyticsService,
+                              @Value("${analytics.report.max-staleness-seconds:300}") long maxStalenessSeconds) {
+        this(analyticsService, Duration.ofSeconds(maxStalenessSeconds), Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "analytics-report");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    AnalyticsReportJob(AnalyticsService analyticsService, Duration maxStaleness, Executor executor) {
+        this.analyticsService = analyticsService;
+        this.maxStaleness = maxStaleness;
+        this.executor = executor;
+    }
+
+    /**
+     * Returns the latest report, or empty if none has been built yet. Schedules a rebuild when the
+     * report is missing or older than the staleness budget.
+     */
+    public Optional<Report> latest() {
+        Report report = latest;
+        if (report == null || isStale(report)) {
+            refresh();
+        }
+        return Optional.ofNullable(report);
+    }
+
+    /** Returns the latest report without scheduling a rebuild. */
+    public Optional<Report> current() {
+        return Optional.ofNullable(latest);
+    }
+
+    /** Starts a rebuild in the background; returns false if one is already running. */
+    public boolean refresh() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            executor.execute(this::build);
+        } catch (RejectedExecutionException e) {
+            running.set(false); // Shutting down
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Queues a maintenance task behind any report build and returns its status. If the same task is
+     * already queued or running, returns that run's status instead of queuing another.
+     */
+    public TaskStatus submit(String task, IntSupplier work) {
+        TaskStatus queued = new TaskStatus(task, TaskState.QUEUED, null, null, LocalDateTime.now(), null);
+        TaskStatus current = tasks.compute(task, (name, previous) ->
+                previous != null && previous.isPending() ? previous : queued);
+        if (current != queued) {
+            return current;
+        }
+        try {
+            executor.execute(() -> runTask(queued, work));
+        } catch (RejectedExecutionException e) {
+            return finish(queued, TaskState.FAILED, null, "Shutting down");
+        }
+        return queued;
+    }
+
+    /** The latest run of the task, if it was ever submitted. */
+    public Optional<TaskStatus> task(String task) {
+        return Optional.ofNullable(tasks.get(task));
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    public boolean isStale(Report report) {
+        return report.generatedAt().plus(maxStaleness).isBefore(LocalDateTime.now());
+    }
+
+    /** Builds the first report as soon as the application is up, so the first admin visit finds one. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        refresh();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+
+    private void build() {
+        try {
+            LocalDateTime startedAt = LocalDateTime.now();
+            latest = new Report(analyticsService.getAnalytics(), startedAt);
+        } catch (RuntimeException e) {
+            // Keep serving the previous report; the next request past the budget retries
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private void runTask(TaskStatus queued, IntSupplier work) {
+        tasks.put(queued.task(), new TaskStatus(queued.task(), TaskState.RUNNING, null, null, queued.requestedAt(), null));
+        try {
+            finish(queued, TaskState.SUCCEEDED, work.getAsInt(), null);
+        } catch (RuntimeException e) {
+            finish(queued, TaskState.FAILED, null, e.getMessage());
+        }
+    }
+
+    private TaskStatus finish(TaskStatus queued, TaskState state, Integer count, String error) {
+        TaskStatus finished = new TaskStatus(queued.task(), state, count, error, queued.requestedAt(), LocalDateTime.now());
+        tasks.put(queued.task(), finished);
+        return finished;
+    }
+}
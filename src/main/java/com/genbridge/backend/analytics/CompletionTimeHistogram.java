@@ -0,0 +1,54 @@
+package com.genbridge.backend.analytics;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.SortedMap;
+
+/**
+ * Log-scale buckets for lesson time-to-complete. Bucket {@code i} holds durations in
+ * (γ<sup>i-1</sup>, γ<sup>i</sup>] seconds with γ = {@value #GAMMA}, so any quantile read back from
+ * bucket counts is within about 9% of the true value, from one second to years, in about a hundred
+ * buckets. Counts for the same bucket simply add up, which lets the write path keep them with
+ * in-place increments and a removed completion subtract its own bucket again.
+ */
+public final class CompletionTimeHistogram {
+
+    static final double GAMMA = 1.2;
+
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+
+    private CompletionTimeHistogram() {
+    }
+
+    /** Bucket holding {@code elapsed}; anything up to one second (including clock skew) lands in bucket 0. */
+    public static int bucketOf(Duration elapsed) {
+        long seconds = Math.max(1, elapsed.getSeconds());
+        return (int) Math.ceil(Math.log(seconds) / LOG_GAMMA - 1e-9);
+    }
+
+    /** Value reported for a bucket: the point with equal relative error to both of its bounds. */
+    public static double representativeSeconds(int bucket) {
+        return 2 * Math.pow(GAMMA, bucket) / (GAMMA + 1);
+    }
+
+    /** Returns the {@code quantile} (0–1) of the counted durations in whole seconds, or null when nothing was counted. */
+    public static Long quantileSeconds(SortedMap<Integer, Long> countsByBucket, double quantile) {
+        long total = 0;
+        for (long count : countsByBucket.values()) {
+            total += Math.max(0, count);
+        }
+        if (total == 0) {
+            return null;
+        }
+        // Nearest-rank: the smallest value with at least `quantile` of the counts at or below it
+        long rank = Math.max(0, (long) Math.ceil(quantile * total) - 1);
+        long seen = 0;
+        for (Map.Entry<Integer, Long> bucket : countsByBucket.entrySet()) {
+            seen += Math.max(0, bucket.getValue());
+            if (seen > rank) {
+                return Math.round(representativeSeconds(bucket.getKey()));
+            }
+        }
+        return Math.round(representativeSeconds(countsByBucket.lastKey()));
+    }
+}
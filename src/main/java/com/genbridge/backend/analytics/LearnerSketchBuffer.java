@@ -0,0 +1,61 @@
+package com.genbridge.backend.analytics;
+
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-lesson, per-day learner sketches not yet written to {@code lesson_learner_sketches}.
+ * Quiz writes only touch memory here; {@link LearnerSketchFlushJob} periodically drains the buffer
+ * and merges it into the stored sketches. Because merging is idempotent, a sketch that is restored
+ * after a failed flush, or a learner already covered by a rebuild, is never counted twice.
+ */
+@Component
+public class LearnerSketchBuffer {
+
+    private final Map<LearnerSketchKey, HyperLogLog> pending = new ConcurrentHashMap<>();
+
+    public void offer(Long lessonId, LocalDate day, UUID userId) {
+        pending.compute(new LearnerSketchKey(lessonId, day), (key, sketch) -> {
+            HyperLogLog target = sketch == null ? new HyperLogLog() : sketch;
+            target.add(userId);
+            return target;
+        });
+    }
+
+    /** Removes and returns everything buffered so far. */
+    public Map<LearnerSketchKey, HyperLogLog> drain() {
+        Map<LearnerSketchKey, HyperLogLog> drained = new HashMap<>();
+        for (LearnerSketchKey key : pending.keySet()) {
+            HyperLogLog sketch = pending.remove(key);
+            if (sketch != null) {
+                drained.put(key, sketch);
+            }
+        }
+        return drained;
+    }
+
+    /** Puts drained sketches back, e.g. after the flush that took them failed. */
+    public void restore(Map<LearnerSketchKey, HyperLogLog> sketches) {
+        sketches.forEach((key, sketch) -> pending.merge(key, sketch, (current, restored) -> {
+            current.merge(restored);
+            return current;
+        }));
+    }
+
+    /** Returns copies of the buffered sketches, so reads can include learners not yet flushed. */
+    public Map<LearnerSketchKey, HyperLogLog> snapshot() {
+        Map<LearnerSketchKey, HyperLogLog> copies = new HashMap<>();
+        for (LearnerSketchKey key : pending.keySet()) {
+            pending.computeIfPresent(key, (k, sketch) -> {
+                copies.put(k, sketch.copy());
+                return sketch;
+            });
+        }
+        return copies;
+    }
+}
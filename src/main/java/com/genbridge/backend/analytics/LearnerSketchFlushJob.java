@@ -0,0 +1,42 @@
+package com.genbridge.backend.analytics;
+
+import com.genbridge.backend.services.AnalyticsService;
+import jakarta.annotation.PreDestroy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Merges buffered learner sketches into {@code lesson_learner_sketches} every
+ * {@code analytics.learner-sketch.flush-ms}, and once more on shutdown.
+ */
+@Component
+public class LearnerSketchFlushJob {
+
+    private final LearnerSketchBuffer learnerSketchBuffer;
+    private final AnalyticsService analyticsService;
+
+    public LearnerSketchFlushJob(LearnerSketchBuffer learnerSketchBuffer, AnalyticsService analyticsService) {
+        this.learnerSketchBuffer = learnerSketchBuffer;
+        this.analyticsService = analyticsService;
+    }
+
+    @Scheduled(fixedDelayString = "${analytics.learner-sketch.flush-ms:60000}")
+    public void flush() {
+        Map<LearnerSketchKey, HyperLogLog> sketches = learnerSketchBuffer.drain();
+        if (sketches.isEmpty()) {
+            return;
+        }
+        try {
+            analyticsService.mergeLearnerSketches(sketches);
+        } catch (RuntimeException e) {
+            learnerSketchBuffer.restore(sketches); // Retried on the next run
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+}
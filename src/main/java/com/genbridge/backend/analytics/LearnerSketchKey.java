@@ -0,0 +1,7 @@
+package com.genbridge.backend.analytics;
+
+import java.time.LocalDate;
+
+/** Identifies the distinct-learner sketch of one lesson on one day. */
+public record LearnerSketchKey(Long lessonId, LocalDate day) {
+}
@@ -0,0 +1,24 @@
+package com.genbridge.backend.analytics;
+
+import com.genbridge.backend.services.AnalyticsService;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Recomputes the {@code lesson_stats} rollup nightly, correcting any drift from the incremental
+ * updates.
+ */
+@Component
+public class LessonStatsReconciliationJob {
+
+    private final AnalyticsService analyticsService;
+
+    public LessonStatsReconciliationJob(AnalyticsService analyticsService) {
+        this.analyticsService = analyticsService;
+    }
+
+    @Scheduled(cron = "${analytics.lesson-stats.reconcile-cron:0 30 3 * * *}")
+    public void reconcile() {
+        analyticsService.reconcileLessonStats();
+    }
+}
@@ -0,0 +1,33 @@
+package com.genbridge.backend.analytics;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Locale;
+
+/** Bucket size for {@code GET /api/admin/analytics/timeseries}. */
+public enum TimeseriesGranularity {
+    DAY,
+    WEEK,
+    MONTH;
+
+    /** Parses {@code day}, {@code week} or {@code month} (case-insensitive); null or blank means day. */
+    public static TimeseriesGranularity parse(String value) {
+        if (value == null || value.isBlank()) {
+            return DAY;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("granularity must be one of day, week, month");
+        }
+    }
+
+    /** First day of the bucket containing {@code day}: the day itself, its Monday, or the first of its month. */
+    public LocalDate bucketStart(LocalDate day) {
+        return switch (this) {
+            case DAY -> day;
+            case WEEK -> day.with(DayOfWeek.MONDAY);
+            case MONTH -> day.withDayOfMonth(1);
+        };
+    }
+}
@@ -2,12 +2,16 @@ package com.genbridge.backend.auth;
 
 import com.genbridge.backend.auth.dto.LoginRequest;
 import com.genbridge.backend.auth.dto.LoginResponse;
+import com.genbridge.backend.auth.dto.RefreshRequest;
 import com.genbridge.backend.auth.dto.RegistrationRequest;
+import com.genbridge.backend.config.LoginRateLimiter;
 import com.genbridge.backend.user.UserService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
 import com.genbridge.backend.auth.dto.ChangePasswordRequest;
 import com.genbridge.backend.user.User;
@@ -19,9 +23,11 @@ import org.springframework.security.core.context.SecurityContextHolder;
 public class AuthController {
 
     private final UserService userService;
+    private final LoginRateLimiter loginRateLimiter;
 
-    public AuthController(UserService userService) {
+    public AuthController(UserService userService, LoginRateLimiter loginRateLimiter) {
         this.userService = userService;
+        this.loginRateLimiter = loginRateLimiter;
     }
 
     @PostMapping("/register")
@@ -31,23 +37,55 @@ public class AuthController {
             return ResponseEntity.ok("Registration successful!");
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        } catch (ResponseStatusException e) {
+            throw e; // e.g. 503 while password hashing is overloaded
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Registration failed.");
         }
     }
 
     @PostMapping("/login")
-    public ResponseEntity<?> login(@Valid @RequestBody LoginRequest request) {
+    public ResponseEntity<?> login(@Valid @RequestBody LoginRequest request, HttpServletRequest httpRequest) {
+        // Refuse over-limit attempts (429) before the user lookup and password check
+        loginRateLimiter.check(request.getEmail(), httpRequest.getRemoteAddr());
         try {
             LoginResponse response = userService.loginUser(request);
             return ResponseEntity.ok(response);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(e.getMessage());
+        } catch (ResponseStatusException e) {
+            throw e; // e.g. 503 while password hashing is overloaded
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Login failed.");
         }
     }
 
+    // Exchanges a refresh token for a new access and refresh token pair
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@Valid @RequestBody RefreshRequest request) {
+        try {
+            LoginResponse response = userService.refresh(request.getRefreshToken());
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Refresh failed.");
+        }
+    }
+
+    // Revokes the caller's access token and, if sent, their refresh token
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@RequestHeader("Authorization") String authorization,
+                                    @RequestBody(required = false) RefreshRequest request) {
+        try {
+            String accessToken = authorization.substring("Bearer ".length());
+            userService.logout(accessToken, request == null ? null : request.getRefreshToken());
+            return ResponseEntity.ok("Logged out.");
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Logout failed.");
+        }
+    }
+
     @PutMapping("/change-password")
     public ResponseEntity<?> changePassword(@Valid @RequestBody ChangePasswordRequest request) {
         try {
@@ -57,6 +95,8 @@ public class AuthController {
             return ResponseEntity.ok("Password changed successfully!");
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        } catch (ResponseStatusException e) {
+            throw e; // e.g. 503 while password hashing is overloaded
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Failed to change password.");
         }
@@ -3,11 +3,15 @@ package com.genbridge.backend.auth.dto;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 
-/** Returned after successful login: contains the JWT token, email, and role. */
+/**
+ * Returned after successful login or refresh: contains the short-lived access token, the refresh
+ * token that renews it, email, and role.
+ */
 @Getter
 @AllArgsConstructor
 public class LoginResponse {
     private String token;
+    private String refreshToken;
     private String email;
     private String role;
 }
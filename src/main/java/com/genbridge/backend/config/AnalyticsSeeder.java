@@ -0,0 +1,80 @@
+package com.genbridge.backend.config;
+
+import com.genbridge.backend.repository.DailyActivityRepository;
+import com.genbridge.backend.repository.LessonLearnerSketchRepository;
+import com.genbridge.backend.repository.LessonRepository;
+import com.genbridge.backend.repository.LessonStatsRepository;
+import com.genbridge.backend.repository.UserActivityRepository;
+import com.genbridge.backend.services.AnalyticsService;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Backfills the analytics rollups on startup when they are empty, e.g. the first deploy after
+ * they were introduced. Later rebuilds go through the admin analytics endpoints.
+ */
+@Component
+@Order(210)
+public class AnalyticsSeeder implements CommandLineRunner {
+
+    private final LessonStatsRepository lessonStatsRepository;
+    private final DailyActivityRepository dailyActivityRepository;
+    private final LessonLearnerSketchRepository lessonLearnerSketchRepository;
+    private final UserActivityRepository userActivityRepository;
+    private final LessonRepository lessonRepository;
+    private final AnalyticsService analyticsService;
+
+    public AnalyticsSeeder(LessonStatsRepository lessonStatsRepository,
+                           DailyActivityRepository dailyActivityRepository,
+                           LessonLearnerSketchRepository lessonLearnerSketchRepository,
+                           UserActivityRepository userActivityRepository,
+                           LessonRepository lessonRepository,
+                           AnalyticsService analyticsService) {
+        this.lessonStatsRepository = lessonStatsRepository;
+        this.dailyActivityRepository = dailyActivityRepository;
+        this.lessonLearnerSketchRepository = lessonLearnerSketchRepository;
+        this.userActivityRepository = userActivityRepository;
+        this.lessonRepository = lessonRepository;
+        this.analyticsService = analyticsService;
+    }
+
+    @Override
+    public void run(String... args) {
+        boolean backfillLessonStats;
+        boolean backfillDailyActivity;
+        boolean backfillLearnerSketches;
+        boolean backfillUserActivity;
+        try {
+            backfillLessonStats = lessonStatsRepository.count() == 0 && lessonRepository.count() > 0;
+            backfillDailyActivity = dailyActivityRepository.count() == 0;
+            backfillLearnerSketches = lessonLearnerSketchRepository.count() == 0;
+            backfillUserActivity = userActivityRepository.count() == 0;
+        } catch (Exception e) {
+            return; // Context shutting down during DevTools restart — skip backfill
+        }
+
+        if (backfillLessonStats) {
+            int lessons = analyticsService.reconcileLessonStats();
+            System.out.println("Lesson stats backfilled for " + lessons + " lessons");
+        }
+        if (backfillDailyActivity) {
+            int days = analyticsService.rebuildDailyActivity();
+            if (days > 0) {
+                System.out.println("Daily activity backfilled for " + days + " days");
+            }
+        }
+        if (backfillLearnerSketches) {
+            int lessonDays = analyticsService.rebuildLearnerSketches();
+            if (lessonDays > 0) {
+                System.out.println("Learner sketches backfilled for " + lessonDays + " lesson-days");
+            }
+        }
+        if (backfillUserActivity) {
+            int users = analyticsService.rebuildUserActivity();
+            if (users > 0) {
+                System.out.println("User activity backfilled for " + users + " users");
+            }
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.genbridge.backend.config;
+
+import com.genbridge.backend.event.UserChangedEvent;
+import com.genbridge.backend.user.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Verified JWT principals, keyed by the SHA-256 of the token so raw tokens are never held in memory.
+ * A hit lets {@link JwtAuthFilter} skip signature verification. Entries live for
+ * {@code jwt.cache.ttl-seconds} or until the token expires, whichever is sooner, and the least
+ * recently used entry is dropped once {@code jwt.cache.max-size} tokens are cached.
+ * All of a user's entries are dropped when a {@link UserChangedEvent} commits; the filter still checks
+ * each principal's token version, so a revoked token is refused even before that happens.
+ */
+@Component
+public class AuthPrincipalCache {
+
+    private record Entry(User snapshot, long expiresAtMillis) {
+    }
+
+    private final int maxSize;
+    private final Duration ttl;
+    private final Clock clock;
+    private final Map<String, Entry> entries;
+
+    @Autowired
+    public AuthPrincipalCache(@Value("${jwt.cache.max-size:10000}") int maxSize,
+                              @Value("${jwt.cache.ttl-seconds:300}") long ttlSeconds) {
+        this(maxSize, Duration.ofSeconds(ttlSeconds), Clock.systemUTC());
+    }
+
+    AuthPrincipalCache(int maxSize, Duration ttl, Clock clock) {
+        this.maxSize = maxSize;
+        this.ttl = ttl;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > AuthPrincipalCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * Returns a fresh copy of the principal cached for this token, or empty on a miss or once the
+     * entry has expired. Each caller gets its own copy, so request code may modify it freely.
+     */
+    public Optional<User> get(String token) {
+        String key = hash(token);
+        long now = clock.millis();
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+            if (entry != null && entry.expiresAtMillis() <= now) {
+                entries.remove(key);
+                entry = null;
+            }
+        }
+        return entry == null ? Optional.empty() : Optional.of(copyOf(entry.snapshot()));
+    }
+
+    /** Caches a snapshot of {@code user} for a verified token until {@code tokenExpiresAt} at the latest. */
+    public void put(String token, User user, Date tokenExpiresAt) {
+        long expiresAt = clock.millis() + ttl.toMillis();
+        if (tokenExpiresAt != null) {
+            expiresAt = Math.min(expiresAt, tokenExpiresAt.getTime());
+        }
+        if (maxSize <= 0 || expiresAt <= clock.millis()) {
+            return;
+        }
+        Entry entry = new Entry(copyOf(user), expiresAt);
+        String key = hash(token);
+        synchronized (entries) {
+            entries.put(key, entry);
+        }
+    }
+
+    /** Drops one token, e.g. after it has been revoked. */
+    public void evict(String token) {
+        String key = hash(token);
+        synchronized (entries) {
+            entries.remove(key);
+        }
+    }
+
+    /** Drops every cached token belonging to the user. */
+    public void evictUser(UUID userId) {
+        synchronized (entries) {
+            entries.values().removeIf(entry -> entry.snapshot().getId().equals(userId));
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        evictUser(event.userId());
+    }
+
+    private static User copyOf(User user) {
+        User copy = new User(user.getName(), user.getEmail(), user.getPasswordHash(), user.getRole());
+        copy.setId(user.getId());
+        copy.setTokenVersion(user.getTokenVersion());
+        copy.setCurrentStreak(user.getCurrentStreak());
+        copy.setLastActiveDate(user.getLastActiveDate());
+        copy.setSuspended(user.isSuspended());
+        copy.setSuspensionReason(user.getSuspensionReason());
+        copy.setCreatedAt(user.getCreatedAt());
+        return copy;
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -1,7 +1,7 @@
 package com.genbridge.backend.config;
 
-import com.genbridge.backend.user.UserRepository;
 import com.genbridge.backend.user.User;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -16,15 +16,27 @@ import java.io.IOException;
 import java.util.List;
 import org.springframework.lang.NonNull;
 
+/**
+ * Authenticates requests carrying a Bearer token.
+ * The principal is rebuilt from the access token's claims, and its token version checked against
+ * {@link TokenVersionRegistry}, so authentication needs no user lookup. Individually revoked tokens
+ * are refused through {@link TokenDenylist}. Verified principals are kept in {@link AuthPrincipalCache},
+ * so a repeat token also skips signature verification; revoking a token evicts it from the cache.
+ */
 @Component
 public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
-    private final UserRepository userRepository;
+    private final AuthPrincipalCache principalCache;
+    private final TokenVersionRegistry tokenVersions;
+    private final TokenDenylist tokenDenylist;
 
-    public JwtAuthFilter(JwtUtil jwtUtil, UserRepository userRepository) {
+    public JwtAuthFilter(JwtUtil jwtUtil, AuthPrincipalCache principalCache, TokenVersionRegistry tokenVersions,
+                         TokenDenylist tokenDenylist) {
         this.jwtUtil = jwtUtil;
-        this.userRepository = userRepository;
+        this.principalCache = principalCache;
+        this.tokenVersions = tokenVersions;
+        this.tokenDenylist = tokenDenylist;
     }
 
     @Override
@@ -41,12 +53,10 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         String token = authHeader.substring(7);
 
         try {
-            String email = jwtUtil.extractEmail(token);
+            if (SecurityContextHolder.getContext().getAuthentication() == null) {
+                User user = principalCache.get(token).orElseGet(() -> verify(token));
 
-            if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                User user = userRepository.findByEmail(email).orElse(null);
-
-                if (user != null && !jwtUtil.isTokenExpired(token)) {
+                if (user != null && tokenVersions.isCurrent(user.getId(), user.getTokenVersion())) {
                     String role = user.getRole();
                     UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(
                             user,
@@ -62,4 +72,16 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    // Verifies the token (parsing rejects a bad signature or an expired token) and reads its principal.
+    // Refresh tokens, revoked tokens and tokens issued before access tokens carried the user id are rejected.
+    private User verify(String token) {
+        Claims claims = jwtUtil.extractClaims(token);
+        if (!jwtUtil.isAccessToken(claims) || jwtUtil.isExpired(claims) || tokenDenylist.isRevoked(claims.getId())) {
+            return null;
+        }
+        User user = jwtUtil.toPrincipal(claims);
+        principalCache.put(token, user, claims.getExpiration());
+        return user;
+    }
 }
@@ -1,6 +1,8 @@
 package com.genbridge.backend.config;
 
+import com.genbridge.backend.user.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import io.jsonwebtoken.SignatureAlgorithm;
@@ -9,39 +11,84 @@ import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.util.Date;
+import java.util.UUID;
 
+/**
+ * Issues and verifies JWTs.
+ * Access tokens are short-lived and carry everything the request path needs about the user — id,
+ * name, role, suspension and token version — so authenticating a request needs no user lookup.
+ * Refresh tokens carry only the id and token version and are exchanged for a new pair at
+ * {@code /api/auth/refresh}. Bumping the user's token version invalidates both; every token also has
+ * its own id ({@code jti}) so it can be revoked on its own through {@link TokenDenylist}.
+ */
 @Component
 public class JwtUtil {
 
-    @Value("${jwt.secret}")
-    private String secret;
+    private static final String TYPE = "typ";
+    private static final String ACCESS = "access";
+    private static final String REFRESH = "refresh";
+    private static final String USER_ID = "uid";
+    private static final String NAME = "name";
+    private static final String ROLE = "role";
+    private static final String TOKEN_VERSION = "tv";
+    private static final String SUSPENDED = "sus";
+    private static final String SUSPENSION_REASON = "susReason";
 
-    @Value("${jwt.expiration}")
-    private long expirationMs;
+    private final long expirationMs;
+    private final long refreshExpirationMs;
 
-    // Converts the plain text secret from application.properties into a proper cryptographic key
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    // Built once at startup — both are immutable and safe to share between requests
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+
+    public JwtUtil(@Value("${jwt.secret}") String secret,
+                   @Value("${jwt.expiration}") long expirationMs,
+                   @Value("${jwt.refresh-expiration:604800000}") long refreshExpirationMs) {
+        this.expirationMs = expirationMs;
+        this.refreshExpirationMs = refreshExpirationMs;
+        // Converts the plain text secret from application.properties into a proper cryptographic key
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        this.parser = Jwts.parser().verifyWith(signingKey).build();
     }
 
-    // Generates a new JWT token for a given email and role
-    public String generateToken(String email, String role) {
-        return Jwts.builder()
-                .subject(email)
-                .claim("role", role)
+    // Generates a short-lived access token describing the user as they are now
+    public String generateAccessToken(User user) {
+        var builder = Jwts.builder()
+                .subject(user.getEmail())
+                .claim(TYPE, ACCESS)
+                .claim(USER_ID, user.getId().toString())
+                .claim(NAME, user.getName())
+                .claim(ROLE, user.getRole())
+                .claim(TOKEN_VERSION, user.getTokenVersion());
+        if (user.isSuspended()) {
+            builder.claim(SUSPENDED, true).claim(SUSPENSION_REASON, user.getSuspensionReason());
+        }
+        return builder
+                .id(UUID.randomUUID().toString())
                 .issuedAt(new Date())
                 .expiration(new Date(System.currentTimeMillis() + expirationMs))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    // Generates a long-lived refresh token that can only be exchanged for a new token pair
+    public String generateRefreshToken(User user) {
+        return Jwts.builder()
+                .subject(user.getEmail())
+                .claim(TYPE, REFRESH)
+                .claim(USER_ID, user.getId().toString())
+                .claim(TOKEN_VERSION, user.getTokenVersion())
+                .id(UUID.randomUUID().toString())
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + refreshExpirationMs))
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    // Reads all the data (claims) stored inside a JWT token
+    // Verifies the signature and expiry and reads all the data (claims) stored inside a JWT token.
+    // Parse once per request and read everything needed from the returned claims.
     public Claims extractClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return parser.parseSignedClaims(token).getPayload();
     }
 
     // Gets just the email (subject) from the token
@@ -51,11 +98,46 @@ public class JwtUtil {
 
     // Checks if the token has passed its expiry time
     public boolean isTokenExpired(String token) {
-        return extractClaims(token).getExpiration().before(new Date());
+        return isExpired(extractClaims(token));
+    }
+
+    // Checks already-parsed claims for expiry without verifying the token again
+    public boolean isExpired(Claims claims) {
+        return claims.getExpiration() == null || claims.getExpiration().before(new Date());
     }
 
     // Full validation - is it valid and not expired?
     public boolean validateToken(String token, String email) {
-        return email.equals(extractEmail(token)) && !isTokenExpired(token);
+        Claims claims = extractClaims(token);
+        return email.equals(claims.getSubject()) && !isExpired(claims);
+    }
+
+    public boolean isAccessToken(Claims claims) {
+        return ACCESS.equals(claims.get(TYPE, String.class)) && claims.get(USER_ID) != null;
+    }
+
+    public boolean isRefreshToken(Claims claims) {
+        return REFRESH.equals(claims.get(TYPE, String.class)) && claims.get(USER_ID) != null;
+    }
+
+    public UUID extractUserId(Claims claims) {
+        return UUID.fromString(claims.get(USER_ID, String.class));
+    }
+
+    public int extractTokenVersion(Claims claims) {
+        Integer version = claims.get(TOKEN_VERSION, Integer.class);
+        return version == null ? 0 : version;
+    }
+
+    // Rebuilds the request principal from an access token's claims, without touching the database.
+    // Fields the token does not carry (streak, last active date) are left at their defaults.
+    public User toPrincipal(Claims claims) {
+        User user = new User(claims.get(NAME, String.class), claims.getSubject(), "", claims.get(ROLE, String.class));
+        user.setId(extractUserId(claims));
+        user.setTokenVersion(extractTokenVersion(claims));
+        user.setSuspended(Boolean.TRUE.equals(claims.get(SUSPENDED, Boolean.class)));
+        user.setSuspensionReason(claims.get(SUSPENSION_REASON, String.class));
+        user.setCreatedAt(null);
+        return user;
     }
-}
\ No newline at end of file
+}
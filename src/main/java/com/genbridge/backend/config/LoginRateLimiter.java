@@ -0,0 +1,88 @@
+package com.genbridge.backend.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Limits login attempts per email and per client address with in-memory token buckets, checked
+ * before the user lookup and the password hash so refused attempts cost almost nothing.
+ * Limits come from {@code auth.rate-limit.*}; each map keeps at most {@code max-entries} keys and
+ * idle keys are swept every {@code sweep-ms}. Refusals are counted in {@code auth.login.rate_limited}.
+ */
+@Component
+public class LoginRateLimiter {
+
+    private static final int STRIPES = 16;
+
+    private final StripedTokenBuckets emailBuckets;
+    private final StripedTokenBuckets ipBuckets;
+    private final long idleNanos;
+    private final Counter emailRejections;
+    private final Counter ipRejections;
+
+    @Autowired
+    public LoginRateLimiter(MeterRegistry meterRegistry,
+                            @Value("${auth.rate-limit.email.capacity:5}") int emailCapacity,
+                            @Value("${auth.rate-limit.email.per-minute:5}") double emailPerMinute,
+                            @Value("${auth.rate-limit.ip.capacity:20}") int ipCapacity,
+                            @Value("${auth.rate-limit.ip.per-minute:20}") double ipPerMinute,
+                            @Value("${auth.rate-limit.max-entries:100000}") int maxEntries,
+                            @Value("${auth.rate-limit.idle-ms:600000}") long idleMs) {
+        this(meterRegistry, emailCapacity, emailPerMinute, ipCapacity, ipPerMinute, maxEntries, idleMs, System::nanoTime);
+    }
+
+    LoginRateLimiter(MeterRegistry meterRegistry, int emailCapacity, double emailPerMinute, int ipCapacity,
+                     double ipPerMinute, int maxEntries, long idleMs, LongSupplier nanoClock) {
+        this.emailBuckets = new StripedTokenBuckets(emailCapacity, emailPerMinute, maxEntries, STRIPES, nanoClock);
+        this.ipBuckets = new StripedTokenBuckets(ipCapacity, ipPerMinute, maxEntries, STRIPES, nanoClock);
+        this.idleNanos = TimeUnit.MILLISECONDS.toNanos(idleMs);
+        this.emailRejections = Counter.builder("auth.login.rate_limited")
+                .tag("key", "email")
+                .description("Login attempts refused because the email was over its limit")
+                .register(meterRegistry);
+        this.ipRejections = Counter.builder("auth.login.rate_limited")
+                .tag("key", "ip")
+                .description("Login attempts refused because the client address was over its limit")
+                .register(meterRegistry);
+        Gauge.builder("auth.login.rate_limit.keys", this, limiter -> limiter.emailBuckets.size() + limiter.ipBuckets.size())
+                .description("Emails and client addresses currently tracked by the login rate limiter")
+                .register(meterRegistry);
+    }
+
+    /** Takes one attempt for the address and the email, or throws {@link TooManyLoginAttemptsException}. */
+    public void check(String email, String clientIp) {
+        if (clientIp != null) {
+            long waitNanos = ipBuckets.tryAcquire(clientIp);
+            if (waitNanos > 0) {
+                ipRejections.increment();
+                throw new TooManyLoginAttemptsException(toRetryAfterSeconds(waitNanos));
+            }
+        }
+        if (email != null) {
+            long waitNanos = emailBuckets.tryAcquire(email.trim().toLowerCase(Locale.ROOT));
+            if (waitNanos > 0) {
+                emailRejections.increment();
+                throw new TooManyLoginAttemptsException(toRetryAfterSeconds(waitNanos));
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${auth.rate-limit.sweep-ms:60000}")
+    public void evictIdle() {
+        emailBuckets.evictIdle(idleNanos);
+        ipBuckets.evictIdle(idleNanos);
+    }
+
+    private static long toRetryAfterSeconds(long waitNanos) {
+        return Math.max(1, (long) Math.ceil(waitNanos / 1_000_000_000d));
+    }
+}
@@ -0,0 +1,31 @@
+package com.genbridge.backend.config;
+
+import com.genbridge.backend.repository.QuizQuestionRepository;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Numbers quiz questions created before questions had ordinals, by id within each lesson, so
+ * learners' mastery bitmaps can refer to them. A no-op once every question has one.
+ */
+@Component
+@Order(110)
+public class QuizOrdinalSeeder implements CommandLineRunner {
+
+    private final QuizQuestionRepository quizQuestionRepository;
+
+    public QuizOrdinalSeeder(QuizQuestionRepository quizQuestionRepository) {
+        this.quizQuestionRepository = quizQuestionRepository;
+    }
+
+    @Override
+    @Transactional
+    public void run(String... args) {
+        int numbered = quizQuestionRepository.assignMissingOrdinals();
+        if (numbered > 0) {
+            System.out.println("Assigned ordinals to " + numbered + " quiz questions");
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.genbridge.backend.config;
 
+import jakarta.servlet.DispatcherType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -29,13 +30,20 @@ public class SecurityConfig {
             .csrf(csrf -> csrf.disable())
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> auth
+                // Async dispatches (SSE streams) continue a request that was already authorized
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                 // Public endpoints — no token needed
                 .requestMatchers(HttpMethod.PUT, "/api/auth/change-password").authenticated()
+                .requestMatchers(HttpMethod.POST, "/api/auth/logout").authenticated()
                 .requestMatchers("/api/auth/**").permitAll()
                 .requestMatchers(HttpMethod.GET, "/api/leaderboard").authenticated()
+                .requestMatchers(HttpMethod.GET, "/api/leaderboard/me").authenticated()
+                .requestMatchers(HttpMethod.GET, "/api/leaderboard/stream").authenticated()
                 .requestMatchers("/api/health/**").permitAll()
                 .requestMatchers("/error").permitAll()
                 .requestMatchers("/swagger-ui/**", "/v3/api-docs/**", "/api-docs/**", "/swagger-ui.html").permitAll()
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
 
                 // Admin-only content management
                 .requestMatchers(HttpMethod.POST, "/api/content").hasRole("ADMIN")
@@ -50,6 +58,7 @@ public class SecurityConfig {
                 .requestMatchers(HttpMethod.GET, "/api/lessons/{id}/quiz").authenticated()
                 .requestMatchers(HttpMethod.POST, "/api/lessons/{id}/progress").authenticated()
                 .requestMatchers(HttpMethod.POST, "/api/lessons/{id}/quiz/attempts").authenticated()
+                .requestMatchers(HttpMethod.POST, "/api/lessons/{id}/quiz/answers").authenticated()
                 .requestMatchers(HttpMethod.GET, "/api/content/glossary").authenticated()
                 .requestMatchers(HttpMethod.GET, "/api/content/lesson/{lessonId}").authenticated()
                 .requestMatchers(HttpMethod.GET, "/api/progress").authenticated()
@@ -0,0 +1,111 @@
+package com.genbridge.backend.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Token buckets keyed by string, each holding up to {@code capacity} tokens and refilling
+ * continuously at {@code refillPerMinute}. Keys are spread over independently locked stripes so
+ * concurrent callers rarely contend, and each stripe keeps at most its share of {@code maxEntries},
+ * dropping the least recently used key first. Buckets left idle until full are indistinguishable
+ * from new ones, so {@link #evictIdle} can drop them without changing any decision.
+ */
+public final class StripedTokenBuckets {
+
+    private static final class Bucket {
+        double tokens;
+        long updatedAtNanos;
+
+        Bucket(double tokens, long updatedAtNanos) {
+            this.tokens = tokens;
+            this.updatedAtNanos = updatedAtNanos;
+        }
+    }
+
+    private static final class Stripe extends LinkedHashMap<String, Bucket> {
+        private final int maxEntries;
+
+        Stripe(int maxEntries) {
+            super(16, 0.75f, true);
+            this.maxEntries = maxEntries;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Bucket> eldest) {
+            return size() > maxEntries;
+        }
+    }
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private final LongSupplier nanoClock;
+    private final Stripe[] stripes;
+
+    public StripedTokenBuckets(int capacity, double refillPerMinute, int maxEntries, int stripeCount,
+                               LongSupplier nanoClock) {
+        this.capacity = Math.max(1, capacity);
+        this.tokensPerNano = refillPerMinute / 60_000_000_000d;
+        this.nanoClock = nanoClock;
+        this.stripes = new Stripe[Math.max(1, stripeCount)];
+        int perStripe = Math.max(1, maxEntries / stripes.length);
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe(perStripe);
+        }
+    }
+
+    /** Takes one token for {@code key}. Returns 0 if one was available, otherwise the nanoseconds until one will be. */
+    public long tryAcquire(String key) {
+        Stripe stripe = stripeFor(key);
+        long now = nanoClock.getAsLong();
+        synchronized (stripe) {
+            Bucket bucket = stripe.get(key);
+            if (bucket == null) {
+                bucket = new Bucket(capacity, now);
+                stripe.put(key, bucket);
+            } else {
+                refill(bucket, now);
+            }
+            if (bucket.tokens >= 1) {
+                bucket.tokens -= 1;
+                return 0;
+            }
+            return tokensPerNano <= 0 ? Long.MAX_VALUE : (long) Math.ceil((1 - bucket.tokens) / tokensPerNano);
+        }
+    }
+
+    /** Drops buckets that have refilled completely and been untouched for at least {@code idleNanos}. */
+    public int evictIdle(long idleNanos) {
+        long now = nanoClock.getAsLong();
+        int evicted = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                int before = stripe.size();
+                stripe.values().removeIf(bucket -> now - bucket.updatedAtNanos >= idleNanos
+                        && bucket.tokens + (now - bucket.updatedAtNanos) * tokensPerNano >= capacity);
+                evicted += before - stripe.size();
+            }
+        }
+        return evicted;
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+
+    private void refill(Bucket bucket, long now) {
+        bucket.tokens = Math.min(capacity, bucket.tokens + (now - bucket.updatedAtNanos) * tokensPerNano);
+        bucket.updatedAtNanos = now;
+    }
+
+    private Stripe stripeFor(String key) {
+        int hash = key.hashCode() * 0x9E3779B9; // Spread similar keys (e.g. sequential IPs) across stripes
+        return stripes[Math.floorMod(hash ^ (hash >>> 16), stripes.length)];
+    }
+}
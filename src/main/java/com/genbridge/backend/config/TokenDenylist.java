@@ -0,0 +1,141 @@
+package com.genbridge.backend.config;
+
+import com.genbridge.backend.entity.RevokedToken;
+import com.genbridge.backend.repository.RevokedTokenRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Revoked token ids ({@code jti}), stored in {@code revoked_tokens} and mirrored in memory so
+ * checking a token needs no query. A Bloom filter answers the common "not revoked" case in a few
+ * hash probes; only a filter hit consults the exact map, which rules out false positives.
+ * Entries are kept until their token expires and purged every {@code jwt.denylist.purge-ms}, when
+ * the filter is rebuilt — a Bloom filter cannot drop keys.
+ * The table is the authority: a revocation is inserted only if the jti is not already there, and
+ * reaches memory once its transaction commits, so a rolled-back revocation is never enforced.
+ */
+@Component
+public class TokenDenylist {
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final int expectedEntries;
+    private final Map<String, Long> expiresAtByJti = new ConcurrentHashMap<>();
+    private volatile BloomFilter filter;
+    private int filterCapacity;
+
+    public TokenDenylist(RevokedTokenRepository revokedTokenRepository,
+                         @Value("${jwt.denylist.expected-entries:10000}") int expectedEntries) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.expectedEntries = expectedEntries;
+        rebuildFilter();
+    }
+
+    /** Loads the revocations that are still in force. */
+    @PostConstruct
+    public void load() {
+        for (RevokedToken token : revokedTokenRepository.findByExpiresAtAfter(LocalDateTime.now())) {
+            expiresAtByJti.put(token.getJti(), toMillis(token.getExpiresAt()));
+        }
+        rebuildFilter();
+    }
+
+    public boolean isRevoked(String jti) {
+        if (jti == null || !filter.mightContain(jti)) {
+            return false;
+        }
+        Long expiresAt = expiresAtByJti.get(jti);
+        return expiresAt != null && expiresAt > System.currentTimeMillis();
+    }
+
+    /** Revokes one token until {@code expiresAt}; tokens that have already expired are ignored. */
+    @Transactional
+    public void revoke(String jti, UUID userId, Date expiresAt) {
+        if (jti == null || expiresAt == null || expiresAt.getTime() <= System.currentTimeMillis()
+                || expiresAtByJti.containsKey(jti)) {
+            return;
+        }
+        insert(jti, userId, expiresAt);
+    }
+
+    /**
+     * Revokes a single-use token as it is used. Returns false if it had already been revoked, including
+     * by a concurrent call on this or another instance, in which case the caller must refuse the token.
+     */
+    @Transactional
+    public boolean consume(String jti, UUID userId, Date expiresAt) {
+        if (jti == null || expiresAt == null || expiresAtByJti.containsKey(jti)) {
+            return false;
+        }
+        return insert(jti, userId, expiresAt);
+    }
+
+    /** Drops revocations whose tokens have expired, from the table and from memory. */
+    @Scheduled(fixedDelayString = "${jwt.denylist.purge-ms:3600000}")
+    @Transactional
+    public void purgeExpired() {
+        revokedTokenRepository.deleteExpired(LocalDateTime.now());
+        long now = System.currentTimeMillis();
+        synchronized (this) {
+            expiresAtByJti.values().removeIf(expiresAt -> expiresAt <= now);
+            rebuildFilter();
+        }
+    }
+
+    private boolean insert(String jti, UUID userId, Date expiresAt) {
+        LocalDateTime expiry = LocalDateTime.ofInstant(expiresAt.toInstant(), ZoneId.systemDefault());
+        if (revokedTokenRepository.insertIfAbsent(jti, userId, expiry, LocalDateTime.now()) == 0) {
+            return false;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    remember(jti, expiresAt.getTime());
+                }
+            });
+        } else {
+            remember(jti, expiresAt.getTime());
+        }
+        return true;
+    }
+
+    private synchronized void remember(String jti, long expiresAt) {
+        expiresAtByJti.put(jti, expiresAt);
+        if (expiresAtByJti.size() > filterCapacity) {
+            rebuildFilter();
+        } else {
+            filter.add(jti);
+        }
+    }
+
+    public int size() {
+        return expiresAtByJti.size();
+    }
+
+    // Sized with headroom so revocations between purges keep the false-positive rate near its target
+    private synchronized void rebuildFilter() {
+        int capacity = Math.max(expectedEntries, expiresAtByJti.size() * 2);
+        BloomFilter rebuilt = new BloomFilter(capacity, FALSE_POSITIVE_RATE);
+        expiresAtByJti.keySet().forEach(rebuilt::add);
+        filterCapacity = capacity;
+        filter = rebuilt;
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
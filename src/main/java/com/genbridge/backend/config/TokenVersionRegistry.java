@@ -0,0 +1,52 @@
+package com.genbridge.backend.config;
+
+import com.genbridge.backend.event.UserChangedEvent;
+import com.genbridge.backend.user.UserRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Current token version per user, kept in memory so checking an access token needs no query.
+ * A user's version is read from the database the first time one of their tokens is seen and
+ * re-read when a {@link UserChangedEvent} commits. Versions only ever increase, so a slow read
+ * racing with a revocation can never bring back an older version.
+ */
+@Component
+public class TokenVersionRegistry {
+
+    private final UserRepository userRepository;
+    private final Map<UUID, Integer> versions = new ConcurrentHashMap<>();
+
+    public TokenVersionRegistry(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    /** True if {@code version} is the user's current token version; false for unknown users. */
+    public boolean isCurrent(UUID userId, int version) {
+        Integer current = versions.get(userId);
+        if (current == null) {
+            current = load(userId);
+            if (current == null) {
+                return false;
+            }
+        }
+        return current == version;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (versions.containsKey(event.userId())) {
+            load(event.userId());
+        }
+    }
+
+    private Integer load(UUID userId) {
+        return userRepository.findTokenVersionById(userId)
+                .map(version -> versions.merge(userId, version, Math::max))
+                .orElse(null);
+    }
+}
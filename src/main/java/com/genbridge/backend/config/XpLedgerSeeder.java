@@ -0,0 +1,40 @@
+package com.genbridge.backend.config;
+
+import com.genbridge.backend.repository.UserXpRepository;
+import com.genbridge.backend.services.XpService;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Backfills the XP ledger on startup when it is empty, e.g. the first deploy after
+ * the ledger was introduced. Later rebuilds go through POST /api/admin/xp/rebuild.
+ */
+@Component
+@Order(200)
+public class XpLedgerSeeder implements CommandLineRunner {
+
+    private final UserXpRepository userXpRepository;
+    private final XpService xpService;
+
+    public XpLedgerSeeder(UserXpRepository userXpRepository, XpService xpService) {
+        this.userXpRepository = userXpRepository;
+        this.xpService = xpService;
+    }
+
+    @Override
+    public void run(String... args) {
+        try {
+            if (userXpRepository.count() > 0) {
+                return; // Ledger already populated
+            }
+        } catch (Exception e) {
+            return; // Context shutting down during DevTools restart — skip backfill
+        }
+
+        int users = xpService.rebuildLedger();
+        if (users > 0) {
+            System.out.println("XP ledger backfilled for " + users + " users");
+        }
+    }
+}
@@ -1,87 +1,157 @@
 package com.genbridge.backend.controller;
 
-import com.genbridge.backend.repository.LessonProgressRepository;
-import com.genbridge.backend.repository.LessonRepository;
-import com.genbridge.backend.repository.QuestCompletionRepository;
-import com.genbridge.backend.repository.ForumPostRepository;
-import com.genbridge.backend.user.User;
-import com.genbridge.backend.user.UserRepository;
+import com.genbridge.backend.analytics.AnalyticsReportJob;
+import com.genbridge.backend.analytics.TimeseriesGranularity;
+import com.genbridge.backend.services.AnalyticsService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.*;
-import java.util.stream.Collectors;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/admin")
 public class AnalyticsController {
 
-    private final UserRepository userRepository;
-    private final LessonRepository lessonRepository;
-    private final LessonProgressRepository lessonProgressRepository;
-    private final QuestCompletionRepository questCompletionRepository;
-    private final ForumPostRepository forumPostRepository;
-
-    public AnalyticsController(UserRepository userRepository,
-                                LessonRepository lessonRepository,
-                                LessonProgressRepository lessonProgressRepository,
-                                QuestCompletionRepository questCompletionRepository,
-                                ForumPostRepository forumPostRepository) {
-        this.userRepository = userRepository;
-        this.lessonRepository = lessonRepository;
-        this.lessonProgressRepository = lessonProgressRepository;
-        this.questCompletionRepository = questCompletionRepository;
-        this.forumPostRepository = forumPostRepository;
+    private static final String RETRY_AFTER_SECONDS = "2";
+    private static final String LESSON_STATS_RECONCILE = "lesson-stats-reconcile";
+    private static final String LEARNERS_REBUILD = "learners-rebuild";
+    private static final String RETENTION_REBUILD = "retention-rebuild";
+    private static final String TIMESERIES_REBUILD = "timeseries-rebuild";
+
+    private final AnalyticsService analyticsService;
+    private final AnalyticsReportJob analyticsReportJob;
+
+    public AnalyticsController(AnalyticsService analyticsService, AnalyticsReportJob analyticsReportJob) {
+        this.analyticsService = analyticsService;
+        this.analyticsReportJob = analyticsReportJob;
     }
 
+    /**
+     * Returns the latest dashboard report built by {@link AnalyticsReportJob}, with its {@code generatedAt}.
+     * A report past the staleness budget is still returned (flagged {@code stale}) while a rebuild runs;
+     * before the first report exists this answers 202 and the client should retry.
+     */
     @GetMapping("/analytics")
     public ResponseEntity<Map<String, Object>> getAnalytics() {
-        List<User> allUsers = userRepository.findAll();
-        List<User> learners = allUsers.stream()
-                .filter(u -> !"ADMIN".equals(u.getRole()))
-                .collect(Collectors.toList());
-
-        long totalUsers = learners.size();
-        long suspendedUsers = learners.stream().filter(User::isSuspended).count();
-        long totalLessons = lessonRepository.count();
-        long publishedLessons = lessonRepository.findByPublishedTrue().size();
-        long totalQuestCompletions = questCompletionRepository.count();
-        long totalForumPosts = forumPostRepository.count();
-
-        // Lesson completion rates
-        List<Map<String, Object>> lessonStats = lessonRepository.findAll().stream()
-                .filter(l -> l.isPublished())
-                .map(lesson -> {
-                    long completions = lessonProgressRepository.findAll().stream()
-                            .filter(p -> p.getLessonId().equals(lesson.getId()) && p.isCompleted())
-                            .count();
-                    double rate = totalUsers == 0 ? 0 : Math.round((completions * 100.0 / totalUsers) * 10) / 10.0;
-                    Map<String, Object> stat = new HashMap<>();
-                    stat.put("lessonId", lesson.getId());
-                    stat.put("title", lesson.getTitle());
-                    stat.put("difficulty", lesson.getDifficulty());
-                    stat.put("completions", completions);
-                    stat.put("completionRate", rate);
-                    return stat;
-                })
-                .sorted((a, b) -> Long.compare((long) b.get("completions"), (long) a.get("completions")))
-                .collect(Collectors.toList());
-
-        // Active users (streak > 0)
-        long activeUsers = learners.stream().filter(u -> u.getCurrentStreak() > 0).count();
-
-        Map<String, Object> analytics = new HashMap<>();
-        analytics.put("totalUsers", totalUsers);
-        analytics.put("activeUsers", activeUsers);
-        analytics.put("suspendedUsers", suspendedUsers);
-        analytics.put("totalLessons", totalLessons);
-        analytics.put("publishedLessons", publishedLessons);
-        analytics.put("totalQuestCompletions", totalQuestCompletions);
-        analytics.put("totalForumPosts", totalForumPosts);
-        analytics.put("lessonStats", lessonStats);
-
-        return ResponseEntity.ok(analytics);
+        Optional<AnalyticsReportJob.Report> report = analyticsReportJob.latest();
+        if (report.isEmpty()) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("message", "Analytics report is being generated");
+            response.put("refreshing", true);
+            return ResponseEntity.accepted().header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS).body(response);
+        }
+
+        Map<String, Object> response = new HashMap<>(report.get().data());
+        response.put("generatedAt", report.get().generatedAt());
+        response.put("stale", analyticsReportJob.isStale(report.get()));
+        response.put("refreshing", analyticsReportJob.isRunning());
+        return ResponseEntity.ok(response);
+    }
+
+    /** Starts rebuilding the dashboard report in the background and returns immediately. */
+    @PostMapping("/analytics/refresh")
+    public ResponseEntity<Map<String, Object>> refreshAnalytics() {
+        boolean started = analyticsReportJob.refresh();
+        Map<String, Object> response = new HashMap<>();
+        response.put("message", started ? "Analytics refresh started" : "Analytics refresh already running");
+        response.put("generatedAt", analyticsReportJob.current().map(AnalyticsReportJob.Report::generatedAt).orElse(null));
+        return ResponseEntity.accepted().header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS).body(response);
+    }
+
+    /** Queues a {@code lesson_stats} reconcile on the report thread; the count is the number of lessons. */
+    @PostMapping("/analytics/lesson-stats/reconcile")
+    public ResponseEntity<Map<String, Object>> reconcileLessonStats() {
+        return accepted(analyticsReportJob.submit(LESSON_STATS_RECONCILE, analyticsService::reconcileLessonStats));
+    }
+
+    /** Status of the latest run of a background reconcile or rebuild task, by task name. */
+    @GetMapping("/analytics/tasks/{task}")
+    public ResponseEntity<Map<String, Object>> getTask(@PathVariable String task) {
+        return analyticsReportJob.task(task)
+                .map(status -> ResponseEntity.ok(toView(status)))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /** Start → attempt → complete counts, drop-off and time-to-complete per lesson, optionally for one lesson. */
+    @GetMapping("/analytics/funnel")
+    public ResponseEntity<List<Map<String, Object>>> getFunnel(@RequestParam(required = false) Long lessonId) {
+        return ResponseEntity.ok(analyticsService.getFunnel(lessonId));
+    }
+
+    /** Percent correct and option selection shares per question, optionally for one lesson. */
+    @GetMapping("/analytics/questions")
+    public ResponseEntity<List<Map<String, Object>>> getQuestionStats(@RequestParam(required = false) Long lessonId) {
+        return ResponseEntity.ok(analyticsService.getQuestionStats(lessonId));
+    }
+
+    /** Approximate distinct learners per lesson between {@code from} and {@code to} (ISO dates, default the last 30 days). */
+    @GetMapping("/analytics/learners")
+    public ResponseEntity<Map<String, Object>> getDistinctLearners(
+            @RequestParam(required = false) Long lessonId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(analyticsService.getDistinctLearners(lessonId, from, to));
+    }
+
+    /** Queues a learner sketch rebuild on the report thread; the count is the number of lesson-days. */
+    @PostMapping("/analytics/learners/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildLearnerSketches() {
+        return accepted(analyticsReportJob.submit(LEARNERS_REBUILD, analyticsService::rebuildLearnerSketches));
+    }
+
+    /** Share of each weekly registration cohort active in each later week, for the last {@code weeks} cohorts. */
+    @GetMapping("/analytics/retention")
+    public ResponseEntity<Map<String, Object>> getCohortRetention(@RequestParam(defaultValue = "12") int weeks) {
+        return ResponseEntity.ok(analyticsService.getCohortRetention(weeks));
+    }
+
+    /** Queues a user activity bitmap rebuild on the report thread; the count is the number of users. */
+    @PostMapping("/analytics/retention/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildUserActivity() {
+        return accepted(analyticsReportJob.submit(RETENTION_REBUILD, analyticsService::rebuildUserActivity));
+    }
+
+    /** Daily activity between {@code from} and {@code to} (ISO dates, default the last 30 days), by day, week or month. */
+    @GetMapping("/analytics/timeseries")
+    public ResponseEntity<Map<String, Object>> getTimeseries(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String granularity) {
+        return ResponseEntity.ok(analyticsService.getTimeseries(from, to, TimeseriesGranularity.parse(granularity)));
+    }
+
+    /** Queues a daily activity rebuild on the report thread; the count is the number of days. */
+    @PostMapping("/analytics/timeseries/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildTimeseries() {
+        return accepted(analyticsReportJob.submit(TIMESERIES_REBUILD, analyticsService::rebuildDailyActivity));
+    }
+
+    private static ResponseEntity<Map<String, Object>> accepted(AnalyticsReportJob.TaskStatus status) {
+        return ResponseEntity.accepted()
+                .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                .header(HttpHeaders.LOCATION, "/api/admin/analytics/tasks/" + status.task())
+                .body(toView(status));
+    }
+
+    private static Map<String, Object> toView(AnalyticsReportJob.TaskStatus status) {
+        Map<String, Object> view = new HashMap<>();
+        view.put("task", status.task());
+        view.put("state", status.state());
+        view.put("count", status.count());
+        view.put("error", status.error());
+        view.put("requestedAt", status.requestedAt());
+        view.put("finishedAt", status.finishedAt());
+        return view;
     }
 }
@@ -0,0 +1,58 @@
+package com.genbridge.backend.controller;
+
+import com.genbridge.backend.export.ExportDataset;
+import com.genbridge.backend.export.ExportFormat;
+import com.genbridge.backend.services.ExportService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+
+/**
+ * Admin downloads of raw {@code quiz_attempts}, {@code lesson_progress} and {@code quest_completions}
+ * rows. The body is written on an async thread as rows arrive from the database, so the request
+ * thread is released immediately and the export never sits in memory.
+ */
+@RestController
+@RequestMapping("/api/admin")
+public class ExportController {
+
+    private final ExportService exportService;
+
+    public ExportController(ExportService exportService) {
+        this.exportService = exportService;
+    }
+
+    /** Streams {@code dataset} as NDJSON (default) or CSV, optionally limited to {@code from}–{@code to} (ISO dates, inclusive). */
+    @GetMapping("/export/{dataset}")
+    public ResponseEntity<StreamingResponseBody> export(
+            @PathVariable String dataset,
+            @RequestParam(required = false) String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        ExportDataset exportDataset = ExportDataset.parse(dataset);
+        ExportFormat exportFormat = ExportFormat.parse(format);
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+
+        String filename = exportDataset.table()
+                + (from != null ? "_from_" + from : "")
+                + (to != null ? "_to_" + to : "")
+                + "." + exportFormat.extension();
+        StreamingResponseBody body = out -> exportService.export(exportDataset, exportFormat, from, to, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.contentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+    }
+}
@@ -1,82 +1,131 @@
 package com.genbridge.backend.controller;
 
-import com.genbridge.backend.entity.LessonProgress;
-import com.genbridge.backend.repository.LessonProgressRepository;
-import com.genbridge.backend.repository.LessonRepository;
-import com.genbridge.backend.repository.QuestCompletionRepository;
+import com.genbridge.backend.entity.UserXp;
+import com.genbridge.backend.leaderboard.LeaderboardBroadcaster;
+import com.genbridge.backend.leaderboard.LeaderboardEntry;
+import com.genbridge.backend.leaderboard.LeaderboardIndex;
+import com.genbridge.backend.leaderboard.LeaderboardStanding;
+import com.genbridge.backend.leaderboard.LeaderboardWindow;
+import com.genbridge.backend.services.XpService;
 import com.genbridge.backend.user.User;
 import com.genbridge.backend.user.UserRepository;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.LocalDate;
 import java.util.*;
-import java.util.stream.Collectors;
 
+/**
+ * REST controller for the learner leaderboard.
+ * Rankings are served from the in-memory {@link LeaderboardIndex}, which follows the XP ledger
+ * maintained by {@link XpService}; weekly and monthly rankings sum the daily XP buckets.
+ * Changes to the top 5 are pushed to subscribers of the live stream.
+ * Admins can rebuild the ledger after a backfill.
+ */
 @RestController
 @RequestMapping("/api")
 public class LeaderboardController {
 
+    private static final int LEADERBOARD_SIZE = LeaderboardBroadcaster.TOP_SIZE;
+    private static final int MAX_NEIGHBOURS = 10;
+
+    private final LeaderboardIndex leaderboardIndex;
+    private final LeaderboardBroadcaster leaderboardBroadcaster;
+    private final XpService xpService;
     private final UserRepository userRepository;
-    private final LessonProgressRepository lessonProgressRepository;
-    private final LessonRepository lessonRepository;
-    private final QuestCompletionRepository questCompletionRepository;
 
-    public LeaderboardController(UserRepository userRepository,
-                                  LessonProgressRepository lessonProgressRepository,
-                                  LessonRepository lessonRepository,
-                                  QuestCompletionRepository questCompletionRepository) {
+    public LeaderboardController(LeaderboardIndex leaderboardIndex,
+                                 LeaderboardBroadcaster leaderboardBroadcaster,
+                                 XpService xpService,
+                                 UserRepository userRepository) {
+        this.leaderboardIndex = leaderboardIndex;
+        this.leaderboardBroadcaster = leaderboardBroadcaster;
+        this.xpService = xpService;
         this.userRepository = userRepository;
-        this.lessonProgressRepository = lessonProgressRepository;
-        this.lessonRepository = lessonRepository;
-        this.questCompletionRepository = questCompletionRepository;
     }
 
     @GetMapping("/leaderboard")
-    public ResponseEntity<List<Map<String, Object>>> getLeaderboard() {
-        List<User> users = userRepository.findAll();
+    public ResponseEntity<List<Map<String, Object>>> getLeaderboard(@RequestParam(required = false) String window) {
+        LeaderboardWindow leaderboardWindow = LeaderboardWindow.parse(window);
+        List<LeaderboardEntry> top = leaderboardWindow == LeaderboardWindow.ALL_TIME
+                ? leaderboardIndex.top(LEADERBOARD_SIZE)
+                : xpService.getTopSince(leaderboardWindow.startDate(LocalDate.now()), LEADERBOARD_SIZE);
+
+        List<Map<String, Object>> leaderboard = new ArrayList<>();
+        for (int i = 0; i < top.size(); i++) {
+            leaderboard.add(top.get(i).toView(i + 1));
+        }
 
-        List<Map<String, Object>> leaderboard = users.stream()
-                .filter(u -> !"ADMIN".equals(u.getRole()))
-                .map(user -> {
-                    List<LessonProgress> completed = lessonProgressRepository
-                            .findByUserIdOrderByLessonIdAsc(user.getId())
-                            .stream()
-                            .filter(LessonProgress::isCompleted)
-                            .collect(Collectors.toList());
+        return ResponseEntity.ok(leaderboard);
+    }
 
-                    int lessonXp = completed.stream()
-                            .mapToInt(p -> lessonRepository.findById(p.getLessonId())
-                                    .map(l -> {
-                                        String diff = l.getDifficulty();
-                                        if ("INTERMEDIATE".equalsIgnoreCase(diff)) return 15;
-                                        if ("ADVANCED".equalsIgnoreCase(diff)) return 20;
-                                        return 10;
-                                    })
-                                    .orElse(10))
-                            .sum();
+    /**
+     * Live top-5 as Server-Sent Events: a {@code snapshot} event on connect, then a {@code delta}
+     * event only when the top 5 changes. Clients reconnect after {@code leaderboard.stream.timeout-ms}.
+     */
+    @GetMapping(path = "/leaderboard/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamLeaderboard() {
+        return leaderboardBroadcaster.subscribe();
+    }
 
-                    int questXp = questCompletionRepository.findByUserOrderByCompletedAtDesc(user).size() * 15;
-                    int xp = lessonXp + questXp;
+    /** Returns the caller's rank and XP with up to {@code neighbours} learners directly above and below. */
+    @GetMapping("/leaderboard/me")
+    public ResponseEntity<Map<String, Object>> getMyStanding(@RequestParam(defaultValue = "2") int neighbours,
+                                                             Authentication authentication) {
+        if (neighbours < 0 || neighbours > MAX_NEIGHBOURS) {
+            throw new IllegalArgumentException("neighbours must be between 0 and " + MAX_NEIGHBOURS);
+        }
+        User user = (User) authentication.getPrincipal();
+        if ("ADMIN".equals(user.getRole())) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Admins are not ranked");
+        }
 
-                    Map<String, Object> entry = new HashMap<>();
-                    entry.put("id", user.getId());
-                    entry.put("name", user.getName());
-                    entry.put("xp", xp);
-                    entry.put("completedLessons", completed.size());
-                    entry.put("currentStreak", user.getCurrentStreak());
-                    return entry;
-                })
-                .sorted((a, b) -> Integer.compare((int) b.get("xp"), (int) a.get("xp")))
-                .limit(5)
-                .collect(Collectors.toList());
+        LeaderboardStanding standing = leaderboardIndex.standing(user.getId(), neighbours)
+                .orElseGet(() -> {
+                    // Not indexed yet (e.g. registered on another instance) — add from the ledger and retry
+                    // The principal does not carry the streak, so read it from the user row
+                    UserXp xp = xpService.getXp(user.getId());
+                    int streak = userRepository.findById(user.getId()).map(User::getCurrentStreak).orElse(0);
+                    leaderboardIndex.upsert(new LeaderboardEntry(user.getId(), user.getName(),
+                            xp.getTotalXp(), xp.getCompletedLessons(), streak));
+                    return leaderboardIndex.standing(user.getId(), neighbours).orElseThrow();
+                });
 
-        // Add rank
-        for (int i = 0; i < leaderboard.size(); i++) {
-            leaderboard.get(i).put("rank", i + 1);
+        int firstAboveRank = standing.rank() - standing.above().size();
+        List<Map<String, Object>> above = new ArrayList<>();
+        for (int i = 0; i < standing.above().size(); i++) {
+            above.add(standing.above().get(i).toView(firstAboveRank + i));
+        }
+        List<Map<String, Object>> below = new ArrayList<>();
+        for (int i = 0; i < standing.below().size(); i++) {
+            below.add(standing.below().get(i).toView(standing.rank() + 1 + i));
         }
 
-        return ResponseEntity.ok(leaderboard);
+        Map<String, Object> response = new HashMap<>();
+        response.put("rank", standing.rank());
+        response.put("xp", standing.entry().xp());
+        response.put("totalLearners", standing.totalLearners());
+        response.put("me", standing.entry().toView(standing.rank()));
+        response.put("above", above);
+        response.put("below", below);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/admin/xp/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildXpLedger() {
+        int users = xpService.rebuildLedger();
+        Map<String, Object> response = new HashMap<>();
+        response.put("message", "XP ledger rebuilt");
+        response.put("users", users);
+        return ResponseEntity.ok(response);
     }
 }
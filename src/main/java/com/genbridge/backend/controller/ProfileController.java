@@ -2,10 +2,13 @@ package com.genbridge.backend.controller;
 
 import com.genbridge.backend.entity.Lesson;
 import com.genbridge.backend.entity.LessonProgress;
+import com.genbridge.backend.entity.UserXp;
 import com.genbridge.backend.repository.LessonProgressRepository;
 import com.genbridge.backend.repository.LessonRepository;
 import com.genbridge.backend.repository.QuestCompletionRepository;
+import com.genbridge.backend.services.XpService;
 import com.genbridge.backend.user.User;
+import com.genbridge.backend.user.UserRepository;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -15,12 +18,14 @@ import org.springframework.web.bind.annotation.RestController;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
  * REST controller for the learner's profile page.
  * Returns a combined view of the user's personal info, XP, streak,
- * completed lessons, and completed quests.
+ * completed lessons, and completed quests. XP comes from the per-user ledger row.
+ * The user row is read here because the token-based principal does not carry the streak.
  */
 @RestController
 @RequestMapping("/api")
@@ -29,18 +34,25 @@ public class ProfileController {
     private final LessonProgressRepository lessonProgressRepository;
     private final LessonRepository lessonRepository;
     private final QuestCompletionRepository questCompletionRepository;
+    private final XpService xpService;
+    private final UserRepository userRepository;
 
     public ProfileController(LessonProgressRepository lessonProgressRepository,
                              LessonRepository lessonRepository,
-                             QuestCompletionRepository questCompletionRepository) {
+                             QuestCompletionRepository questCompletionRepository,
+                             XpService xpService,
+                             UserRepository userRepository) {
         this.lessonProgressRepository = lessonProgressRepository;
         this.lessonRepository = lessonRepository;
         this.questCompletionRepository = questCompletionRepository;
+        this.xpService = xpService;
+        this.userRepository = userRepository;
     }
 
     @GetMapping("/profile")
     public ResponseEntity<Map<String, Object>> getProfile(Authentication authentication) {
-        User user = (User) authentication.getPrincipal();
+        User principal = (User) authentication.getPrincipal();
+        User user = userRepository.findById(principal.getId()).orElse(principal);
 
         List<LessonProgress> completedProgress = lessonProgressRepository
                 .findByUserIdOrderByLessonIdAsc(user.getId())
@@ -48,15 +60,21 @@ public class ProfileController {
                 .filter(LessonProgress::isCompleted)
                 .collect(Collectors.toList());
 
+        Map<Long, Lesson> lessonsById = lessonRepository
+                .findAllById(completedProgress.stream().map(LessonProgress::getLessonId).toList())
+                .stream()
+                .collect(Collectors.toMap(Lesson::getId, Function.identity()));
+
         List<Map<String, Object>> completedLessons = completedProgress.stream()
                 .map(p -> {
                     Map<String, Object> entry = new HashMap<>();
                     entry.put("lessonId", p.getLessonId());
                     entry.put("completedAt", p.getCompletedAt());
-                    lessonRepository.findById(p.getLessonId()).ifPresent(lesson -> {
+                    Lesson lesson = lessonsById.get(p.getLessonId());
+                    if (lesson != null) {
                         entry.put("title", lesson.getTitle());
                         entry.put("difficulty", lesson.getDifficulty());
-                    });
+                    }
                     return entry;
                 })
                 .collect(Collectors.toList());
@@ -74,18 +92,7 @@ public class ProfileController {
                 })
                 .collect(Collectors.toList());
 
-        int xp = completedProgress.stream()
-                .mapToInt(p -> {
-                    return lessonRepository.findById(p.getLessonId())
-                            .map(l -> {
-                                String diff = l.getDifficulty();
-                                if ("INTERMEDIATE".equalsIgnoreCase(diff) || "Intermediate".equalsIgnoreCase(diff)) return 15;
-                                if ("ADVANCED".equalsIgnoreCase(diff) || "Advanced".equalsIgnoreCase(diff)) return 20;
-                                return 10; // BEGINNER or unknown
-                            })
-                            .orElse(10);
-                })
-                .sum() + completedQuests.size() * 15;
+        UserXp xp = xpService.getXp(user.getId());
 
         Map<String, Object> profile = new HashMap<>();
         profile.put("id", user.getId());
@@ -98,7 +105,7 @@ public class ProfileController {
         profile.put("completedLessons", completedLessons);
         profile.put("completedQuestsCount", completedQuests.size());
         profile.put("completedQuests", completedQuests);
-        profile.put("xp", xp);
+        profile.put("xp", xp.getTotalXp());
         profile.put("isSuspended", user.isSuspended());
         profile.put("suspensionReason", user.getSuspensionReason());
 
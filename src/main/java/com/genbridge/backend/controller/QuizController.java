@@ -1,6 +1,7 @@
 package com.genbridge.backend.controller;
 
 import com.genbridge.backend.dto.AnswerQuestionRequest;
+import com.genbridge.backend.dto.BatchAnswerRequest;
 import com.genbridge.backend.dto.CreateQuizQuestionRequest;
 import com.genbridge.backend.dto.SubmitQuizRequest;
 import com.genbridge.backend.entity.QuizQuestion;
@@ -73,4 +74,13 @@ public class QuizController {
         return ResponseEntity.ok(quizService.answerQuestion(lessonId, questionId, request.getSelectedIndex(), user));
     }
 
+    // Grades several single-question answers in one request; each is recorded as its own attempt
+    @PostMapping("/answers")
+    public ResponseEntity<Map<String, Object>> answerQuestions(@PathVariable("id") Long lessonId,
+                                                                @Valid @RequestBody BatchAnswerRequest request,
+                                                                Authentication authentication) {
+        User user = (User) authentication.getPrincipal();
+        return ResponseEntity.ok(quizService.answerQuestions(lessonId, request.getAnswers(), user));
+    }
+
 }
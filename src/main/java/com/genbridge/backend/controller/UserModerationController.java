@@ -1,9 +1,11 @@
 package com.genbridge.backend.controller;
 
 import com.genbridge.backend.entity.UserWarning;
+import com.genbridge.backend.event.UserChangedEvent;
 import com.genbridge.backend.repository.UserWarningRepository;
 import com.genbridge.backend.user.User;
 import com.genbridge.backend.user.UserRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
@@ -19,10 +21,13 @@ public class UserModerationController {
 
     private final UserRepository userRepository;
     private final UserWarningRepository warningRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public UserModerationController(UserRepository userRepository, UserWarningRepository warningRepository) {
+    public UserModerationController(UserRepository userRepository, UserWarningRepository warningRepository,
+                                    ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
         this.warningRepository = warningRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     // GET /api/admin/users — list all non-admin users
@@ -98,7 +103,9 @@ public class UserModerationController {
         }
         user.setSuspended(true);
         user.setSuspensionReason(reason);
+        user.revokeTokens();
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(user.getId()));
 
         Map<String, Object> response = new HashMap<>();
         response.put("message", (user.getName() != null ? user.getName() : user.getEmail()) + " has been suspended");
@@ -112,7 +119,9 @@ public class UserModerationController {
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
         user.setSuspended(false);
         user.setSuspensionReason(null);
+        user.revokeTokens();
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(user.getId()));
 
         Map<String, Object> response = new HashMap<>();
         response.put("message", (user.getName() != null ? user.getName() : user.getEmail()) + " has been unsuspended");
@@ -0,0 +1,31 @@
+package com.genbridge.backend.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BatchAnswerRequest {
+
+    @NotEmpty(message = "Answers are required")
+    @Size(max = 100, message = "At most 100 answers can be sent at once")
+    private List<@Valid @NotNull(message = "Answer cannot be null") Answer> answers;
+
+    @Data
+    public static class Answer {
+
+        @NotNull(message = "questionId is required")
+        private Long questionId;
+
+        @NotNull(message = "selectedIndex is required")
+        @Min(value = 0, message = "selectedIndex must be between 0 and 3")
+        @Max(value = 3, message = "selectedIndex must be between 0 and 3")
+        private Integer selectedIndex;
+    }
+}
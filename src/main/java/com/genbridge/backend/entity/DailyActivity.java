@@ -0,0 +1,42 @@
+package com.genbridge.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import java.time.LocalDate;
+
+/**
+ * Platform activity counters for one day, incremented as activity happens so the admin
+ * time-series charts read one row per day instead of scanning raw tables.
+ */
+@Entity
+@Table(name = "daily_activity")
+@Getter
+@Setter
+@NoArgsConstructor
+public class DailyActivity {
+
+    @Id
+    @Column(name = "activity_date")
+    private LocalDate activityDate;
+
+    @Column(name = "active_users", nullable = false)
+    private long activeUsers = 0;
+
+    @Column(name = "quiz_attempts", nullable = false)
+    private long quizAttempts = 0;
+
+    @Column(name = "lesson_completions", nullable = false)
+    private long lessonCompletions = 0;
+
+    @Column(name = "quest_completions", nullable = false)
+    private long questCompletions = 0;
+
+    @Column(name = "forum_posts", nullable = false)
+    private long forumPosts = 0;
+
+    public DailyActivity(LocalDate activityDate) {
+        this.activityDate = activityDate;
+    }
+}
@@ -0,0 +1,34 @@
+package com.genbridge.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import java.time.LocalDateTime;
+
+/**
+ * Serialized copy of the in-memory leaderboard, overwritten in place by {@code LeaderboardSnapshotter}.
+ * On startup the index is restored from {@code data} and only changes made after {@code takenAt} are replayed.
+ */
+@Entity
+@Table(name = "leaderboard_snapshots")
+@Getter
+@Setter
+@NoArgsConstructor
+public class LeaderboardSnapshot {
+
+    /** Only the latest snapshot is kept, under this id. */
+    public static final short CURRENT = 1;
+
+    @Id
+    private Short id = CURRENT;
+
+    @Column(name = "taken_at", nullable = false)
+    private LocalDateTime takenAt;
+
+    @Column(name = "entry_count", nullable = false)
+    private int entryCount;
+
+    @Column(nullable = false, columnDefinition = "bytea")
+    private byte[] data;
+}
@@ -0,0 +1,39 @@
+package com.genbridge.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Number of a lesson's current completions whose start-to-complete time falls in one
+ * {@code CompletionTimeHistogram} bucket. Incremented when a learner completes the lesson and
+ * decremented if that completion is lost, so the lesson's rows always describe its completed learners.
+ */
+@Entity
+@Table(name = "lesson_completion_times", uniqueConstraints = {
+        @UniqueConstraint(columnNames = {"lesson_id", "bucket"})
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class LessonCompletionTime {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "lesson_id", nullable = false)
+    private Long lessonId;
+
+    @Column(nullable = false)
+    private int bucket;
+
+    @Column(nullable = false)
+    private long learners = 0;
+
+    public LessonCompletionTime(Long lessonId, int bucket) {
+        this.lessonId = lessonId;
+        this.bucket = bucket;
+    }
+}
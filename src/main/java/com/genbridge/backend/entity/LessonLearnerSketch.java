@@ -0,0 +1,45 @@
+package com.genbridge.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * HyperLogLog sketch of the learners who attempted one lesson's quiz on one day. Any date range is
+ * answered by merging the range's sketches, see {@code AnalyticsService#getDistinctLearners}.
+ */
+@Entity
+@Table(name = "lesson_learner_sketches", uniqueConstraints = {
+        @UniqueConstraint(columnNames = {"lesson_id", "activity_date"})
+}, indexes = {
+        @Index(name = "idx_lesson_learner_sketches_date", columnList = "activity_date")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class LessonLearnerSketch {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "lesson_id", nullable = false)
+    private Long lessonId;
+
+    @Column(name = "activity_date", nullable = false)
+    private LocalDate activityDate;
+
+    @Column(nullable = false, columnDefinition = "bytea")
+    private byte[] registers;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public LessonLearnerSketch(Long lessonId, LocalDate activityDate) {
+        this.lessonId = lessonId;
+        this.activityDate = activityDate;
+    }
+}
@@ -34,4 +34,16 @@ public class LessonProgress {
 
     @Column(name = "completed_at")
     private LocalDateTime completedAt;
+
+    /** When the learner first submitted an answer for this lesson's quiz; null until then. */
+    @Column(name = "first_attempted_at")
+    private LocalDateTime firstAttemptedAt;
+
+    /**
+     * Bit n is set once the learner has answered the lesson's question with ordinal n correctly
+     * ({@link java.util.BitSet#toByteArray()} encoding). Null on rows recorded before it existed,
+     * until the learner's next answer rebuilds it from their attempts.
+     */
+    @Column(name = "mastered_ordinals", columnDefinition = "bytea")
+    private byte[] masteredOrdinals = new byte[0];
 }
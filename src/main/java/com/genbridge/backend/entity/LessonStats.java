@@ -0,0 +1,43 @@
+package com.genbridge.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
+import java.time.LocalDateTime;
+
+/**
+ * Per-lesson rollup of how many learners started it, attempted its quiz and completed it. Maintained at write time
+ * by {@code AnalyticsService} and reconciled nightly against {@code lesson_progress}.
+ */
+@Entity
+@Table(name = "lesson_stats")
+@Getter
+@Setter
+@NoArgsConstructor
+public class LessonStats {
+
+    @Id
+    @Column(name = "lesson_id")
+    private Long lessonId;
+
+    @Column(name = "started_count", nullable = false)
+    private long startedCount = 0;
+
+    // Default so the column can be added to an existing table. Not a columnDefinition: Hibernate would
+    // reuse that as the cast type for the delta parameter in LessonStatsRepository.increment.
+    @ColumnDefault("0")
+    @Column(name = "attempted_count", nullable = false)
+    private long attemptedCount = 0;
+
+    @Column(name = "completed_count", nullable = false)
+    private long completedCount = 0;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt = LocalDateTime.now();
+
+    public LessonStats(Long lessonId) {
+        this.lessonId = lessonId;
+    }
+}
@@ -0,0 +1,60 @@
+package com.genbridge.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import java.time.LocalDateTime;
+
+/**
+ * Running answer counters for one quiz question: how often it was answered, how often correctly,
+ * and how often each option was picked. Updated in place by {@code AnalyticsService} on every
+ * graded answer and reset when the question's options or correct answer change.
+ */
+@Entity
+@Table(name = "question_stats", indexes = {
+        @Index(name = "idx_question_stats_lesson_id", columnList = "lesson_id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class QuestionStats {
+
+    @Id
+    @Column(name = "question_id")
+    private Long questionId;
+
+    @Column(name = "lesson_id", nullable = false)
+    private Long lessonId;
+
+    @Column(nullable = false)
+    private long attempts = 0;
+
+    @Column(name = "correct_count", nullable = false)
+    private long correctCount = 0;
+
+    @Column(name = "option_a_count", nullable = false)
+    private long optionACount = 0;
+
+    @Column(name = "option_b_count", nullable = false)
+    private long optionBCount = 0;
+
+    @Column(name = "option_c_count", nullable = false)
+    private long optionCCount = 0;
+
+    @Column(name = "option_d_count", nullable = false)
+    private long optionDCount = 0;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt = LocalDateTime.now();
+
+    public QuestionStats(Long questionId, Long lessonId) {
+        this.questionId = questionId;
+        this.lessonId = lessonId;
+    }
+
+    /** Selection counts in option order A–D. */
+    public long[] optionCounts() {
+        return new long[]{optionACount, optionBCount, optionCCount, optionDCount};
+    }
+}
@@ -27,6 +27,10 @@ public class QuizAttempt {
     @Column(name = "question_id")
     private Long questionId;
 
+    /** Option chosen for a single-question attempt; null for full-quiz submissions or when no option was chosen. */
+    @Column(name = "selected_index")
+    private Integer selectedIndex;
+
     @Column(nullable = false)
     private int score;
 
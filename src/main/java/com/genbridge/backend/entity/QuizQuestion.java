@@ -7,7 +7,9 @@ import lombok.Setter;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "quiz_questions")
+@Table(name = "quiz_questions", uniqueConstraints = {
+        @UniqueConstraint(columnNames = {"lesson_id", "question_ordinal"})
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -41,6 +43,10 @@ public class QuizQuestion {
     @Column(columnDefinition = "TEXT")
     private String explanation;
 
+    /** Position of the question within its lesson, fixed at creation and never reused; its bit in a mastery bitmap. */
+    @Column(name = "question_ordinal")
+    private Integer ordinal;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt = LocalDateTime.now();
 }
@@ -0,0 +1,38 @@
+package com.genbridge.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A user's activity history as one bit per day from {@code originDate}, read and written through
+ * {@code ActivityBitmap}. Cohort retention is computed from these rows alone.
+ */
+@Entity
+@Table(name = "user_activity")
+@Getter
+@Setter
+@NoArgsConstructor
+public class UserActivity {
+
+    @Id
+    @Column(name = "user_id")
+    private UUID userId;
+
+    @Column(name = "origin_date", nullable = false)
+    private LocalDate originDate;
+
+    @Column(nullable = false, columnDefinition = "bytea")
+    private byte[] days;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public UserActivity(UUID userId) {
+        this.userId = userId;
+    }
+}
@@ -0,0 +1,49 @@
+package com.genbridge.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Per-user XP ledger row. Maintained at write time by {@code XpService} so that
+ * the leaderboard and profile read a single row instead of recomputing XP.
+ */
+@Entity
+@Table(name = "user_xp", indexes = {
+        @Index(name = "idx_user_xp_total_xp", columnList = "total_xp"),
+        @Index(name = "idx_user_xp_updated_at", columnList = "updated_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class UserXp {
+
+    @Id
+    @Column(name = "user_id")
+    private UUID userId;
+
+    @Column(name = "lesson_xp", nullable = false)
+    private int lessonXp = 0;
+
+    @Column(name = "quest_xp", nullable = false)
+    private int questXp = 0;
+
+    @Column(name = "total_xp", nullable = false)
+    private int totalXp = 0;
+
+    @Column(name = "completed_lessons", nullable = false)
+    private int completedLessons = 0;
+
+    @Column(name = "completed_quests", nullable = false)
+    private int completedQuests = 0;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt = LocalDateTime.now();
+
+    public UserXp(UUID userId) {
+        this.userId = userId;
+    }
+}
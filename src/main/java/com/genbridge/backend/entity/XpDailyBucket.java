@@ -0,0 +1,48 @@
+package com.genbridge.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * XP earned by one user on one day. Windowed leaderboards sum the buckets inside the
+ * window; buckets older than the retention period are deleted by {@code XpBucketRetentionJob}.
+ */
+@Entity
+@Table(name = "xp_daily_buckets", uniqueConstraints = {
+        @UniqueConstraint(columnNames = {"user_id", "bucket_date"})
+}, indexes = {
+        @Index(name = "idx_xp_daily_buckets_date", columnList = "bucket_date")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class XpDailyBucket {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @Column(name = "bucket_date", nullable = false)
+    private LocalDate bucketDate;
+
+    @Column(nullable = false)
+    private int xp = 0;
+
+    @Column(name = "completed_lessons", nullable = false)
+    private int completedLessons = 0;
+
+    @Column(name = "completed_quests", nullable = false)
+    private int completedQuests = 0;
+
+    public XpDailyBucket(UUID userId, LocalDate bucketDate) {
+        this.userId = userId;
+        this.bucketDate = bucketDate;
+    }
+}
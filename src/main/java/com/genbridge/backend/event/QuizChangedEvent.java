@@ -0,0 +1,8 @@
+package com.genbridge.backend.event;
+
+/**
+ * Published when a lesson's quiz questions are created, edited or deleted, or the lesson itself is
+ * deleted, so cached answer keys for the lesson are dropped once the change commits.
+ */
+public record QuizChangedEvent(Long lessonId) {
+}
@@ -0,0 +1,7 @@
+package com.genbridge.backend.event;
+
+import java.util.UUID;
+
+/** Published when a user's current streak changes value. */
+public record StreakUpdatedEvent(UUID userId, int currentStreak) {
+}
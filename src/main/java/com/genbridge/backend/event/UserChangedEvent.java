@@ -0,0 +1,10 @@
+package com.genbridge.backend.event;
+
+import java.util.UUID;
+
+/**
+ * Published when a user's account row changes in a way signed-in requests must see — password,
+ * role, suspension or daily activity.
+ */
+public record UserChangedEvent(UUID userId) {
+}
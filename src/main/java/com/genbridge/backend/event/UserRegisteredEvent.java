@@ -0,0 +1,7 @@
+package com.genbridge.backend.event;
+
+import java.util.UUID;
+
+/** Published when a new learner account has been created. */
+public record UserRegisteredEvent(UUID userId, String name) {
+}
@@ -0,0 +1,7 @@
+package com.genbridge.backend.event;
+
+import java.util.UUID;
+
+/** Published by the XP ledger whenever a user's XP total changes. */
+public record XpChangedEvent(UUID userId, int totalXp, int completedLessons) {
+}
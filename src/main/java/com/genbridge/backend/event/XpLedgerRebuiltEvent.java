@@ -0,0 +1,5 @@
+package com.genbridge.backend.event;
+
+/** Published after the XP ledger has been recomputed from scratch. */
+public record XpLedgerRebuiltEvent(int users) {
+}
@@ -0,0 +1,50 @@
+package com.genbridge.backend.export;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Tables that admins can export from {@code GET /api/admin/export/{dataset}}, with the columns written
+ * and the timestamp column the date range filters on.
+ */
+public enum ExportDataset {
+    QUIZ_ATTEMPTS("quiz_attempts", "submitted_at",
+            List.of("id", "user_id", "lesson_id", "question_id", "selected_index",
+                    "score", "total_questions", "correct_answers", "submitted_at")),
+    LESSON_PROGRESS("lesson_progress", "started_at",
+            List.of("id", "user_id", "lesson_id", "completed", "started_at", "completed_at")),
+    QUEST_COMPLETIONS("quest_completions", "completed_at",
+            List.of("id", "quest_id", "user_id", "reflection", "completed_at"));
+
+    private final String table;
+    private final String timeColumn;
+    private final List<String> columns;
+
+    ExportDataset(String table, String timeColumn, List<String> columns) {
+        this.table = table;
+        this.timeColumn = timeColumn;
+        this.columns = columns;
+    }
+
+    public String table() {
+        return table;
+    }
+
+    public String timeColumn() {
+        return timeColumn;
+    }
+
+    public List<String> columns() {
+        return columns;
+    }
+
+    /** Parses a table name such as {@code quiz_attempts} or {@code quiz-attempts} (case-insensitive). */
+    public static ExportDataset parse(String value) {
+        String normalized = value == null ? "" : value.trim().replace('-', '_').toUpperCase(Locale.ROOT);
+        try {
+            return valueOf(normalized);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("dataset must be one of quiz_attempts, lesson_progress, quest_completions");
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.genbridge.backend.export;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Row encodings for data exports. Each row is written as soon as it is read, so neither format
+ * needs more than the current row in memory.
+ */
+public enum ExportFormat {
+    /** One JSON object per line, keyed by column name. */
+    NDJSON("application/x-ndjson", "ndjson") {
+        @Override
+        public void writeHeader(List<String> columns, Writer out) {
+            // Every line is self-describing
+        }
+
+        @Override
+        public void writeRow(List<String> columns, Object[] values, Writer out) throws IOException {
+            out.write('{');
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) out.write(',');
+                writeJsonString(columns.get(i), out);
+                out.write(':');
+                Object value = values[i];
+                if (value == null) {
+                    out.write("null");
+                } else if (value instanceof Number || value instanceof Boolean) {
+                    out.write(value.toString());
+                } else {
+                    writeJsonString(value.toString(), out);
+                }
+            }
+            out.write("}\n");
+        }
+    },
+    /** RFC 4180 CSV with a header row; null is written as an empty field. */
+    CSV("text/csv", "csv") {
+        @Override
+        public void writeHeader(List<String> columns, Writer out) throws IOException {
+            writeRow(columns, columns.toArray(), out);
+        }
+
+        @Override
+        public void writeRow(List<String> columns, Object[] values, Writer out) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) out.write(',');
+                if (values[i] != null) {
+                    writeCsvField(values[i].toString(), out);
+                }
+            }
+            out.write("\r\n");
+        }
+    };
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    public abstract void writeHeader(List<String> columns, Writer out) throws IOException;
+
+    public abstract void writeRow(List<String> columns, Object[] values, Writer out) throws IOException;
+
+    /** Parses {@code ndjson} or {@code csv} (case-insensitive); null or blank means NDJSON. */
+    public static ExportFormat parse(String value) {
+        if (value == null || value.isBlank()) {
+            return NDJSON;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("format must be one of ndjson, csv");
+        }
+    }
+
+    private static void writeJsonString(String value, Writer out) throws IOException {
+        out.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> out.write("\\\"");
+                case '\\' -> out.write("\\\\");
+                case '\n' -> out.write("\\n");
+                case '\r' -> out.write("\\r");
+                case '\t' -> out.write("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        out.write(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.write(c);
+                    }
+                }
+            }
+        }
+        out.write('"');
+    }
+
+    private static void writeCsvField(String value, Writer out) throws IOException {
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        out.write(value.replace("\"", "\"\""));
+        out.write('"');
+    }
+}
@@ -0,0 +1,244 @@
+package com.genbridge.backend.leaderboard;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pushes the top of the {@link LeaderboardIndex} to Server-Sent Event subscribers.
+ * {@link LeaderboardIndexUpdater} calls {@link #refresh()} after every change it applies; a burst of
+ * changes collapses into one comparison on a single broadcast thread, and subscribers only receive a
+ * delta when the top {@value #TOP_SIZE} actually differs. Emitters are asynchronous, so an idle
+ * subscriber holds a connection but no servlet thread.
+ * The broadcast thread never writes to a connection: each subscriber has a queue of at most
+ * {@code leaderboard.stream.queue-size} events, drained by one of {@code leaderboard.stream.send-threads}
+ * sender threads. A client that stops reading blocks only its own sender until the write fails, and is
+ * disconnected once its queue overflows instead of holding up everyone else.
+ */
+@Component
+public class LeaderboardBroadcaster {
+
+    public static final int TOP_SIZE = 5;
+
+    private final LeaderboardIndex leaderboardIndex;
+    private final long timeoutMs;
+    private final int queueSize;
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean refreshPending = new AtomicBoolean();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "leaderboard-broadcast");
+        thread.setDaemon(true);
+        return thread;
+    });
+    /** Writes queued events to subscribers; never the broadcast thread. */
+    private final Executor senders;
+    private final Counter deltaCounter;
+    private final Counter droppedCounter;
+
+    /** What subscribers were last told; only touched on the broadcast thread. */
+    private List<LeaderboardEntry> lastTop = List.of();
+
+    @Autowired
+    public LeaderboardBroadcaster(LeaderboardIndex leaderboardIndex,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${leaderboard.stream.timeout-ms:1800000}") long timeoutMs,
+                                  @Value("${leaderboard.stream.queue-size:16}") int queueSize,
+                                  @Value("${leaderboard.stream.send-threads:4}") int sendThreads) {
+        this(leaderboardIndex, meterRegistry, timeoutMs, queueSize, Executors.newFixedThreadPool(Math.max(1, sendThreads), runnable -> {
+            Thread thread = new Thread(runnable, "leaderboard-send");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    LeaderboardBroadcaster(LeaderboardIndex leaderboardIndex, MeterRegistry meterRegistry, long timeoutMs,
+                           int queueSize, Executor senders) {
+        this.leaderboardIndex = leaderboardIndex;
+        this.timeoutMs = timeoutMs;
+        this.queueSize = Math.max(1, queueSize);
+        this.senders = senders;
+        Gauge.builder("leaderboard.stream.subscribers", subscribers, List::size)
+                .description("Open leaderboard stream connections")
+                .register(meterRegistry);
+        this.deltaCounter = Counter.builder("leaderboard.stream.deltas")
+                .description("Top-N changes pushed to leaderboard stream subscribers")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("leaderboard.stream.dropped")
+                .description("Leaderboard stream subscribers disconnected because they fell behind")
+                .register(meterRegistry);
+    }
+
+    /** Registers a subscriber and sends it the current top as a {@code snapshot} event. */
+    public SseEmitter subscribe() {
+        return register(new SseEmitter(timeoutMs));
+    }
+
+    SseEmitter register(SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(emitter, queueSize);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> subscribers.remove(subscriber));
+        // Queued on the broadcast thread so the snapshot is always ahead of the first delta
+        executor.execute(() -> {
+            subscribers.add(subscriber);
+            subscriber.offer(SseEmitter.event().name("snapshot").data(Map.of("entries", views(lastTop))));
+        });
+        return emitter;
+    }
+
+    /** Schedules a comparison of the current top against what subscribers last saw. */
+    public void refresh() {
+        if (refreshPending.compareAndSet(false, true)) {
+            executor.execute(this::publishIfChanged);
+        }
+    }
+
+    /** Keeps idle connections from being closed by proxies. */
+    @Scheduled(fixedDelayString = "${leaderboard.stream.heartbeat-ms:30000}")
+    public void heartbeat() {
+        if (!subscribers.isEmpty()) {
+            executor.execute(() -> subscribers.forEach(subscriber -> subscriber.offer(SseEmitter.event().comment("keep-alive"))));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        if (senders instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+    }
+
+    int subscriberCount() {
+        return subscribers.size();
+    }
+
+    private void publishIfChanged() {
+        refreshPending.set(false);
+        List<LeaderboardEntry> top = leaderboardIndex.top(TOP_SIZE);
+        if (top.equals(lastTop)) {
+            return;
+        }
+        Map<String, Object> delta = delta(lastTop, top);
+        lastTop = top;
+        deltaCounter.increment();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(SseEmitter.event().name("delta").data(delta));
+        }
+    }
+
+    /**
+     * Describes how {@code current} differs from {@code previous}: {@code changed} holds the entries
+     * that are new or moved or whose values changed (with their new rank), {@code removed} the ids
+     * that dropped out.
+     */
+    static Map<String, Object> delta(List<LeaderboardEntry> previous, List<LeaderboardEntry> current) {
+        List<Map<String, Object>> changed = new ArrayList<>();
+        for (int i = 0; i < current.size(); i++) {
+            if (i >= previous.size() || !current.get(i).equals(previous.get(i))) {
+                changed.add(current.get(i).toView(i + 1));
+            }
+        }
+        Set<UUID> currentIds = new HashSet<>();
+        current.forEach(entry -> currentIds.add(entry.userId()));
+        List<UUID> removed = previous.stream()
+                .map(LeaderboardEntry::userId)
+                .filter(id -> !currentIds.contains(id))
+                .toList();
+
+        Map<String, Object> delta = new HashMap<>();
+        delta.put("changed", changed);
+        delta.put("removed", removed);
+        return delta;
+    }
+
+    private static List<Map<String, Object>> views(List<LeaderboardEntry> entries) {
+        List<Map<String, Object>> views = new ArrayList<>();
+        for (int i = 0; i < entries.size(); i++) {
+            views.add(entries.get(i).toView(i + 1));
+        }
+        return views;
+    }
+
+    /** One connection and the events waiting to be written to it; at most one sender drains it at a time. */
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+
+        Subscriber(SseEmitter emitter, int queueSize) {
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(queueSize);
+        }
+
+        /** Queues the event without blocking; a subscriber whose queue is full is disconnected. */
+        void offer(SseEmitter.SseEventBuilder event) {
+            if (closed) {
+                return;
+            }
+            if (!queue.offer(event)) {
+                // Its sender is stuck on a write; it completes the emitter once that write returns
+                closed = true;
+                subscribers.remove(this);
+                queue.clear();
+                droppedCounter.increment();
+                if (draining.compareAndSet(false, true)) {
+                    senders.execute(this::drain);
+                }
+                return;
+            }
+            if (draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            do {
+                SseEmitter.SseEventBuilder event;
+                while (!closed && (event = queue.poll()) != null) {
+                    send(event);
+                }
+                draining.set(false);
+            } while (!closed && !queue.isEmpty() && draining.compareAndSet(false, true));
+            if (closed) {
+                emitter.complete();
+            }
+        }
+
+        private void send(SseEmitter.SseEventBuilder event) {
+            try {
+                emitter.send(event);
+            } catch (IOException | IllegalStateException e) {
+                // Client went away — drop it; the container reports the error to the emitter as well
+                closed = true;
+                subscribers.remove(this);
+            }
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.genbridge.backend.leaderboard;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/** Immutable leaderboard row held by {@link LeaderboardIndex}. */
+public record LeaderboardEntry(UUID userId, String name, int xp, int completedLessons, int currentStreak) {
+
+    /** Highest XP first; ties broken by user id so every learner has a stable position. */
+    public static final Comparator<LeaderboardEntry> RANKING = Comparator
+            .comparingInt(LeaderboardEntry::xp).reversed()
+            .thenComparing(LeaderboardEntry::userId);
+
+    public LeaderboardEntry withXp(int xp, int completedLessons) {
+        return new LeaderboardEntry(userId, name, xp, completedLessons, currentStreak);
+    }
+
+    public LeaderboardEntry withStreak(int currentStreak) {
+        return new LeaderboardEntry(userId, name, xp, completedLessons, currentStreak);
+    }
+
+    /** JSON view shared by the leaderboard endpoints and the live stream. */
+    public Map<String, Object> toView(int rank) {
+        Map<String, Object> view = new HashMap<>();
+        view.put("id", userId);
+        view.put("name", name);
+        view.put("xp", xp);
+        view.put("completedLessons", completedLessons);
+        view.put("currentStreak", currentStreak);
+        view.put("rank", rank);
+        return view;
+    }
+}
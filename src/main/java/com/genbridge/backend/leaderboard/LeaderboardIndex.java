@@ -0,0 +1,147 @@
+package com.genbridge.backend.leaderboard;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory ranking of all learners, ordered by {@link LeaderboardEntry#RANKING}.
+ * Kept current by {@link LeaderboardIndexUpdater}, so serving the top N needs no database access.
+ * Publishes {@code leaderboard.index.size} and {@code leaderboard.index.update} metrics.
+ */
+@Component
+public class LeaderboardIndex {
+
+    private final OrderStatisticTree<LeaderboardEntry> ranking = new OrderStatisticTree<>(LeaderboardEntry.RANKING);
+    private final Map<UUID, LeaderboardEntry> entriesByUser = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Timer updateTimer;
+    private volatile boolean loaded;
+
+    public LeaderboardIndex(MeterRegistry meterRegistry) {
+        Gauge.builder("leaderboard.index.size", this, LeaderboardIndex::size)
+                .description("Number of learners in the in-memory leaderboard index")
+                .register(meterRegistry);
+        this.updateTimer = Timer.builder("leaderboard.index.update")
+                .description("Time taken to apply a change to the leaderboard index")
+                .register(meterRegistry);
+    }
+
+    /** Inserts the entry, replacing any existing entry for the same user. */
+    public void upsert(LeaderboardEntry entry) {
+        updateTimer.record(() -> {
+            lock.writeLock().lock();
+            try {
+                LeaderboardEntry previous = entriesByUser.put(entry.userId(), entry);
+                if (previous != null) {
+                    ranking.remove(previous);
+                }
+                ranking.add(entry);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void remove(UUID userId) {
+        lock.writeLock().lock();
+        try {
+            LeaderboardEntry previous = entriesByUser.remove(userId);
+            if (previous != null) {
+                ranking.remove(previous);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Replaces the whole index, e.g. on startup or after the XP ledger is rebuilt. */
+    public void replaceAll(Collection<LeaderboardEntry> entries) {
+        lock.writeLock().lock();
+        try {
+            ranking.clear();
+            entriesByUser.clear();
+            for (LeaderboardEntry entry : entries) {
+                entriesByUser.put(entry.userId(), entry);
+                ranking.add(entry);
+            }
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** True once the index has been populated by {@link #replaceAll}; until then it is not worth snapshotting. */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public Optional<LeaderboardEntry> get(UUID userId) {
+        lock.readLock().lock();
+        try {
+            return Optional.ofNullable(entriesByUser.get(userId));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Returns the top {@code n} learners, best first. */
+    public List<LeaderboardEntry> top(int n) {
+        lock.readLock().lock();
+        try {
+            return ranking.first(n);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Returns every learner, best first, as a consistent copy. */
+    public List<LeaderboardEntry> all() {
+        lock.readLock().lock();
+        try {
+            return ranking.first(ranking.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the user's one-based rank with up to {@code neighbours} learners directly above and below,
+     * read under a single lock so the view is consistent. Empty if the user is not ranked.
+     */
+    public Optional<LeaderboardStanding> standing(UUID userId, int neighbours) {
+        lock.readLock().lock();
+        try {
+            LeaderboardEntry entry = entriesByUser.get(userId);
+            if (entry == null) {
+                return Optional.empty();
+            }
+            int position = ranking.rank(entry);
+            int aboveFrom = Math.max(0, position - neighbours);
+            List<LeaderboardEntry> above = ranking.range(aboveFrom, position - aboveFrom);
+            List<LeaderboardEntry> below = ranking.range(position + 1, neighbours);
+            return Optional.of(new LeaderboardStanding(entry, position + 1, ranking.size(), above, below));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ranking.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.genbridge.backend.leaderboard;
+
+import com.genbridge.backend.entity.LeaderboardSnapshot;
+import com.genbridge.backend.event.StreakUpdatedEvent;
+import com.genbridge.backend.event.UserRegisteredEvent;
+import com.genbridge.backend.event.XpChangedEvent;
+import com.genbridge.backend.event.XpLedgerRebuiltEvent;
+import com.genbridge.backend.repository.UserXpRepository;
+import com.genbridge.backend.user.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Keeps {@link LeaderboardIndex} in step with the database.
+ * On startup (after the XP ledger backfill) restores the latest snapshot and replays only learners
+ * changed since it was taken, falling back to loading every learner's standing if the snapshot is
+ * missing, incomplete or cannot be restored. It then applies
+ * registrations, XP and streak changes once the transaction that made them has committed,
+ * and asks {@link LeaderboardBroadcaster} to push any change to the top of the ranking.
+ */
+@Component
+@Order(300)
+public class LeaderboardIndexUpdater implements CommandLineRunner {
+
+    private final LeaderboardIndex leaderboardIndex;
+    private final UserXpRepository userXpRepository;
+    private final UserRepository userRepository;
+    private final LeaderboardSnapshotter snapshotter;
+    private final LeaderboardBroadcaster broadcaster;
+    private final Duration replayMargin;
+
+    public LeaderboardIndexUpdater(LeaderboardIndex leaderboardIndex,
+                                   UserXpRepository userXpRepository,
+                                   UserRepository userRepository,
+                                   LeaderboardSnapshotter snapshotter,
+                                   LeaderboardBroadcaster broadcaster,
+                                   @Value("${leaderboard.snapshot.replay-margin-seconds:60}") long replayMarginSeconds) {
+        this.leaderboardIndex = leaderboardIndex;
+        this.userXpRepository = userXpRepository;
+        this.userRepository = userRepository;
+        this.snapshotter = snapshotter;
+        this.broadcaster = broadcaster;
+        this.replayMargin = Duration.ofSeconds(replayMarginSeconds);
+    }
+
+    @Override
+    public void run(String... args) {
+        Optional<LeaderboardSnapshot> latest;
+        try {
+            latest = snapshotter.latest();
+        } catch (Exception e) {
+            return; // Context shutting down during DevTools restart — skip loading
+        }
+
+        boolean restored;
+        try {
+            restored = restoreFromSnapshot(latest);
+        } catch (RuntimeException e) {
+            restored = false; // Unreadable snapshot or failed replay — the full load below is authoritative
+        }
+        if (!restored) {
+            reload();
+        }
+        broadcaster.refresh();
+    }
+
+    /** Rebuilds the whole index from the XP ledger in a single query. */
+    public void reload() {
+        leaderboardIndex.replaceAll(toEntries(userXpRepository.findLearnerStandings()));
+    }
+
+    /**
+     * Loads the latest snapshot and replays learners whose XP or streak changed after it was taken
+     * (less a margin for transactions that were still open). Returns false if there is no snapshot
+     * or the result does not account for every learner, e.g. someone registered since; throws if the
+     * snapshot is unreadable (e.g. written by an incompatible version) or the replay query fails.
+     */
+    boolean restoreFromSnapshot(Optional<LeaderboardSnapshot> latest) {
+        if (latest.isEmpty()) {
+            return false;
+        }
+        List<LeaderboardEntry> entries = LeaderboardSnapshotCodec.decode(latest.get().getData());
+
+        LocalDateTime since = latest.get().getTakenAt().minus(replayMargin);
+        Map<UUID, LeaderboardEntry> merged = new HashMap<>();
+        entries.forEach(entry -> merged.put(entry.userId(), entry));
+        toEntries(userXpRepository.findLearnerStandingsChangedSince(since, since.toLocalDate()))
+                .forEach(entry -> merged.put(entry.userId(), entry));
+
+        if (merged.size() != userRepository.countByRoleNot("ADMIN")) {
+            return false;
+        }
+        leaderboardIndex.replaceAll(merged.values());
+        return true;
+    }
+
+    private static List<LeaderboardEntry> toEntries(List<Object[]> standings) {
+        return standings.stream()
+                .map(row -> new LeaderboardEntry(
+                        (UUID) row[0],
+                        (String) row[1],
+                        ((Number) row[2]).intValue(),
+                        ((Number) row[3]).intValue(),
+                        ((Number) row[4]).intValue()))
+                .toList();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onXpChanged(XpChangedEvent event) {
+        leaderboardIndex.get(event.userId())
+                .map(entry -> entry.withXp(event.totalXp(), event.completedLessons()))
+                .or(() -> userRepository.findById(event.userId())
+                        .filter(user -> !"ADMIN".equals(user.getRole()))
+                        .map(user -> new LeaderboardEntry(user.getId(), user.getName(),
+                                event.totalXp(), event.completedLessons(), user.getCurrentStreak())))
+                .ifPresent(leaderboardIndex::upsert);
+        broadcaster.refresh();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserRegistered(UserRegisteredEvent event) {
+        leaderboardIndex.upsert(new LeaderboardEntry(event.userId(), event.name(), 0, 0, 0));
+        broadcaster.refresh();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStreakUpdated(StreakUpdatedEvent event) {
+        leaderboardIndex.get(event.userId())
+                .ifPresent(entry -> leaderboardIndex.upsert(entry.withStreak(event.currentStreak())));
+        broadcaster.refresh();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onXpLedgerRebuilt(XpLedgerRebuiltEvent event) {
+        reload();
+        broadcaster.refresh();
+    }
+}
@@ -0,0 +1,66 @@
+package com.genbridge.backend.leaderboard;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Compact binary form of a list of {@link LeaderboardEntry}: a format version and entry count,
+ * then each entry as two longs for the user id, three ints and the name, all deflate-compressed.
+ */
+public final class LeaderboardSnapshotCodec {
+
+    private static final int FORMAT_VERSION = 1;
+
+    private LeaderboardSnapshotCodec() {
+    }
+
+    public static byte[] encode(List<LeaderboardEntry> entries) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(bytes))) {
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(entries.size());
+            for (LeaderboardEntry entry : entries) {
+                out.writeLong(entry.userId().getMostSignificantBits());
+                out.writeLong(entry.userId().getLeastSignificantBits());
+                out.writeInt(entry.xp());
+                out.writeInt(entry.completedLessons());
+                out.writeInt(entry.currentStreak());
+                out.writeUTF(entry.name() == null ? "" : entry.name());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /** Decodes entries written by {@link #encode}; throws {@link IllegalArgumentException} for an unknown format. */
+    public static List<LeaderboardEntry> decode(byte[] data) {
+        try (DataInputStream in = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(data)))) {
+            int version = in.readInt();
+            if (version != FORMAT_VERSION) {
+                throw new IllegalArgumentException("Unsupported leaderboard snapshot version: " + version);
+            }
+            int count = in.readInt();
+            List<LeaderboardEntry> entries = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                UUID userId = new UUID(in.readLong(), in.readLong());
+                int xp = in.readInt();
+                int completedLessons = in.readInt();
+                int currentStreak = in.readInt();
+                entries.add(new LeaderboardEntry(userId, in.readUTF(), xp, completedLessons, currentStreak));
+            }
+            return entries;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
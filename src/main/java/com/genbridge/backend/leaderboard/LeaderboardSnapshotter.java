@@ -0,0 +1,58 @@
+package com.genbridge.backend.leaderboard;
+
+import com.genbridge.backend.entity.LeaderboardSnapshot;
+import com.genbridge.backend.repository.LeaderboardSnapshotRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Periodically writes the {@link LeaderboardIndex} to the {@code leaderboard_snapshots} table,
+ * and once more on shutdown, so the next start can restore it without scanning every learner.
+ */
+@Component
+public class LeaderboardSnapshotter {
+
+    private final LeaderboardIndex leaderboardIndex;
+    private final LeaderboardSnapshotRepository snapshotRepository;
+
+    public LeaderboardSnapshotter(LeaderboardIndex leaderboardIndex,
+                                  LeaderboardSnapshotRepository snapshotRepository) {
+        this.leaderboardIndex = leaderboardIndex;
+        this.snapshotRepository = snapshotRepository;
+    }
+
+    @Scheduled(fixedDelayString = "${leaderboard.snapshot.interval-ms:300000}",
+               initialDelayString = "${leaderboard.snapshot.interval-ms:300000}")
+    public void snapshot() {
+        if (!leaderboardIndex.isLoaded()) {
+            return;
+        }
+        // Taken before copying, so anything that lands while we copy is replayed on restore
+        LocalDateTime takenAt = LocalDateTime.now();
+        List<LeaderboardEntry> entries = leaderboardIndex.all();
+
+        LeaderboardSnapshot snapshot = new LeaderboardSnapshot();
+        snapshot.setTakenAt(takenAt);
+        snapshot.setEntryCount(entries.size());
+        snapshot.setData(LeaderboardSnapshotCodec.encode(entries));
+        snapshotRepository.save(snapshot);
+    }
+
+    @PreDestroy
+    public void snapshotOnShutdown() {
+        try {
+            snapshot();
+        } catch (Exception e) {
+            // Database already unavailable — the next start falls back to the last periodic snapshot
+        }
+    }
+
+    public Optional<LeaderboardSnapshot> latest() {
+        return snapshotRepository.findById(LeaderboardSnapshot.CURRENT);
+    }
+}
@@ -0,0 +1,14 @@
+package com.genbridge.backend.leaderboard;
+
+import java.util.List;
+
+/**
+ * A learner's position in the leaderboard together with the learners ranked directly
+ * above ({@code above}, best first) and below ({@code below}, best first).
+ */
+public record LeaderboardStanding(LeaderboardEntry entry,
+                                  int rank,
+                                  int totalLearners,
+                                  List<LeaderboardEntry> above,
+                                  List<LeaderboardEntry> below) {
+}
@@ -0,0 +1,41 @@
+package com.genbridge.backend.leaderboard;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Locale;
+
+/** Time window a leaderboard is computed over, selected with {@code ?window=} on /api/leaderboard. */
+public enum LeaderboardWindow {
+    ALL_TIME,
+    WEEKLY,
+    MONTHLY;
+
+    /** Parses {@code all-time}, {@code weekly} or {@code monthly} (case-insensitive); null or blank means all-time. */
+    public static LeaderboardWindow parse(String value) {
+        if (value == null || value.isBlank()) {
+            return ALL_TIME;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("window must be one of all-time, weekly, monthly");
+        }
+    }
+
+    /** First day counted by this window: Monday of the current week, or the first of the current month. */
+    public LocalDate startDate(LocalDate today) {
+        return switch (this) {
+            case WEEKLY -> today.with(DayOfWeek.MONDAY);
+            case MONTHLY -> today.withDayOfMonth(1);
+            case ALL_TIME -> LocalDate.MIN;
+        };
+    }
+
+    /**
+     * Daily XP buckets before this date are no longer needed by any window. One spare month is kept
+     * so a week spanning a month boundary is always complete.
+     */
+    public static LocalDate retentionCutoff(LocalDate today) {
+        return today.withDayOfMonth(1).minusMonths(1);
+    }
+}
@@ -0,0 +1,28 @@
+package com.genbridge.backend.leaderboard;
+
+import com.genbridge.backend.repository.XpDailyBucketRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+
+/**
+ * Rolls old daily XP buckets off nightly. Deletes by bucket date through its index,
+ * so it never rescans lesson or quest history.
+ */
+@Component
+public class XpBucketRetentionJob {
+
+    private final XpDailyBucketRepository xpDailyBucketRepository;
+
+    public XpBucketRetentionJob(XpDailyBucketRepository xpDailyBucketRepository) {
+        this.xpDailyBucketRepository = xpDailyBucketRepository;
+    }
+
+    @Scheduled(cron = "${leaderboard.buckets.purge-cron:0 15 3 * * *}")
+    @Transactional
+    public void purgeExpiredBuckets() {
+        xpDailyBucketRepository.deleteOlderThan(LeaderboardWindow.retentionCutoff(LocalDate.now()));
+    }
+}
@@ -0,0 +1,100 @@
+package com.genbridge.backend.quiz;
+
+import com.genbridge.backend.entity.QuizQuestion;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Immutable grading data for one lesson's quiz: question ids in ascending order with the correct
+ * option, explanation and ordinal of each at the same position. Grading is a binary search and an
+ * array read, with no entity or database access.
+ * Ordinals are stable per lesson (see {@link QuizQuestion#getOrdinal()}), so a learner's mastery
+ * bitmap — bit <i>n</i> set once question ordinal <i>n</i> was answered correctly — stays valid as
+ * questions are added and deleted. The lesson is mastered when the bitmap covers every live ordinal.
+ */
+public final class AnswerKey {
+
+    private final long[] questionIds;
+    private final byte[] correctIndexes;
+    private final String[] explanations;
+    private final int[] ordinals;
+    private final BitSet liveOrdinals;
+
+    private AnswerKey(long[] questionIds, byte[] correctIndexes, String[] explanations, int[] ordinals) {
+        this.questionIds = questionIds;
+        this.correctIndexes = correctIndexes;
+        this.explanations = explanations;
+        this.ordinals = ordinals;
+        this.liveOrdinals = new BitSet();
+        for (int ordinal : ordinals) {
+            liveOrdinals.set(ordinal);
+        }
+    }
+
+    /**
+     * Compiles the key from the lesson's questions in any order. Every question must have its ordinal
+     * ({@code QuizOrdinalSeeder} assigns any missing ones at startup); guessing one would set the wrong
+     * mastery bits, so a missing ordinal fails instead.
+     */
+    public static AnswerKey compile(List<QuizQuestion> questions) {
+        QuizQuestion[] sorted = questions.toArray(new QuizQuestion[0]);
+        Arrays.sort(sorted, (a, b) -> Long.compare(a.getId(), b.getId()));
+        long[] ids = new long[sorted.length];
+        byte[] correct = new byte[sorted.length];
+        String[] explanations = new String[sorted.length];
+        int[] ordinals = new int[sorted.length];
+        for (int i = 0; i < sorted.length; i++) {
+            ids[i] = sorted[i].getId();
+            correct[i] = (byte) sorted[i].getCorrectIndex();
+            explanations[i] = sorted[i].getExplanation();
+            if (sorted[i].getOrdinal() == null) {
+                throw new IllegalStateException("Quiz question " + ids[i] + " has no ordinal");
+            }
+            ordinals[i] = sorted[i].getOrdinal();
+        }
+        return new AnswerKey(ids, correct, explanations, ordinals);
+    }
+
+    public int size() {
+        return questionIds.length;
+    }
+
+    /** The question's position in this key, or -1 if it is not one of the lesson's questions. */
+    public int positionOf(long questionId) {
+        int position = Arrays.binarySearch(questionIds, questionId);
+        return position < 0 ? -1 : position;
+    }
+
+    public long questionId(int position) {
+        return questionIds[position];
+    }
+
+    public int correctIndex(int position) {
+        return correctIndexes[position];
+    }
+
+    public String explanation(int position) {
+        return explanations[position];
+    }
+
+    /** The question's stable ordinal within the lesson, i.e. its bit in a mastery bitmap. */
+    public int ordinal(int position) {
+        return ordinals[position];
+    }
+
+    public boolean isCorrect(int position, Integer selectedIndex) {
+        return selectedIndex != null && selectedIndex == correctIndexes[position];
+    }
+
+    /** True if {@code mastered} has the bit of every current question set; bits of deleted questions are ignored. */
+    public boolean isMastered(BitSet mastered) {
+        if (questionIds.length == 0) {
+            return false;
+        }
+        BitSet covered = (BitSet) mastered.clone();
+        covered.and(liveOrdinals);
+        return covered.cardinality() == questionIds.length;
+    }
+}
@@ -0,0 +1,52 @@
+package com.genbridge.backend.quiz;
+
+import com.genbridge.backend.event.QuizChangedEvent;
+import com.genbridge.backend.repository.LessonRepository;
+import com.genbridge.backend.repository.QuizQuestionRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compiled {@link AnswerKey} per lesson, so grading an answer reads no questions and does not
+ * re-check that the lesson exists. A lesson's key is built on first use and dropped when a
+ * {@link QuizChangedEvent} commits. Keys are built inside {@code computeIfAbsent}, so an eviction
+ * arriving while a key is being built waits for it and then removes it — a key read before the
+ * change committed is never left behind.
+ */
+@Component
+public class AnswerKeyCache {
+
+    private final QuizQuestionRepository quizQuestionRepository;
+    private final LessonRepository lessonRepository;
+    private final Map<Long, AnswerKey> keys = new ConcurrentHashMap<>();
+
+    public AnswerKeyCache(QuizQuestionRepository quizQuestionRepository, LessonRepository lessonRepository) {
+        this.quizQuestionRepository = quizQuestionRepository;
+        this.lessonRepository = lessonRepository;
+    }
+
+    /** Returns the lesson's answer key, or throws IllegalArgumentException if the lesson does not exist. */
+    public AnswerKey get(Long lessonId) {
+        AnswerKey key = keys.get(lessonId);
+        return key != null ? key : keys.computeIfAbsent(lessonId, this::load);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onQuizChanged(QuizChangedEvent event) {
+        keys.remove(event.lessonId());
+    }
+
+    int size() {
+        return keys.size();
+    }
+
+    private AnswerKey load(Long lessonId) {
+        if (!lessonRepository.existsById(lessonId)) {
+            throw new IllegalArgumentException("Lesson not found");
+        }
+        return AnswerKey.compile(quizQuestionRepository.findByLessonIdOrderByIdAsc(lessonId));
+    }
+}
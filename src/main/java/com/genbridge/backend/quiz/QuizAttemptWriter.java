@@ -0,0 +1,356 @@
+package com.genbridge.backend.quiz;
+
+import com.genbridge.backend.entity.QuizAttempt;
+import com.genbridge.backend.repository.QuizAttemptRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.NonTransientDataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Writes quiz attempts behind the request. Attempts join an in-memory queue once the request's
+ * transaction commits (so a rolled-back request leaves none behind) and are inserted in JDBC batches
+ * of {@code quiz.attempts.batch-size}: as soon as a full batch is waiting, and otherwise every
+ * {@code quiz.attempts.flush-ms}. The queue is drained on shutdown.
+ * At most {@code quiz.attempts.buffer-capacity} attempts are queued, in flight or waiting for their
+ * request to commit; beyond that the request is refused with {@link QuizAttemptsOverloadedException}
+ * (503 with Retry-After) instead of growing the queue.
+ * With {@code quiz.attempts.synchronous=true} nothing is buffered: attempts are inserted in the
+ * caller's transaction, so a failed insert fails the request.
+ * A failed batch goes back to the front of the queue. If the database could not be reached, or the
+ * error may clear on its own, nothing is dropped: flushes back off from {@code quiz.attempts.backoff-ms},
+ * doubling up to {@value #MAX_BACKOFF_DOUBLINGS} times, until an insert succeeds. Only a batch rejected
+ * for its data {@code quiz.attempts.max-retries} times in a row is split in halves until the rows that
+ * still fail are isolated; those are dropped and counted in {@code quiz.attempts.dropped}, so one bad
+ * row cannot hold up the queue. Flushing never throws.
+ */
+@Component
+public class QuizAttemptWriter {
+
+    private static final int MAX_BACKOFF_DOUBLINGS = 6;
+
+    private final QuizAttemptRepository quizAttemptRepository;
+    private final TransactionOperations transactions;
+    private final boolean synchronous;
+    private final int batchSize;
+    private final int capacity;
+    private final int maxRetries;
+    private final long backoffNanos;
+    private final long retryAfterSeconds;
+
+    private final Object lock = new Object();
+    /** Queued attempts, the batch being inserted and room held for uncommitted requests; guarded by {@link #lock}. */
+    private final ArrayDeque<QuizAttempt> pending = new ArrayDeque<>();
+    private List<QuizAttempt> inFlight = List.of();
+    private int reserved;
+
+    /** Serialises flushes so batches are written in queue order. */
+    private final Object flushLock = new Object();
+    /** Flushes in a row whose first batch was rejected for its data; guarded by {@link #flushLock}. */
+    private int consecutiveFailures;
+    /** Flushes in a row that could not reach the database, and when the next may try; guarded by {@link #flushLock}. */
+    private int transientFailures;
+    private long retryAt;
+    private final AtomicBoolean flushQueued = new AtomicBoolean();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "quiz-attempt-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Counter writtenCounter;
+    private final Counter failureCounter;
+    private final Counter droppedCounter;
+    private final Counter rejectedCounter;
+
+    @Autowired
+    public QuizAttemptWriter(QuizAttemptRepository quizAttemptRepository,
+                             PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry,
+                             @Value("${quiz.attempts.synchronous:false}") boolean synchronous,
+                             @Value("${quiz.attempts.batch-size:200}") int batchSize,
+                             @Value("${quiz.attempts.buffer-capacity:10000}") int capacity,
+                             @Value("${quiz.attempts.max-retries:3}") int maxRetries,
+                             @Value("${quiz.attempts.backoff-ms:1000}") long backoffMs,
+                             @Value("${quiz.attempts.retry-after-seconds:2}") long retryAfterSeconds) {
+        this(quizAttemptRepository, newTransaction(transactionManager), meterRegistry, synchronous, batchSize,
+                capacity, maxRetries, backoffMs, retryAfterSeconds);
+    }
+
+    QuizAttemptWriter(QuizAttemptRepository quizAttemptRepository, TransactionOperations transactions,
+                      MeterRegistry meterRegistry, boolean synchronous, int batchSize, int capacity, int maxRetries,
+                      long backoffMs, long retryAfterSeconds) {
+        this.quizAttemptRepository = quizAttemptRepository;
+        this.transactions = transactions;
+        this.synchronous = synchronous;
+        this.batchSize = Math.max(1, batchSize);
+        this.capacity = Math.max(this.batchSize, capacity);
+        this.maxRetries = Math.max(0, maxRetries);
+        this.backoffNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, backoffMs));
+        this.retryAfterSeconds = retryAfterSeconds;
+        Gauge.builder("quiz.attempts.pending", this, QuizAttemptWriter::pendingCount)
+                .description("Quiz attempts waiting to be written")
+                .register(meterRegistry);
+        this.writtenCounter = Counter.builder("quiz.attempts.written")
+                .description("Quiz attempts inserted by the write-behind buffer")
+                .register(meterRegistry);
+        this.failureCounter = Counter.builder("quiz.attempts.flush.failures")
+                .description("Quiz attempt batch inserts that failed")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("quiz.attempts.dropped")
+                .description("Quiz attempts dropped because the database kept rejecting their data")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("quiz.attempts.rejected")
+                .description("Requests refused because the quiz attempt buffer was full")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues the attempts once the current transaction commits, or straight away outside one. In
+     * synchronous mode they are inserted in the current transaction instead.
+     *
+     * @throws QuizAttemptsOverloadedException if the buffer has no room for them
+     */
+    public void write(List<QuizAttempt> attempts) {
+        if (attempts.isEmpty()) {
+            return;
+        }
+        if (synchronous) {
+            quizAttemptRepository.insertAll(attempts);
+            writtenCounter.increment(attempts.size());
+            return;
+        }
+        reserve(attempts.size());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        enqueue(attempts);
+                    } else {
+                        release(attempts.size());
+                    }
+                }
+            });
+        } else {
+            enqueue(attempts);
+        }
+    }
+
+    /**
+     * Ids of the user's correctly answered questions in the lesson that are queued or being inserted.
+     * Read this before querying the table: an attempt is always in one or the other, never neither.
+     */
+    public Set<Long> pendingCorrectQuestionIds(UUID userId, Long lessonId) {
+        Set<Long> questionIds = new HashSet<>();
+        synchronized (lock) {
+            collectCorrect(pending, userId, lessonId, questionIds);
+            collectCorrect(inFlight, userId, lessonId, questionIds);
+        }
+        return questionIds;
+    }
+
+    /**
+     * Inserts everything queued so far, one batch at a time. Stops at the first failed batch, which
+     * is requeued for the next flush — or, once its data has been rejected {@code max-retries} times,
+     * split and written row by row where needed. Does nothing while backing off after the database
+     * could not be reached.
+     */
+    @Scheduled(fixedDelayString = "${quiz.attempts.flush-ms:1000}")
+    public void flush() {
+        flush(false);
+    }
+
+    private void flush(boolean ignoreBackoff) {
+        synchronized (flushLock) {
+            if (!ignoreBackoff && transientFailures > 0 && System.nanoTime() - retryAt < 0) {
+                return;
+            }
+            List<QuizAttempt> batch;
+            while (!(batch = takeBatch()).isEmpty()) {
+                try {
+                    if (consecutiveFailures < maxRetries) {
+                        insert(batch);
+                    } else {
+                        List<QuizAttempt> unwritten = insertSplitting(batch);
+                        if (!unwritten.isEmpty()) {
+                            requeue(unwritten);
+                            backOff();
+                            return;
+                        }
+                    }
+                    consecutiveFailures = 0;
+                    transientFailures = 0;
+                } catch (RuntimeException e) {
+                    requeue(batch);
+                    if (isDataError(e)) {
+                        consecutiveFailures++;
+                    } else {
+                        backOff();
+                    }
+                    return;
+                } finally {
+                    synchronized (lock) {
+                        inFlight = List.of();
+                    }
+                }
+            }
+        }
+    }
+
+    /** Drains the queue, giving a failing batch its remaining retries without waiting out the backoff. */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        for (int i = 0; i <= maxRetries && pendingCount() > 0; i++) {
+            flush(true);
+        }
+    }
+
+    int pendingCount() {
+        synchronized (lock) {
+            return pending.size();
+        }
+    }
+
+    /** Holds room for attempts until their request commits or rolls back. */
+    private void reserve(int count) {
+        synchronized (lock) {
+            if (pending.size() + inFlight.size() + reserved + count > capacity) {
+                rejectedCounter.increment();
+                throw new QuizAttemptsOverloadedException(retryAfterSeconds);
+            }
+            reserved += count;
+        }
+    }
+
+    private void release(int count) {
+        synchronized (lock) {
+            reserved -= count;
+        }
+    }
+
+    private void enqueue(List<QuizAttempt> attempts) {
+        int queued;
+        synchronized (lock) {
+            reserved -= attempts.size();
+            pending.addAll(attempts);
+            queued = pending.size();
+        }
+        if (queued >= batchSize && flushQueued.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                flushQueued.set(false);
+                flush();
+            });
+        }
+    }
+
+    private void insert(List<QuizAttempt> batch) {
+        try {
+            transactions.executeWithoutResult(status -> quizAttemptRepository.insertAll(batch));
+        } catch (RuntimeException e) {
+            failureCounter.increment();
+            throw e;
+        }
+        writtenCounter.increment(batch.size());
+    }
+
+    /**
+     * Inserts the batch, bisecting it on data errors until the rejected rows are isolated and dropped.
+     * Returns the rows left unwritten because the database could not be reached part way through.
+     */
+    private List<QuizAttempt> insertSplitting(List<QuizAttempt> batch) {
+        try {
+            insert(batch);
+            return List.of();
+        } catch (RuntimeException e) {
+            if (!isDataError(e)) {
+                return batch;
+            }
+            if (batch.size() == 1) {
+                droppedCounter.increment();
+                return List.of();
+            }
+            int middle = batch.size() / 2;
+            List<QuizAttempt> unwritten = insertSplitting(batch.subList(0, middle));
+            if (!unwritten.isEmpty()) {
+                List<QuizAttempt> remaining = new ArrayList<>(unwritten);
+                remaining.addAll(batch.subList(middle, batch.size()));
+                return remaining;
+            }
+            return insertSplitting(batch.subList(middle, batch.size()));
+        }
+    }
+
+    private void backOff() {
+        long delay = backoffNanos << Math.min(transientFailures, MAX_BACKOFF_DOUBLINGS);
+        transientFailures++;
+        retryAt = System.nanoTime() + delay;
+    }
+
+    /**
+     * Whether the database rejected the rows themselves, so retrying the same batch cannot succeed.
+     * Lost connections and anything unrecognised count as transient and are retried.
+     */
+    private static boolean isDataError(RuntimeException e) {
+        return e instanceof DataIntegrityViolationException
+                || (e instanceof NonTransientDataAccessException && !(e instanceof DataAccessResourceFailureException));
+    }
+
+    private List<QuizAttempt> takeBatch() {
+        synchronized (lock) {
+            List<QuizAttempt> batch = new ArrayList<>(Math.min(batchSize, pending.size()));
+            while (batch.size() < batchSize && !pending.isEmpty()) {
+                batch.add(pending.poll());
+            }
+            inFlight = batch;
+            return batch;
+        }
+    }
+
+    private void requeue(List<QuizAttempt> batch) {
+        synchronized (lock) {
+            for (int i = batch.size() - 1; i >= 0; i--) {
+                pending.addFirst(batch.get(i));
+            }
+        }
+    }
+
+    private static void collectCorrect(Iterable<QuizAttempt> attempts, UUID userId, Long lessonId, Set<Long> into) {
+        for (QuizAttempt attempt : attempts) {
+            if (attempt.getQuestionId() != null && attempt.getCorrectAnswers() == 1
+                    && userId.equals(attempt.getUserId()) && lessonId.equals(attempt.getLessonId())) {
+                into.add(attempt.getQuestionId());
+            }
+        }
+    }
+
+    private static TransactionOperations newTransaction(PlatformTransactionManager transactionManager) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return template;
+    }
+}
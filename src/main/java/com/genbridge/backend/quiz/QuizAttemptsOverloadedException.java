@@ -0,0 +1,23 @@
+package com.genbridge.backend.quiz;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/** Thrown when the quiz attempt buffer is full; rendered as 503 with a Retry-After header. */
+public class QuizAttemptsOverloadedException extends ResponseStatusException {
+
+    private final long retryAfterSeconds;
+
+    public QuizAttemptsOverloadedException(long retryAfterSeconds) {
+        super(HttpStatus.SERVICE_UNAVAILABLE, "Quiz answers cannot be saved right now. Please try again in a moment.");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        return headers;
+    }
+}
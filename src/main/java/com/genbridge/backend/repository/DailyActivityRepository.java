@@ -0,0 +1,47 @@
+package com.genbridge.backend.repository;
+
+import com.genbridge.backend.entity.DailyActivity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface DailyActivityRepository extends JpaRepository<DailyActivity, LocalDate> {
+
+    List<DailyActivity> findByActivityDateBetweenOrderByActivityDateAsc(LocalDate from, LocalDate to);
+
+    /** Creates the day's row with these counters unless it already exists; returns 0 if it did. */
+    @Modifying
+    @Query(value = """
+        insert into daily_activity (activity_date, active_users, quiz_attempts, lesson_completions, quest_completions, forum_posts)
+        values (:day, :activeUsers, :quizAttempts, :lessonCompletions, :questCompletions, :forumPosts)
+        on conflict do nothing
+    """, nativeQuery = true)
+    int insertIfAbsent(@Param("day") LocalDate day,
+                       @Param("activeUsers") long activeUsers,
+                       @Param("quizAttempts") long quizAttempts,
+                       @Param("lessonCompletions") long lessonCompletions,
+                       @Param("questCompletions") long questCompletions,
+                       @Param("forumPosts") long forumPosts);
+
+    /** Adds the deltas to the day's counters in place; does nothing until {@link #insertIfAbsent} has created the row. */
+    @Modifying
+    @Query("""
+        update DailyActivity d
+        set d.activeUsers = d.activeUsers + :activeUsers,
+            d.quizAttempts = d.quizAttempts + :quizAttempts,
+            d.lessonCompletions = d.lessonCompletions + :lessonCompletions,
+            d.questCompletions = d.questCompletions + :questCompletions,
+            d.forumPosts = d.forumPosts + :forumPosts
+        where d.activityDate = :day
+    """)
+    int increment(@Param("day") LocalDate day,
+                  @Param("activeUsers") long activeUsers,
+                  @Param("quizAttempts") long quizAttempts,
+                  @Param("lessonCompletions") long lessonCompletions,
+                  @Param("questCompletions") long questCompletions,
+                  @Param("forumPosts") long forumPosts);
+}
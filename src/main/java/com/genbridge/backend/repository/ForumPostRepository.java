@@ -2,9 +2,18 @@ package com.genbridge.backend.repository;
 
 import com.genbridge.backend.entity.ForumPost;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import java.util.List;
 
 public interface ForumPostRepository extends JpaRepository<ForumPost, Long> {
     List<ForumPost> findAllByOrderByCreatedAtDesc();
+
+    /** Returns [day, count] of forum posts created per day. */
+    @Query("select cast(p.createdAt as LocalDate), count(p) from ForumPost p group by cast(p.createdAt as LocalDate)")
+    List<Object[]> countPostsByDay();
+
+    /** Returns [userId, day] once per user per day with a post, for rebuilding activity bitmaps. */
+    @Query("select distinct p.userId, cast(p.createdAt as LocalDate) from ForumPost p")
+    List<Object[]> findDistinctUserDays();
 }
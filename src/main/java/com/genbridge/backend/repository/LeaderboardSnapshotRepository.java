@@ -0,0 +1,7 @@
+package com.genbridge.backend.repository;
+
+import com.genbridge.backend.entity.LeaderboardSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface LeaderboardSnapshotRepository extends JpaRepository<LeaderboardSnapshot, Short> {
+}
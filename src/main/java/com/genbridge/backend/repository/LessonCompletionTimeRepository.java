@@ -0,0 +1,32 @@
+package com.genbridge.backend.repository;
+
+import com.genbridge.backend.entity.LessonCompletionTime;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface LessonCompletionTimeRepository extends JpaRepository<LessonCompletionTime, Long> {
+    List<LessonCompletionTime> findByLessonIdIn(Collection<Long> lessonIds);
+
+    /** Creates the bucket's row with {@code learners} unless the lesson already has it; returns 0 if it did. */
+    @Modifying
+    @Query(value = """
+        insert into lesson_completion_times (lesson_id, bucket, learners)
+        values (:lessonId, :bucket, :learners)
+        on conflict do nothing
+    """, nativeQuery = true)
+    int insertIfAbsent(@Param("lessonId") Long lessonId, @Param("bucket") int bucket, @Param("learners") long learners);
+
+    /** Adds {@code delta} to the bucket in place; does nothing until {@link #insertIfAbsent} has created the row. */
+    @Modifying
+    @Query("""
+        update LessonCompletionTime t
+        set t.learners = t.learners + :delta
+        where t.lessonId = :lessonId and t.bucket = :bucket
+    """)
+    int increment(@Param("lessonId") Long lessonId, @Param("bucket") int bucket, @Param("delta") long delta);
+}
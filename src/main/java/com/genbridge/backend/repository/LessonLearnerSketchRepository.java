@@ -0,0 +1,16 @@
+package com.genbridge.backend.repository;
+
+import com.genbridge.backend.entity.LessonLearnerSketch;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+public interface LessonLearnerSketchRepository extends JpaRepository<LessonLearnerSketch, Long> {
+    Optional<LessonLearnerSketch> findByLessonIdAndActivityDate(Long lessonId, LocalDate activityDate);
+
+    List<LessonLearnerSketch> findByActivityDateBetween(LocalDate from, LocalDate to);
+
+    List<LessonLearnerSketch> findByLessonIdAndActivityDateBetween(Long lessonId, LocalDate from, LocalDate to);
+}
@@ -1,13 +1,75 @@
 package com.genbridge.backend.repository;
 
 import com.genbridge.backend.entity.LessonProgress;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 public interface LessonProgressRepository extends JpaRepository<LessonProgress, Long> {
     Optional<LessonProgress> findByUserIdAndLessonId(UUID userId, Long lessonId);
+
+    /** Same as {@link #findByUserIdAndLessonId} but locks the row, for read-modify-write of the mastery bitmap. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select p from LessonProgress p where p.userId = :userId and p.lessonId = :lessonId")
+    Optional<LessonProgress> findForUpdate(@Param("userId") UUID userId, @Param("lessonId") Long lessonId);
     List<LessonProgress> findByUserIdOrderByLessonIdAsc(UUID userId);
+
+    /** Returns [userId, completedAt, difficulty] rows for lessons completed since the given time. */
+    @Query("""
+        select p.userId, p.completedAt, l.difficulty
+        from LessonProgress p
+        left join Lesson l on l.id = p.lessonId
+        where p.completed = true
+          and p.completedAt >= :since
+    """)
+    List<Object[]> findCompletionsSince(@Param("since") LocalDateTime since);
+
+    /** Returns [lessonId, started, attempted, completed] counts per lesson for reconciling the lesson_stats rollup. */
+    @Query("""
+        select p.lessonId, count(p), count(p.firstAttemptedAt), sum(case when p.completed = true then 1 else 0 end)
+        from LessonProgress p
+        group by p.lessonId
+    """)
+    List<Object[]> countFunnelStagesByLesson();
+
+    /** Returns [lessonId, startedAt, completedAt] for every completed lesson, for rebuilding time-to-complete buckets. */
+    @Query("""
+        select p.lessonId, p.startedAt, p.completedAt
+        from LessonProgress p
+        where p.completed = true and p.completedAt is not null
+    """)
+    List<Object[]> findCompletionDurations();
+
+    /** Fills in the first attempt time from quiz attempts for progress recorded before it was tracked. */
+    @Modifying
+    @Query("""
+        update LessonProgress p
+        set p.firstAttemptedAt = (
+            select min(qa.submittedAt) from QuizAttempt qa
+            where qa.userId = p.userId and qa.lessonId = p.lessonId)
+        where p.firstAttemptedAt is null
+          and exists (select 1 from QuizAttempt qa where qa.userId = p.userId and qa.lessonId = p.lessonId)
+    """)
+    int backfillFirstAttemptedAt();
+
+    /** Returns [day, count] of lesson completions per completion day. */
+    @Query("""
+        select cast(p.completedAt as LocalDate), count(p)
+        from LessonProgress p
+        where p.completed = true and p.completedAt is not null
+        group by cast(p.completedAt as LocalDate)
+    """)
+    List<Object[]> countCompletionsByDay();
+
+    /** Returns [userId, day] once per user per day a lesson was started, for rebuilding activity bitmaps. */
+    @Query("select distinct p.userId, cast(p.startedAt as LocalDate) from LessonProgress p")
+    List<Object[]> findDistinctUserStartDays();
 }
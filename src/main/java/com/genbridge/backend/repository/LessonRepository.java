@@ -1,7 +1,11 @@
 package com.genbridge.backend.repository;
 
 import com.genbridge.backend.entity.Lesson;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -12,5 +16,12 @@ public interface LessonRepository extends JpaRepository<Lesson, Long> {
 
     List<Lesson> findByPublishedTrue();
 
+    long countByPublishedTrue();
+
     Optional<Lesson> findByIdAndPublishedTrue(Long id);
+
+    /** Loads the lesson with a row lock, serialising question creation so each gets a distinct ordinal. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select l from Lesson l where l.id = :id")
+    Optional<Lesson> findForUpdate(@Param("id") Long id);
 }
@@ -0,0 +1,44 @@
+package com.genbridge.backend.repository;
+
+import com.genbridge.backend.entity.LessonStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+
+public interface LessonStatsRepository extends JpaRepository<LessonStats, Long> {
+
+    /**
+     * Creates the lesson's row with these counts unless it already exists; returns 0 if it did.
+     * Concurrent first writes cannot collide: the loser inserts nothing and falls back to {@link #increment}.
+     */
+    @Modifying
+    @Query(value = """
+        insert into lesson_stats (lesson_id, started_count, attempted_count, completed_count, updated_at)
+        values (:lessonId, :startedCount, :attemptedCount, :completedCount, :now)
+        on conflict do nothing
+    """, nativeQuery = true)
+    int insertIfAbsent(@Param("lessonId") Long lessonId,
+                       @Param("startedCount") long startedCount,
+                       @Param("attemptedCount") long attemptedCount,
+                       @Param("completedCount") long completedCount,
+                       @Param("now") LocalDateTime now);
+
+    /** Adds the deltas in place so concurrent updates do not overwrite each other; does nothing until {@link #insertIfAbsent} has created the row. */
+    @Modifying
+    @Query("""
+        update LessonStats s
+        set s.startedCount = s.startedCount + :startedDelta,
+            s.attemptedCount = s.attemptedCount + :attemptedDelta,
+            s.completedCount = s.completedCount + :completedDelta,
+            s.updatedAt = :now
+        where s.lessonId = :lessonId
+    """)
+    int increment(@Param("lessonId") Long lessonId,
+                  @Param("startedDelta") long startedDelta,
+                  @Param("attemptedDelta") long attemptedDelta,
+                  @Param("completedDelta") long completedDelta,
+                  @Param("now") LocalDateTime now);
+}
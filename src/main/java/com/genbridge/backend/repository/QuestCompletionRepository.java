@@ -4,8 +4,11 @@ import com.genbridge.backend.entity.Quest;
 import com.genbridge.backend.entity.QuestCompletion;
 import com.genbridge.backend.user.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -13,4 +16,16 @@ public interface QuestCompletionRepository extends JpaRepository<QuestCompletion
     boolean existsByQuestAndUser(Quest quest, User user);
     List<QuestCompletion> findByUserOrderByCompletedAtDesc(User user);
     List<QuestCompletion> findByQuestIdInAndUser(List<Long> questIds, User user);
-}
\ No newline at end of file
+
+    /** Returns [userId, completedAt] rows for quests completed since the given time. */
+    @Query("select qc.user.id, qc.completedAt from QuestCompletion qc where qc.completedAt >= :since")
+    List<Object[]> findCompletionTimesSince(@Param("since") LocalDateTime since);
+
+    /** Returns [day, count] of quest completions per day. */
+    @Query("select cast(qc.completedAt as LocalDate), count(qc) from QuestCompletion qc group by cast(qc.completedAt as LocalDate)")
+    List<Object[]> countCompletionsByDay();
+
+    /** Returns [userId, day] once per user per day with a quest completion, for rebuilding activity bitmaps. */
+    @Query("select distinct qc.user.id, cast(qc.completedAt as LocalDate) from QuestCompletion qc")
+    List<Object[]> findDistinctUserDays();
+}
@@ -0,0 +1,53 @@
+package com.genbridge.backend.repository;
+
+import com.genbridge.backend.entity.QuestionStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface QuestionStatsRepository extends JpaRepository<QuestionStats, Long> {
+
+    List<QuestionStats> findByLessonId(Long lessonId);
+
+    /** Creates the question's row holding its first answer unless it already exists; returns 0 if it did. */
+    @Modifying
+    @Query(value = """
+        insert into question_stats (question_id, lesson_id, attempts, correct_count,
+            option_a_count, option_b_count, option_c_count, option_d_count, updated_at)
+        values (:questionId, :lessonId, 1, :correct, :optionA, :optionB, :optionC, :optionD, :now)
+        on conflict do nothing
+    """, nativeQuery = true)
+    int insertIfAbsent(@Param("questionId") Long questionId,
+                       @Param("lessonId") Long lessonId,
+                       @Param("correct") long correct,
+                       @Param("optionA") long optionA,
+                       @Param("optionB") long optionB,
+                       @Param("optionC") long optionC,
+                       @Param("optionD") long optionD,
+                       @Param("now") LocalDateTime now);
+
+    /** Counts one answer in place; each option delta is 0 or 1. Does nothing until {@link #insertIfAbsent} has created the row. */
+    @Modifying
+    @Query("""
+        update QuestionStats s
+        set s.attempts = s.attempts + 1,
+            s.correctCount = s.correctCount + :correct,
+            s.optionACount = s.optionACount + :optionA,
+            s.optionBCount = s.optionBCount + :optionB,
+            s.optionCCount = s.optionCCount + :optionC,
+            s.optionDCount = s.optionDCount + :optionD,
+            s.updatedAt = :now
+        where s.questionId = :questionId
+    """)
+    int recordAnswer(@Param("questionId") Long questionId,
+                     @Param("correct") long correct,
+                     @Param("optionA") long optionA,
+                     @Param("optionB") long optionB,
+                     @Param("optionC") long optionC,
+                     @Param("optionD") long optionD,
+                     @Param("now") LocalDateTime now);
+}
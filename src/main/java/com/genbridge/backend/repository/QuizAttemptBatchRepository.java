@@ -0,0 +1,16 @@
+package com.genbridge.backend.repository;
+
+import com.genbridge.backend.entity.QuizAttempt;
+
+import java.util.List;
+
+/** Bulk insert for quiz attempts, mixed into {@link QuizAttemptRepository}. */
+public interface QuizAttemptBatchRepository {
+
+    /**
+     * Inserts the attempts as one JDBC batch in the caller's transaction. IDENTITY ids stop
+     * Hibernate from batching {@code saveAll}, so this bypasses the persistence context: the
+     * attempts' ids are left unset and they are not managed afterwards.
+     */
+    void insertAll(List<QuizAttempt> attempts);
+}
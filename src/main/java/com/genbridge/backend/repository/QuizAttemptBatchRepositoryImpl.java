@@ -0,0 +1,40 @@
+package com.genbridge.backend.repository;
+
+import com.genbridge.backend.entity.QuizAttempt;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.util.List;
+
+class QuizAttemptBatchRepositoryImpl implements QuizAttemptBatchRepository {
+
+    private static final String INSERT = """
+        insert into quiz_attempts
+            (user_id, lesson_id, question_id, selected_index, score, total_questions, correct_answers, submitted_at)
+        values (?, ?, ?, ?, ?, ?, ?, ?)
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    QuizAttemptBatchRepositoryImpl(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Override
+    public void insertAll(List<QuizAttempt> attempts) {
+        if (attempts.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT, attempts, attempts.size(), (ps, attempt) -> {
+            ps.setObject(1, attempt.getUserId());
+            ps.setLong(2, attempt.getLessonId());
+            ps.setObject(3, attempt.getQuestionId());
+            ps.setObject(4, attempt.getSelectedIndex());
+            ps.setInt(5, attempt.getScore());
+            ps.setInt(6, attempt.getTotalQuestions());
+            ps.setInt(7, attempt.getCorrectAnswers());
+            ps.setTimestamp(8, Timestamp.valueOf(attempt.getSubmittedAt()));
+        });
+    }
+}
@@ -8,16 +8,36 @@ import org.springframework.data.repository.query.Param;
 import java.util.List;
 import java.util.UUID;
 
-public interface QuizAttemptRepository extends JpaRepository<QuizAttempt, Long> {
+public interface QuizAttemptRepository extends JpaRepository<QuizAttempt, Long>, QuizAttemptBatchRepository {
     List<QuizAttempt> findByUserIdOrderBySubmittedAtDesc(UUID userId);
 
+    /** Ids of the questions in the lesson the user has answered correctly at least once. */
     @Query("""
-        select count(distinct qa.questionId)
+        select distinct qa.questionId
         from QuizAttempt qa
         where qa.userId = :userId
           and qa.lessonId = :lessonId
           and qa.questionId is not null
           and qa.correctAnswers = 1
     """)
-    long countDistinctCorrectQuestionAttempts(@Param("userId") UUID userId, @Param("lessonId") Long lessonId);
+    List<Long> findCorrectlyAnsweredQuestionIds(@Param("userId") UUID userId, @Param("lessonId") Long lessonId);
+
+    /** Returns [day, attempts, distinct users] per day, used to backfill the daily activity rollup. */
+    @Query("""
+        select cast(qa.submittedAt as LocalDate), count(qa), count(distinct qa.userId)
+        from QuizAttempt qa
+        group by cast(qa.submittedAt as LocalDate)
+    """)
+    List<Object[]> countAttemptsAndUsersByDay();
+
+    /** Returns [lessonId, day, userId] once per learner per lesson per day, used to rebuild the learner sketches. */
+    @Query("""
+        select distinct qa.lessonId, cast(qa.submittedAt as LocalDate), qa.userId
+        from QuizAttempt qa
+    """)
+    List<Object[]> findDistinctLessonLearnerDays();
+
+    /** Returns [userId, day] once per user per day with an attempt, for rebuilding activity bitmaps. */
+    @Query("select distinct qa.userId, cast(qa.submittedAt as LocalDate) from QuizAttempt qa")
+    List<Object[]> findDistinctUserDays();
 }
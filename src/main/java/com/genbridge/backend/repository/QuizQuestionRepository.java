@@ -2,10 +2,25 @@ package com.genbridge.backend.repository;
 
 import com.genbridge.backend.entity.QuizQuestion;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 
 public interface QuizQuestionRepository extends JpaRepository<QuizQuestion, Long> {
     List<QuizQuestion> findByLessonIdOrderByIdAsc(Long lessonId);
     long countByLessonId(Long lessonId);
+
+    @Query("select max(q.ordinal) from QuizQuestion q where q.lessonId = :lessonId")
+    Integer findMaxOrdinalByLessonId(@Param("lessonId") Long lessonId);
+
+    /** Gives questions created before ordinals existed their rank by id within the lesson; returns the number updated. */
+    @Modifying
+    @Query("""
+        update QuizQuestion q
+        set q.ordinal = (select count(q2) from QuizQuestion q2 where q2.lessonId = q.lessonId and q2.id < q.id)
+        where q.ordinal is null
+    """)
+    int assignMissingOrdinals();
 }
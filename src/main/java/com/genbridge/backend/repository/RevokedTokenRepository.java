@@ -0,0 +1,36 @@
+package com.genbridge.backend.repository;
+
+import com.genbridge.backend.entity.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+
+    List<RevokedToken> findByExpiresAtAfter(LocalDateTime now);
+
+    /**
+     * Records the revocation unless the jti is already revoked; returns 0 if it was. Two transactions
+     * revoking the same jti cannot both get 1: the second waits for the first and then inserts nothing.
+     */
+    @Modifying
+    @Query(value = """
+        insert into revoked_tokens (jti, user_id, expires_at, revoked_at)
+        values (:jti, :userId, :expiresAt, :revokedAt)
+        on conflict do nothing
+    """, nativeQuery = true)
+    int insertIfAbsent(@Param("jti") String jti,
+                       @Param("userId") UUID userId,
+                       @Param("expiresAt") LocalDateTime expiresAt,
+                       @Param("revokedAt") LocalDateTime revokedAt);
+
+    /** Removes entries whose token has expired; returns how many were removed. */
+    @Modifying
+    @Query("delete from RevokedToken r where r.expiresAt <= :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
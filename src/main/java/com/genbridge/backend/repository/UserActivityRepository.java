@@ -0,0 +1,18 @@
+package com.genbridge.backend.repository;
+
+import com.genbridge.backend.entity.UserActivity;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+import java.util.UUID;
+
+public interface UserActivityRepository extends JpaRepository<UserActivity, UUID> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select a from UserActivity a where a.userId = :userId")
+    Optional<UserActivity> findForUpdate(@Param("userId") UUID userId);
+}
@@ -0,0 +1,90 @@
+package com.genbridge.backend.repository;
+
+import com.genbridge.backend.entity.UserXp;
+import com.genbridge.backend.services.XpRules;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface UserXpRepository extends JpaRepository<UserXp, UUID> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select x from UserXp x where x.userId = :userId")
+    Optional<UserXp> findForUpdate(@Param("userId") UUID userId);
+
+    /** Creates the user's empty ledger row unless it already exists, so {@link #findForUpdate} always has a row to lock. */
+    @Modifying
+    @Query(value = """
+        insert into user_xp (user_id, lesson_xp, quest_xp, total_xp, completed_lessons, completed_quests, updated_at)
+        values (:userId, 0, 0, 0, 0, 0, :now)
+        on conflict do nothing
+    """, nativeQuery = true)
+    int insertIfAbsent(@Param("userId") UUID userId, @Param("now") LocalDateTime now);
+
+    /** Returns [userId, name, totalXp, completedLessons, currentStreak] for every non-admin user, including those with no XP yet. */
+    @Query("""
+        select u.id, u.name, coalesce(x.totalXp, 0), coalesce(x.completedLessons, 0), coalesce(u.currentStreak, 0)
+        from User u
+        left join UserXp x on x.userId = u.id
+        where u.role <> 'ADMIN'
+    """)
+    List<Object[]> findLearnerStandings();
+
+    /** Same rows as {@link #findLearnerStandings()}, limited to learners whose XP or streak may have changed since the given time. */
+    @Query("""
+        select u.id, u.name, coalesce(x.totalXp, 0), coalesce(x.completedLessons, 0), coalesce(u.currentStreak, 0)
+        from User u
+        left join UserXp x on x.userId = u.id
+        where u.role <> 'ADMIN'
+          and (x.updatedAt >= :since or u.lastActiveDate >= :sinceDate)
+    """)
+    List<Object[]> findLearnerStandingsChangedSince(@Param("since") LocalDateTime since,
+                                                    @Param("sinceDate") LocalDate sinceDate);
+
+    /**
+     * Computes every user's XP from lesson progress and quest completions in a single statement.
+     * Returns [userId, lessonXp, completedLessons, questXp, completedQuests] rows, highest total first,
+     * for users with at least one completion. The XP values come from {@link XpRules}.
+     */
+    default List<Object[]> aggregateXpByUser() {
+        return aggregateXpByUser(XpRules.BEGINNER_LESSON_XP, XpRules.INTERMEDIATE_LESSON_XP,
+                XpRules.ADVANCED_LESSON_XP, XpRules.QUEST_XP);
+    }
+
+    @Query("""
+        select u.id, lessons.xp, lessons.completed, quests.completed * :questXp, quests.completed
+        from User u
+        left join (
+            select p.userId as userId,
+                   sum(case upper(l.difficulty)
+                           when 'INTERMEDIATE' then cast(:intermediateXp as Integer)
+                           when 'ADVANCED' then cast(:advancedXp as Integer)
+                           else cast(:beginnerXp as Integer) end) as xp,
+                   count(p) as completed
+            from LessonProgress p
+            left join Lesson l on l.id = p.lessonId
+            where p.completed = true
+            group by p.userId
+        ) lessons on lessons.userId = u.id
+        left join (
+            select qc.user.id as userId, count(qc) as completed
+            from QuestCompletion qc
+            group by qc.user.id
+        ) quests on quests.userId = u.id
+        where lessons.userId is not null or quests.userId is not null
+        order by coalesce(lessons.xp, 0) + coalesce(quests.completed, 0) * :questXp desc, u.id
+    """)
+    List<Object[]> aggregateXpByUser(@Param("beginnerXp") int beginnerXp,
+                                     @Param("intermediateXp") int intermediateXp,
+                                     @Param("advancedXp") int advancedXp,
+                                     @Param("questXp") int questXp);
+}
@@ -0,0 +1,47 @@
+package com.genbridge.backend.repository;
+
+import com.genbridge.backend.entity.XpDailyBucket;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface XpDailyBucketRepository extends JpaRepository<XpDailyBucket, Long> {
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from XpDailyBucket b where b.userId = :userId and b.bucketDate = :day")
+    Optional<XpDailyBucket> findForUpdate(@Param("userId") UUID userId, @Param("day") LocalDate day);
+
+    /** Creates the user's empty bucket for the day unless it already exists, so {@link #findForUpdate} always has a row to lock. */
+    @Modifying
+    @Query(value = """
+        insert into xp_daily_buckets (user_id, bucket_date, xp, completed_lessons, completed_quests)
+        values (:userId, :day, 0, 0, 0)
+        on conflict do nothing
+    """, nativeQuery = true)
+    int insertIfAbsent(@Param("userId") UUID userId, @Param("day") LocalDate day);
+
+    /** Returns [userId, name, currentStreak, xp, completedLessons] for learners with XP since {@code from}, best first. */
+    @Query("""
+        select b.userId, u.name, coalesce(u.currentStreak, 0), sum(b.xp), sum(b.completedLessons)
+        from XpDailyBucket b, User u
+        where u.id = b.userId
+          and u.role <> 'ADMIN'
+          and b.bucketDate >= :from
+        group by b.userId, u.name, u.currentStreak
+        having sum(b.xp) > 0
+        order by sum(b.xp) desc, b.userId asc
+    """)
+    List<Object[]> findTopSince(@Param("from") LocalDate from, Pageable pageable);
+
+    @Modifying
+    @Query("delete from XpDailyBucket b where b.bucketDate < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDate cutoff);
+}
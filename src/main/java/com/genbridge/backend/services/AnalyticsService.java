@@ -0,0 +1,97 @@
+package com.genbridge.backend.services;
+
+import com.genbridge.backend.analytics.ActivityMetric;
+import com.genbridge.backend.analytics.HyperLogLog;
+import com.genbridge.backend.analytics.LearnerSketchKey;
+import com.genbridge.backend.analytics.TimeseriesGranularity;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Service interface for admin analytics.
+ * Per-lesson started/attempted/completed counts are kept in the {@code lesson_stats} rollup and
+ * time-to-complete in log-scale buckets, updated in the caller's transaction as progress changes,
+ * so the dashboard and funnel never scan {@code lesson_progress}.
+ * Daily platform activity is kept the same way in {@code daily_activity} for the time-series charts,
+ * per-question answer counters in {@code question_stats}, and distinct quiz takers per lesson per day
+ * as mergeable HyperLogLog sketches in {@code lesson_learner_sketches}. Each user's active days are
+ * kept as a bitmap in {@code user_activity} for cohort retention.
+ */
+public interface AnalyticsService {
+
+    /** Returns platform totals and per-lesson completion stats for published lessons. */
+    Map<String, Object> getAnalytics();
+
+    /** Counts a learner starting a lesson for the first time. */
+    void recordLessonStarted(Long lessonId);
+
+    /** Counts a learner's first quiz attempt on a lesson. */
+    void recordLessonAttempted(Long lessonId);
+
+    /** Adjusts a lesson's completed count by {@code delta} (+1 when completed, -1 when a completion is lost). */
+    void recordLessonCompletionChange(Long lessonId, int delta);
+
+    /** Adds or removes ({@code delta} = ±1) one completion taking {@code timeToComplete} from the lesson's time histogram. */
+    void recordTimeToComplete(Long lessonId, Duration timeToComplete, int delta);
+
+    /**
+     * Returns the start → attempt → complete funnel with drop-off and median time-to-complete, for one
+     * lesson or every published lesson if null. Read from the rollups, never from {@code lesson_progress}.
+     */
+    List<Map<String, Object>> getFunnel(Long lessonId);
+
+    /** Recomputes the funnel rollups from {@code lesson_progress}; returns the number of lessons written. */
+    int reconcileLessonStats();
+
+    /** Adds {@code delta} to one of the day's activity counters. */
+    void recordActivity(ActivityMetric metric, LocalDate day, int delta);
+
+    /** Returns activity between {@code from} and {@code to} inclusive, one point per day, week or month. */
+    Map<String, Object> getTimeseries(LocalDate from, LocalDate to, TimeseriesGranularity granularity);
+
+    /** Recomputes {@code daily_activity} from the raw timestamps; returns the number of days written. */
+    int rebuildDailyActivity();
+
+    /** Counts one graded answer to a question of the lesson; {@code selectedIndex} may be null when no option was chosen. */
+    void recordAnswer(Long questionId, Long lessonId, Integer selectedIndex, boolean correct);
+
+    /** Drops a question's counters, e.g. after its options or correct answer changed. */
+    void resetQuestionStats(Long questionId);
+
+    /** Returns percent correct and per-option selection shares for every question of a lesson, or of all lessons if null. */
+    List<Map<String, Object>> getQuestionStats(Long lessonId);
+
+    /** Adds a learner to the lesson's distinct-learner sketch for {@code day}; buffered in memory until the next flush. */
+    void recordLessonLearner(Long lessonId, UUID userId, LocalDate day);
+
+    /** Max-merges buffered sketches into the stored ones; returns the number of lesson-days written. */
+    int mergeLearnerSketches(Map<LearnerSketchKey, HyperLogLog> sketches);
+
+    /**
+     * Returns the approximate number of distinct learners who attempted each lesson's quiz between
+     * {@code from} and {@code to} inclusive, for one lesson or every lesson with activity if null.
+     */
+    Map<String, Object> getDistinctLearners(Long lessonId, LocalDate from, LocalDate to);
+
+    /** Recomputes every learner sketch from {@code quiz_attempts}; returns the number of lesson-days written. */
+    int rebuildLearnerSketches();
+
+    /** Creates the new user's empty activity bitmap, so later activity only ever updates an existing row. */
+    void recordUserRegistered(UUID userId, LocalDate day);
+
+    /** Marks {@code day} in the user's activity bitmap; a no-op if the day is already marked. */
+    void recordUserActive(UUID userId, LocalDate day);
+
+    /**
+     * Weekly cohort retention for the last {@code weeks} registration weeks: for each cohort, the share
+     * of its users active in each later week, computed from the activity bitmaps alone.
+     */
+    Map<String, Object> getCohortRetention(int weeks);
+
+    /** Recomputes every activity bitmap from quiz attempts, lesson starts, quest completions and forum posts; returns the number of users written. */
+    int rebuildUserActivity();
+}
@@ -0,0 +1,23 @@
+package com.genbridge.backend.services;
+
+import com.genbridge.backend.export.ExportDataset;
+import com.genbridge.backend.export.ExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+
+/**
+ * Service interface for raw data exports.
+ * Rows are streamed from a database cursor straight to the output, so memory use does not grow
+ * with the size of the table.
+ */
+public interface ExportService {
+
+    /**
+     * Writes every row of {@code dataset} whose timestamp falls between {@code from} and {@code to}
+     * (inclusive days; either may be null for an open end) to {@code out}, ordered by id.
+     * Returns the number of rows written.
+     */
+    long export(ExportDataset dataset, ExportFormat format, LocalDate from, LocalDate to, OutputStream out) throws IOException;
+}
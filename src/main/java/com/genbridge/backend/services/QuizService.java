@@ -1,5 +1,6 @@
 package com.genbridge.backend.services;
 
+import com.genbridge.backend.dto.BatchAnswerRequest;
 import com.genbridge.backend.dto.CreateQuizQuestionRequest;
 import com.genbridge.backend.dto.SubmitQuizRequest;
 import com.genbridge.backend.entity.QuizQuestion;
@@ -16,4 +17,5 @@ public interface QuizService {
     QuizQuestion updateQuizQuestion(Long lessonId, Long questionId, CreateQuizQuestionRequest request);
     void deleteQuizQuestion(Long lessonId, Long questionId);
     Map<String, Object> answerQuestion(Long lessonId, Long questionId, Integer selectedIndex, User user);
+    Map<String, Object> answerQuestions(Long lessonId, List<BatchAnswerRequest.Answer> answers, User user);
 }
@@ -0,0 +1,23 @@
+package com.genbridge.backend.services;
+
+/**
+ * Single source of truth for how much XP each activity is worth.
+ * Lessons award XP by difficulty; every completed quest awards a flat amount.
+ */
+public final class XpRules {
+
+    public static final int BEGINNER_LESSON_XP = 10;
+    public static final int INTERMEDIATE_LESSON_XP = 15;
+    public static final int ADVANCED_LESSON_XP = 20;
+    public static final int QUEST_XP = 15;
+
+    private XpRules() {
+    }
+
+    /** Returns the XP for completing a lesson of the given difficulty; unknown or missing difficulty counts as beginner. */
+    public static int lessonXp(String difficulty) {
+        if ("INTERMEDIATE".equalsIgnoreCase(difficulty)) return INTERMEDIATE_LESSON_XP;
+        if ("ADVANCED".equalsIgnoreCase(difficulty)) return ADVANCED_LESSON_XP;
+        return BEGINNER_LESSON_XP;
+    }
+}
@@ -0,0 +1,19 @@
+package com.genbridge.backend.services;
+
+import com.genbridge.backend.entity.UserXp;
+import com.genbridge.backend.leaderboard.LeaderboardEntry;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/** Maintains the per-user XP ledger and daily XP buckets as lessons and quests are completed. */
+public interface XpService {
+    void recordLessonCompletion(UUID userId, Long lessonId, LocalDateTime completedAt);
+    void revokeLessonCompletion(UUID userId, Long lessonId, LocalDateTime completedAt);
+    void recordQuestCompletion(UUID userId, LocalDateTime completedAt);
+    UserXp getXp(UUID userId);
+    List<LeaderboardEntry> getTopSince(LocalDate from, int limit);
+    int rebuildLedger();
+}
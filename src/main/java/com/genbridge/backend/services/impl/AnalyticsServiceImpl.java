@@ -0,0 +1,664 @@
+package com.genbridge.backend.services.impl;
+
+import com.genbridge.backend.analytics.ActivityBitmap;
+import com.genbridge.backend.analytics.ActivityMetric;
+import com.genbridge.backend.analytics.CompletionTimeHistogram;
+import com.genbridge.backend.analytics.HyperLogLog;
+import com.genbridge.backend.analytics.LearnerSketchBuffer;
+import com.genbridge.backend.analytics.LearnerSketchKey;
+import com.genbridge.backend.analytics.TimeseriesGranularity;
+import com.genbridge.backend.entity.DailyActivity;
+import com.genbridge.backend.entity.Lesson;
+import com.genbridge.backend.entity.LessonCompletionTime;
+import com.genbridge.backend.entity.LessonLearnerSketch;
+import com.genbridge.backend.entity.LessonStats;
+import com.genbridge.backend.entity.QuestionStats;
+import com.genbridge.backend.entity.QuizQuestion;
+import com.genbridge.backend.entity.UserActivity;
+import com.genbridge.backend.repository.DailyActivityRepository;
+import com.genbridge.backend.repository.ForumPostRepository;
+import com.genbridge.backend.repository.LessonCompletionTimeRepository;
+import com.genbridge.backend.repository.LessonLearnerSketchRepository;
+import com.genbridge.backend.repository.LessonProgressRepository;
+import com.genbridge.backend.repository.LessonRepository;
+import com.genbridge.backend.repository.LessonStatsRepository;
+import com.genbridge.backend.repository.QuestCompletionRepository;
+import com.genbridge.backend.repository.QuestionStatsRepository;
+import com.genbridge.backend.repository.QuizAttemptRepository;
+import com.genbridge.backend.repository.QuizQuestionRepository;
+import com.genbridge.backend.repository.UserActivityRepository;
+import com.genbridge.backend.services.AnalyticsService;
+import com.genbridge.backend.user.UserRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Implementation of {@link AnalyticsService}.
+ * Totals come from count queries and lesson stats from the rollup, so building the dashboard is a
+ * fixed number of indexed reads regardless of how much progress has been recorded. Time series read
+ * one {@code daily_activity} row per day and roll days up into weeks or months in memory. Question
+ * stats read one counter row per question. Distinct learners for any range merge one small sketch
+ * per lesson per day (plus any not yet flushed from {@link LearnerSketchBuffer}) instead of counting
+ * distinct users over {@code quiz_attempts}. Cohort retention reads one activity bitmap per user
+ * and tests each week with a bit probe instead of joining over activity history.
+ */
+@Service
+@Transactional
+public class AnalyticsServiceImpl implements AnalyticsService {
+
+    private static final String ADMIN_ROLE = "ADMIN";
+    private static final int MAX_TIMESERIES_DAYS = 3 * 366;
+    private static final int DEFAULT_TIMESERIES_DAYS = 30;
+    private static final int MAX_RETENTION_WEEKS = 52;
+
+    private final UserRepository userRepository;
+    private final LessonRepository lessonRepository;
+    private final LessonStatsRepository lessonStatsRepository;
+    private final LessonProgressRepository lessonProgressRepository;
+    private final QuestCompletionRepository questCompletionRepository;
+    private final ForumPostRepository forumPostRepository;
+    private final QuizAttemptRepository quizAttemptRepository;
+    private final DailyActivityRepository dailyActivityRepository;
+    private final QuizQuestionRepository quizQuestionRepository;
+    private final QuestionStatsRepository questionStatsRepository;
+    private final LessonLearnerSketchRepository lessonLearnerSketchRepository;
+    private final LearnerSketchBuffer learnerSketchBuffer;
+    private final LessonCompletionTimeRepository lessonCompletionTimeRepository;
+    private final UserActivityRepository userActivityRepository;
+
+    public AnalyticsServiceImpl(UserRepository userRepository,
+                                LessonRepository lessonRepository,
+                                LessonStatsRepository lessonStatsRepository,
+                                LessonProgressRepository lessonProgressRepository,
+                                QuestCompletionRepository questCompletionRepository,
+                                ForumPostRepository forumPostRepository,
+                                QuizAttemptRepository quizAttemptRepository,
+                                DailyActivityRepository dailyActivityRepository,
+                                QuizQuestionRepository quizQuestionRepository,
+                                QuestionStatsRepository questionStatsRepository,
+                                LessonLearnerSketchRepository lessonLearnerSketchRepository,
+                                LearnerSketchBuffer learnerSketchBuffer,
+                                LessonCompletionTimeRepository lessonCompletionTimeRepository,
+                                UserActivityRepository userActivityRepository) {
+        this.userRepository = userRepository;
+        this.lessonRepository = lessonRepository;
+        this.lessonStatsRepository = lessonStatsRepository;
+        this.lessonProgressRepository = lessonProgressRepository;
+        this.questCompletionRepository = questCompletionRepository;
+        this.forumPostRepository = forumPostRepository;
+        this.quizAttemptRepository = quizAttemptRepository;
+        this.dailyActivityRepository = dailyActivityRepository;
+        this.quizQuestionRepository = quizQuestionRepository;
+        this.questionStatsRepository = questionStatsRepository;
+        this.lessonLearnerSketchRepository = lessonLearnerSketchRepository;
+        this.learnerSketchBuffer = learnerSketchBuffer;
+        this.lessonCompletionTimeRepository = lessonCompletionTimeRepository;
+        this.userActivityRepository = userActivityRepository;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, Object> getAnalytics() {
+        long totalUsers = userRepository.countByRoleNot(ADMIN_ROLE);
+
+        List<Lesson> publishedLessons = lessonRepository.findByPublishedTrue();
+        Map<Long, LessonStats> statsByLesson = lessonStatsRepository
+                .findAllById(publishedLessons.stream().map(Lesson::getId).toList())
+                .stream()
+                .collect(Collectors.toMap(LessonStats::getLessonId, Function.identity()));
+
+        List<Map<String, Object>> lessonStats = publishedLessons.stream()
+                .map(lesson -> {
+                    LessonStats stats = statsByLesson.getOrDefault(lesson.getId(), new LessonStats(lesson.getId()));
+                    long completions = stats.getCompletedCount();
+                    double rate = totalUsers == 0 ? 0 : Math.round((completions * 100.0 / totalUsers) * 10) / 10.0;
+                    Map<String, Object> stat = new HashMap<>();
+                    stat.put("lessonId", lesson.getId());
+                    stat.put("title", lesson.getTitle());
+                    stat.put("difficulty", lesson.getDifficulty());
+                    stat.put("starts", stats.getStartedCount());
+                    stat.put("completions", completions);
+                    stat.put("completionRate", rate);
+                    return stat;
+                })
+                .sorted((a, b) -> Long.compare((long) b.get("completions"), (long) a.get("completions")))
+                .collect(Collectors.toList());
+
+        Map<String, Object> analytics = new HashMap<>();
+        analytics.put("totalUsers", totalUsers);
+        analytics.put("activeUsers", userRepository.countByRoleNotAndCurrentStreakGreaterThan(ADMIN_ROLE, 0));
+        analytics.put("suspendedUsers", userRepository.countByRoleNotAndSuspendedTrue(ADMIN_ROLE));
+        analytics.put("totalLessons", lessonRepository.count());
+        analytics.put("publishedLessons", (long) publishedLessons.size());
+        analytics.put("totalQuestCompletions", questCompletionRepository.count());
+        analytics.put("totalForumPosts", forumPostRepository.count());
+        analytics.put("lessonStats", lessonStats);
+        return analytics;
+    }
+
+    @Override
+    public void recordLessonStarted(Long lessonId) {
+        increment(lessonId, 1, 0, 0);
+    }
+
+    @Override
+    public void recordLessonAttempted(Long lessonId) {
+        increment(lessonId, 0, 1, 0);
+    }
+
+    @Override
+    public void recordLessonCompletionChange(Long lessonId, int delta) {
+        increment(lessonId, 0, 0, delta);
+    }
+
+    @Override
+    public void recordTimeToComplete(Long lessonId, Duration timeToComplete, int delta) {
+        int bucket = CompletionTimeHistogram.bucketOf(timeToComplete);
+        if (delta <= 0 || lessonCompletionTimeRepository.insertIfAbsent(lessonId, bucket, delta) == 0) {
+            lessonCompletionTimeRepository.increment(lessonId, bucket, delta);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getFunnel(Long lessonId) {
+        List<Lesson> lessons = lessonId == null
+                ? lessonRepository.findByPublishedTrue()
+                : List.of(lessonRepository.findById(lessonId)
+                        .orElseThrow(() -> new IllegalArgumentException("Lesson not found")));
+        List<Long> lessonIds = lessons.stream().map(Lesson::getId).toList();
+        Map<Long, LessonStats> statsByLesson = lessonStatsRepository.findAllById(lessonIds).stream()
+                .collect(Collectors.toMap(LessonStats::getLessonId, Function.identity()));
+        Map<Long, SortedMap<Integer, Long>> timesByLesson = new HashMap<>();
+        for (LessonCompletionTime row : lessonCompletionTimeRepository.findByLessonIdIn(lessonIds)) {
+            timesByLesson.computeIfAbsent(row.getLessonId(), id -> new TreeMap<>()).put(row.getBucket(), row.getLearners());
+        }
+
+        List<Map<String, Object>> funnel = new ArrayList<>();
+        for (Lesson lesson : lessons) {
+            LessonStats stats = statsByLesson.getOrDefault(lesson.getId(), new LessonStats(lesson.getId()));
+            SortedMap<Integer, Long> times = timesByLesson.getOrDefault(lesson.getId(), new TreeMap<>());
+            Map<String, Object> view = new HashMap<>();
+            view.put("lessonId", lesson.getId());
+            view.put("title", lesson.getTitle());
+            view.put("started", stats.getStartedCount());
+            view.put("attempted", stats.getAttemptedCount());
+            view.put("completed", stats.getCompletedCount());
+            view.put("attemptRate", percent(stats.getAttemptedCount(), stats.getStartedCount()));
+            view.put("completionRate", percent(stats.getCompletedCount(), stats.getAttemptedCount()));
+            view.put("droppedBeforeAttempt", Math.max(0, stats.getStartedCount() - stats.getAttemptedCount()));
+            view.put("droppedBeforeCompletion", Math.max(0, stats.getAttemptedCount() - stats.getCompletedCount()));
+            view.put("medianSecondsToComplete", CompletionTimeHistogram.quantileSeconds(times, 0.5));
+            view.put("p90SecondsToComplete", CompletionTimeHistogram.quantileSeconds(times, 0.9));
+            funnel.add(view);
+        }
+        return funnel;
+    }
+
+    @Override
+    public int reconcileLessonStats() {
+        Map<Long, LessonStats> rollup = new HashMap<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (Lesson lesson : lessonRepository.findAll()) {
+            rollup.put(lesson.getId(), new LessonStats(lesson.getId()));
+        }
+        lessonProgressRepository.backfillFirstAttemptedAt();
+        for (Object[] row : lessonProgressRepository.countFunnelStagesByLesson()) {
+            LessonStats stats = rollup.get((Long) row[0]);
+            if (stats == null) {
+                continue; // Progress left behind by a deleted lesson
+            }
+            stats.setStartedCount(((Number) row[1]).longValue());
+            stats.setAttemptedCount(((Number) row[2]).longValue());
+            stats.setCompletedCount(row[3] == null ? 0 : ((Number) row[3]).longValue());
+        }
+        rollup.values().forEach(stats -> stats.setUpdatedAt(now));
+
+        lessonStatsRepository.deleteAllInBatch();
+        lessonStatsRepository.saveAll(new ArrayList<>(rollup.values()));
+        rebuildCompletionTimes(rollup.keySet());
+        return rollup.size();
+    }
+
+    @Override
+    public void recordActivity(ActivityMetric metric, LocalDate day, int delta) {
+        // Deltas in column order: active users, quiz attempts, lesson completions, quest completions, forum posts
+        long[] deltas = switch (metric) {
+            case ACTIVE_USERS -> new long[]{delta, 0, 0, 0, 0};
+            case QUIZ_ATTEMPTS -> new long[]{0, delta, 0, 0, 0};
+            case LESSON_COMPLETIONS -> new long[]{0, 0, delta, 0, 0};
+            case QUEST_COMPLETIONS -> new long[]{0, 0, 0, delta, 0};
+            case FORUM_POSTS -> new long[]{0, 0, 0, 0, delta};
+        };
+        if (dailyActivityRepository.insertIfAbsent(day, Math.max(0, deltas[0]), Math.max(0, deltas[1]),
+                Math.max(0, deltas[2]), Math.max(0, deltas[3]), Math.max(0, deltas[4])) == 0) {
+            dailyActivityRepository.increment(day, deltas[0], deltas[1], deltas[2], deltas[3], deltas[4]);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, Object> getTimeseries(LocalDate from, LocalDate to, TimeseriesGranularity granularity) {
+        LocalDate end = to == null ? LocalDate.now() : to;
+        LocalDate start = from == null ? end.minusDays(DEFAULT_TIMESERIES_DAYS - 1) : from;
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        if (ChronoUnit.DAYS.between(start, end) >= MAX_TIMESERIES_DAYS) {
+            throw new IllegalArgumentException("Range must not exceed " + MAX_TIMESERIES_DAYS + " days");
+        }
+
+        Map<LocalDate, DailyActivity> byDay = new HashMap<>();
+        dailyActivityRepository.findByActivityDateBetweenOrderByActivityDateAsc(start, end)
+                .forEach(activity -> byDay.put(activity.getActivityDate(), activity));
+
+        // Walk every day so gaps show up as zeros, folding days into their week or month
+        Map<LocalDate, DailyActivity> buckets = new LinkedHashMap<>();
+        Map<LocalDate, Integer> daysPerBucket = new HashMap<>();
+        for (LocalDate day = start; !day.isAfter(end); day = day.plusDays(1)) {
+            LocalDate bucketStart = granularity.bucketStart(day);
+            DailyActivity bucket = buckets.computeIfAbsent(bucketStart, DailyActivity::new);
+            daysPerBucket.merge(bucketStart, 1, Integer::sum);
+            DailyActivity activity = byDay.get(day);
+            if (activity != null) {
+                bucket.setActiveUsers(bucket.getActiveUsers() + activity.getActiveUsers());
+                bucket.setQuizAttempts(bucket.getQuizAttempts() + activity.getQuizAttempts());
+                bucket.setLessonCompletions(bucket.getLessonCompletions() + activity.getLessonCompletions());
+                bucket.setQuestCompletions(bucket.getQuestCompletions() + activity.getQuestCompletions());
+                bucket.setForumPosts(bucket.getForumPosts() + activity.getForumPosts());
+            }
+        }
+
+        List<Map<String, Object>> points = new ArrayList<>();
+        buckets.forEach((bucketStart, bucket) -> {
+            int days = daysPerBucket.get(bucketStart);
+            Map<String, Object> point = new HashMap<>();
+            point.put("date", bucketStart);
+            // Daily actives cannot be summed into distinct weekly/monthly users, so coarser points report the daily average
+            point.put("activeUsers", granularity == TimeseriesGranularity.DAY
+                    ? bucket.getActiveUsers()
+                    : Math.round(bucket.getActiveUsers() * 10.0 / days) / 10.0);
+            point.put("quizAttempts", bucket.getQuizAttempts());
+            point.put("lessonCompletions", bucket.getLessonCompletions());
+            point.put("questCompletions", bucket.getQuestCompletions());
+            point.put("forumPosts", bucket.getForumPosts());
+            points.add(point);
+        });
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("from", start);
+        response.put("to", end);
+        response.put("granularity", granularity.name());
+        response.put("points", points);
+        return response;
+    }
+
+    @Override
+    public int rebuildDailyActivity() {
+        Map<LocalDate, DailyActivity> days = new HashMap<>();
+        BiConsumer<List<Object[]>, ActivityMetric> fold = (rows, metric) -> {
+            for (Object[] row : rows) {
+                addTo(days.computeIfAbsent((LocalDate) row[0], DailyActivity::new), metric, ((Number) row[1]).longValue());
+            }
+        };
+
+        // Streaks are only updated by quiz activity, so distinct quiz takers per day is the historical DAU
+        for (Object[] row : quizAttemptRepository.countAttemptsAndUsersByDay()) {
+            DailyActivity activity = days.computeIfAbsent((LocalDate) row[0], DailyActivity::new);
+            activity.setQuizAttempts(((Number) row[1]).longValue());
+            activity.setActiveUsers(((Number) row[2]).longValue());
+        }
+        fold.accept(lessonProgressRepository.countCompletionsByDay(), ActivityMetric.LESSON_COMPLETIONS);
+        fold.accept(questCompletionRepository.countCompletionsByDay(), ActivityMetric.QUEST_COMPLETIONS);
+        fold.accept(forumPostRepository.countPostsByDay(), ActivityMetric.FORUM_POSTS);
+
+        dailyActivityRepository.deleteAllInBatch();
+        dailyActivityRepository.saveAll(new ArrayList<>(days.values()));
+        return days.size();
+    }
+
+    @Override
+    public void recordAnswer(Long questionId, Long lessonId, Integer selectedIndex, boolean correct) {
+        long[] options = new long[4];
+        if (selectedIndex != null && selectedIndex >= 0 && selectedIndex < options.length) {
+            options[selectedIndex] = 1;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        long correctDelta = correct ? 1 : 0;
+        if (questionStatsRepository.insertIfAbsent(questionId, lessonId, correctDelta,
+                options[0], options[1], options[2], options[3], now) == 0) {
+            questionStatsRepository.recordAnswer(questionId, correctDelta,
+                    options[0], options[1], options[2], options[3], now);
+        }
+    }
+
+    @Override
+    public void resetQuestionStats(Long questionId) {
+        if (questionStatsRepository.existsById(questionId)) {
+            questionStatsRepository.deleteById(questionId);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getQuestionStats(Long lessonId) {
+        List<QuizQuestion> questions = lessonId == null
+                ? quizQuestionRepository.findAll()
+                : quizQuestionRepository.findByLessonIdOrderByIdAsc(lessonId);
+        Map<Long, QuestionStats> statsByQuestion = (lessonId == null
+                ? questionStatsRepository.findAll()
+                : questionStatsRepository.findByLessonId(lessonId))
+                .stream()
+                .collect(Collectors.toMap(QuestionStats::getQuestionId, Function.identity()));
+
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (QuizQuestion question : questions) {
+            QuestionStats stats = statsByQuestion.getOrDefault(question.getId(),
+                    new QuestionStats(question.getId(), question.getLessonId()));
+            long[] counts = stats.optionCounts();
+            String[] texts = {question.getOptionA(), question.getOptionB(), question.getOptionC(), question.getOptionD()};
+
+            List<Map<String, Object>> options = new ArrayList<>();
+            for (int i = 0; i < counts.length; i++) {
+                Map<String, Object> option = new HashMap<>();
+                option.put("index", i);
+                option.put("text", texts[i]);
+                option.put("count", counts[i]);
+                option.put("percent", percent(counts[i], stats.getAttempts()));
+                options.add(option);
+            }
+
+            Map<String, Object> view = new HashMap<>();
+            view.put("questionId", question.getId());
+            view.put("lessonId", question.getLessonId());
+            view.put("questionText", question.getQuestionText());
+            view.put("correctIndex", question.getCorrectIndex());
+            view.put("attempts", stats.getAttempts());
+            view.put("correct", stats.getCorrectCount());
+            view.put("percentCorrect", percent(stats.getCorrectCount(), stats.getAttempts()));
+            view.put("options", options);
+            result.add(view);
+        }
+        return result;
+    }
+
+    @Override
+    public void recordLessonLearner(Long lessonId, UUID userId, LocalDate day) {
+        learnerSketchBuffer.offer(lessonId, day, userId);
+    }
+
+    @Override
+    public int mergeLearnerSketches(Map<LearnerSketchKey, HyperLogLog> sketches) {
+        LocalDateTime now = LocalDateTime.now();
+        sketches.forEach((key, sketch) -> {
+            LessonLearnerSketch stored = lessonLearnerSketchRepository
+                    .findByLessonIdAndActivityDate(key.lessonId(), key.day())
+                    .orElseGet(() -> new LessonLearnerSketch(key.lessonId(), key.day()));
+            HyperLogLog merged = sketch.copy();
+            if (stored.getRegisters() != null) {
+                merged.merge(HyperLogLog.fromBytes(stored.getRegisters()));
+            }
+            stored.setRegisters(merged.toBytes());
+            stored.setUpdatedAt(now);
+            lessonLearnerSketchRepository.save(stored);
+        });
+        return sketches.size();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, Object> getDistinctLearners(Long lessonId, LocalDate from, LocalDate to) {
+        LocalDate end = to == null ? LocalDate.now() : to;
+        LocalDate start = from == null ? end.minusDays(DEFAULT_TIMESERIES_DAYS - 1) : from;
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        if (ChronoUnit.DAYS.between(start, end) >= MAX_TIMESERIES_DAYS) {
+            throw new IllegalArgumentException("Range must not exceed " + MAX_TIMESERIES_DAYS + " days");
+        }
+
+        Map<Long, HyperLogLog> byLesson = new HashMap<>();
+        if (lessonId != null) {
+            byLesson.put(lessonId, new HyperLogLog());
+        }
+        List<LessonLearnerSketch> stored = lessonId == null
+                ? lessonLearnerSketchRepository.findByActivityDateBetween(start, end)
+                : lessonLearnerSketchRepository.findByLessonIdAndActivityDateBetween(lessonId, start, end);
+        for (LessonLearnerSketch sketch : stored) {
+            byLesson.computeIfAbsent(sketch.getLessonId(), id -> new HyperLogLog())
+                    .merge(HyperLogLog.fromBytes(sketch.getRegisters()));
+        }
+        learnerSketchBuffer.snapshot().forEach((key, sketch) -> {
+            boolean inRange = !key.day().isBefore(start) && !key.day().isAfter(end);
+            if (inRange && (lessonId == null || lessonId.equals(key.lessonId()))) {
+                byLesson.computeIfAbsent(key.lessonId(), id -> new HyperLogLog()).merge(sketch);
+            }
+        });
+
+        Map<Long, String> titles = lessonRepository.findAllById(byLesson.keySet()).stream()
+                .collect(Collectors.toMap(Lesson::getId, Lesson::getTitle));
+        List<Map<String, Object>> lessons = new ArrayList<>();
+        byLesson.forEach((id, sketch) -> {
+            Map<String, Object> lesson = new HashMap<>();
+            lesson.put("lessonId", id);
+            lesson.put("title", titles.get(id));
+            lesson.put("distinctLearners", sketch.estimate());
+            lessons.add(lesson);
+        });
+        lessons.sort((a, b) -> Long.compare((long) b.get("distinctLearners"), (long) a.get("distinctLearners")));
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("from", start);
+        response.put("to", end);
+        response.put("relativeError", Math.round(HyperLogLog.RELATIVE_ERROR * 1000) / 1000.0);
+        response.put("lessons", lessons);
+        return response;
+    }
+
+    @Override
+    public int rebuildLearnerSketches() {
+        Map<LearnerSketchKey, HyperLogLog> sketches = new HashMap<>();
+        for (Object[] row : quizAttemptRepository.findDistinctLessonLearnerDays()) {
+            sketches.computeIfAbsent(new LearnerSketchKey((Long) row[0], (LocalDate) row[1]), key -> new HyperLogLog())
+                    .add((UUID) row[2]);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<LessonLearnerSketch> rows = new ArrayList<>();
+        sketches.forEach((key, sketch) -> {
+            LessonLearnerSketch row = new LessonLearnerSketch(key.lessonId(), key.day());
+            row.setRegisters(sketch.toBytes());
+            row.setUpdatedAt(now);
+            rows.add(row);
+        });
+        // Buffered sketches are left alone: merging them later cannot count a learner twice
+        lessonLearnerSketchRepository.deleteAllInBatch();
+        lessonLearnerSketchRepository.saveAll(rows);
+        return rows.size();
+    }
+
+    @Override
+    public void recordUserRegistered(UUID userId, LocalDate day) {
+        UserActivity activity = new UserActivity(userId);
+        activity.setOriginDate(day);
+        activity.setDays(ActivityBitmap.startingAt(day).toBytes());
+        activity.setUpdatedAt(LocalDateTime.now());
+        userActivityRepository.save(activity);
+    }
+
+    @Override
+    public void recordUserActive(UUID userId, LocalDate day) {
+        UserActivity activity = userActivityRepository.findForUpdate(userId).orElse(null);
+        ActivityBitmap bitmap = activity == null
+                ? ActivityBitmap.startingAt(day)
+                : ActivityBitmap.of(activity.getOriginDate(), activity.getDays());
+        if (!bitmap.mark(day) && activity != null) {
+            return; // Already counted today — nothing to write
+        }
+        if (activity == null) {
+            activity = new UserActivity(userId);
+        }
+        activity.setOriginDate(bitmap.origin());
+        activity.setDays(bitmap.toBytes());
+        activity.setUpdatedAt(LocalDateTime.now());
+        userActivityRepository.save(activity);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, Object> getCohortRetention(int weeks) {
+        if (weeks < 1 || weeks > MAX_RETENTION_WEEKS) {
+            throw new IllegalArgumentException("weeks must be between 1 and " + MAX_RETENTION_WEEKS);
+        }
+        LocalDate currentWeek = LocalDate.now().with(DayOfWeek.MONDAY);
+        LocalDate firstCohort = currentWeek.minusWeeks(weeks - 1);
+
+        Map<UUID, LocalDate> registeredOn = new HashMap<>();
+        for (Object[] row : userRepository.findLearnerRegistrations()) {
+            registeredOn.put((UUID) row[0], row[1] == null ? null : ((LocalDateTime) row[1]).toLocalDate());
+        }
+        Map<UUID, ActivityBitmap> bitmaps = new HashMap<>();
+        for (UserActivity activity : userActivityRepository.findAllById(registeredOn.keySet())) {
+            bitmaps.put(activity.getUserId(), ActivityBitmap.of(activity.getOriginDate(), activity.getDays()));
+        }
+
+        long[] sizes = new long[weeks];
+        long[][] active = new long[weeks][weeks];
+        registeredOn.forEach((userId, registered) -> {
+            ActivityBitmap bitmap = bitmaps.get(userId);
+            // Accounts older than the registration timestamp join the cohort of their first active day
+            LocalDate joined = registered != null ? registered : bitmap == null ? null : bitmap.firstActiveDay();
+            if (joined == null || joined.isBefore(firstCohort)) {
+                return;
+            }
+            LocalDate cohortWeek = joined.with(DayOfWeek.MONDAY);
+            int cohort = (int) ChronoUnit.WEEKS.between(firstCohort, cohortWeek);
+            sizes[cohort]++;
+            if (bitmap == null) {
+                return;
+            }
+            for (int week = 0; cohort + week < weeks; week++) {
+                LocalDate weekStart = cohortWeek.plusWeeks(week);
+                if (bitmap.isActiveBetween(weekStart, weekStart.plusWeeks(1))) {
+                    active[cohort][week]++;
+                }
+            }
+        });
+
+        List<Map<String, Object>> cohorts = new ArrayList<>();
+        for (int cohort = 0; cohort < weeks; cohort++) {
+            List<Map<String, Object>> retention = new ArrayList<>();
+            for (int week = 0; cohort + week < weeks; week++) {
+                Map<String, Object> cell = new HashMap<>();
+                cell.put("week", week);
+                cell.put("active", active[cohort][week]);
+                cell.put("rate", percent(active[cohort][week], sizes[cohort]));
+                retention.add(cell);
+            }
+            Map<String, Object> row = new HashMap<>();
+            row.put("cohortStart", firstCohort.plusWeeks(cohort));
+            row.put("size", sizes[cohort]);
+            row.put("retention", retention);
+            cohorts.add(row);
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("weeks", weeks);
+        response.put("cohorts", cohorts);
+        return response;
+    }
+
+    @Override
+    public int rebuildUserActivity() {
+        Map<UUID, ActivityBitmap> bitmaps = new HashMap<>();
+        BiConsumer<UUID, LocalDate> mark = (userId, day) -> bitmaps
+                .computeIfAbsent(userId, id -> ActivityBitmap.startingAt(day))
+                .mark(day);
+        for (List<Object[]> rows : List.of(
+                quizAttemptRepository.findDistinctUserDays(),
+                lessonProgressRepository.findDistinctUserStartDays(),
+                questCompletionRepository.findDistinctUserDays(),
+                forumPostRepository.findDistinctUserDays())) {
+            rows.forEach(row -> mark.accept((UUID) row[0], (LocalDate) row[1]));
+        }
+        for (Object[] row : userRepository.findLearnerRegistrations()) {
+            if (row[2] != null) {
+                mark.accept((UUID) row[0], (LocalDate) row[2]);
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<UserActivity> rows = new ArrayList<>();
+        bitmaps.forEach((userId, bitmap) -> {
+            UserActivity activity = new UserActivity(userId);
+            activity.setOriginDate(bitmap.origin());
+            activity.setDays(bitmap.toBytes());
+            activity.setUpdatedAt(now);
+            rows.add(activity);
+        });
+        userActivityRepository.deleteAllInBatch();
+        userActivityRepository.saveAll(rows);
+        return rows.size();
+    }
+
+    private static double percent(long part, long whole) {
+        return whole == 0 ? 0 : Math.round(part * 1000.0 / whole) / 10.0;
+    }
+
+    private static void addTo(DailyActivity activity, ActivityMetric metric, long delta) {
+        switch (metric) {
+            case ACTIVE_USERS -> activity.setActiveUsers(activity.getActiveUsers() + delta);
+            case QUIZ_ATTEMPTS -> activity.setQuizAttempts(activity.getQuizAttempts() + delta);
+            case LESSON_COMPLETIONS -> activity.setLessonCompletions(activity.getLessonCompletions() + delta);
+            case QUEST_COMPLETIONS -> activity.setQuestCompletions(activity.getQuestCompletions() + delta);
+            case FORUM_POSTS -> activity.setForumPosts(activity.getForumPosts() + delta);
+        }
+    }
+
+    /** Recomputes the time-to-complete buckets of the given lessons from their completed progress. */
+    private void rebuildCompletionTimes(Set<Long> lessonIds) {
+        Map<String, LessonCompletionTime> buckets = new HashMap<>();
+        for (Object[] row : lessonProgressRepository.findCompletionDurations()) {
+            Long lessonId = (Long) row[0];
+            if (!lessonIds.contains(lessonId)) {
+                continue;
+            }
+            int bucket = CompletionTimeHistogram.bucketOf(Duration.between((LocalDateTime) row[1], (LocalDateTime) row[2]));
+            LessonCompletionTime time = buckets.computeIfAbsent(lessonId + "/" + bucket,
+                    key -> new LessonCompletionTime(lessonId, bucket));
+            time.setLearners(time.getLearners() + 1);
+        }
+        lessonCompletionTimeRepository.deleteAllInBatch();
+        lessonCompletionTimeRepository.saveAll(new ArrayList<>(buckets.values()));
+    }
+
+    /**
+     * Creates the lesson's row on first use, otherwise applies the deltas in place. Neither statement
+     * can fail on a concurrent first write, so this bookkeeping never rolls back the caller's transaction.
+     */
+    private void increment(Long lessonId, long startedDelta, long attemptedDelta, long completedDelta) {
+        LocalDateTime now = LocalDateTime.now();
+        if (lessonStatsRepository.insertIfAbsent(lessonId, Math.max(0, startedDelta), Math.max(0, attemptedDelta),
+                Math.max(0, completedDelta), now) == 0) {
+            lessonStatsRepository.increment(lessonId, startedDelta, attemptedDelta, completedDelta, now);
+        }
+    }
+}
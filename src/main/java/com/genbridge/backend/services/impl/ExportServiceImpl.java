@@ -0,0 +1,109 @@
+package com.genbridge.backend.services.impl;
+
+import com.genbridge.backend.export.ExportDataset;
+import com.genbridge.backend.export.ExportFormat;
+import com.genbridge.backend.services.ExportService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Implementation of {@link ExportService}.
+ * Reads with plain JDBC rather than repositories so rows are never turned into managed entities:
+ * the statement is forward-only with a fetch size of {@code export.fetch-size}, which makes the
+ * PostgreSQL driver page through a server-side cursor instead of loading the whole result. That
+ * only happens inside a transaction, hence the read-only transaction around the export.
+ */
+@Service
+public class ExportServiceImpl implements ExportService {
+
+    private static final int WRITE_BUFFER_CHARS = 64 * 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int fetchSize;
+
+    public ExportServiceImpl(DataSource dataSource, @Value("${export.fetch-size:500}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.fetchSize = fetchSize;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long export(ExportDataset dataset, ExportFormat format, LocalDate from, LocalDate to, OutputStream out) throws IOException {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+
+        List<String> columns = dataset.columns();
+        StringBuilder sql = new StringBuilder("select ")
+                .append(String.join(", ", columns))
+                .append(" from ").append(dataset.table())
+                .append(" where 1 = 1");
+        List<Timestamp> params = new ArrayList<>();
+        if (from != null) {
+            sql.append(" and ").append(dataset.timeColumn()).append(" >= ?");
+            params.add(Timestamp.valueOf(from.atStartOfDay()));
+        }
+        if (to != null) {
+            sql.append(" and ").append(dataset.timeColumn()).append(" < ?");
+            params.add(Timestamp.valueOf(to.plusDays(1).atStartOfDay()));
+        }
+        sql.append(" order by id");
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER_CHARS);
+        format.writeHeader(columns, writer);
+        long[] rows = {0};
+        try {
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(sql.toString(),
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(fetchSize);
+                for (int i = 0; i < params.size(); i++) {
+                    statement.setTimestamp(i + 1, params.get(i));
+                }
+                return statement;
+            }, (ResultSet rs) -> {
+                Object[] values = new Object[columns.size()];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = readValue(rs, i + 1);
+                }
+                try {
+                    format.writeRow(columns, values, writer);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                rows[0]++;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause(); // Client went away — abandon the cursor
+        }
+        writer.flush();
+        return rows[0];
+    }
+
+    /** Reads a column, turning SQL timestamps into ISO-8601 local date-times. */
+    private static Object readValue(ResultSet rs, int index) throws SQLException {
+        Object value = rs.getObject(index);
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime();
+        }
+        return value;
+    }
+}
@@ -1,9 +1,11 @@
 package com.genbridge.backend.services.impl;
 
+import com.genbridge.backend.analytics.ActivityMetric;
 import com.genbridge.backend.entity.ForumComment;
 import com.genbridge.backend.entity.ForumPost;
 import com.genbridge.backend.repository.ForumCommentRepository;
 import com.genbridge.backend.repository.ForumPostRepository;
+import com.genbridge.backend.services.AnalyticsService;
 import com.genbridge.backend.services.ForumService;
 import com.genbridge.backend.user.User;
 import org.springframework.http.HttpStatus;
@@ -27,10 +29,13 @@ public class ForumServiceImpl implements ForumService {
 
     private final ForumPostRepository postRepository;
     private final ForumCommentRepository commentRepository;
+    private final AnalyticsService analyticsService;
 
-    public ForumServiceImpl(ForumPostRepository postRepository, ForumCommentRepository commentRepository) {
+    public ForumServiceImpl(ForumPostRepository postRepository, ForumCommentRepository commentRepository,
+                            AnalyticsService analyticsService) {
         this.postRepository = postRepository;
         this.commentRepository = commentRepository;
+        this.analyticsService = analyticsService;
     }
 
     @Override
@@ -48,7 +53,10 @@ public class ForumServiceImpl implements ForumService {
         post.setUserName(user.getName() != null ? user.getName() : user.getEmail());
         post.setTitle(title);
         post.setBody(body);
-        return postRepository.save(post);
+        ForumPost saved = postRepository.save(post);
+        analyticsService.recordActivity(ActivityMetric.FORUM_POSTS, saved.getCreatedAt().toLocalDate(), 1);
+        analyticsService.recordUserActive(user.getId(), saved.getCreatedAt().toLocalDate());
+        return saved;
     }
 
     @Override
@@ -2,8 +2,10 @@ package com.genbridge.backend.services.impl;
 
 import com.genbridge.backend.dto.LessonRequest;
 import com.genbridge.backend.entity.Lesson;
+import com.genbridge.backend.event.QuizChangedEvent;
 import com.genbridge.backend.repository.LessonRepository;
 import com.genbridge.backend.services.LessonService;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -22,9 +24,11 @@ import java.util.List;
 public class LessonServiceImpl implements LessonService {
 
     private final LessonRepository lessonRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public LessonServiceImpl(LessonRepository lessonRepository) {
+    public LessonServiceImpl(LessonRepository lessonRepository, ApplicationEventPublisher eventPublisher) {
         this.lessonRepository = lessonRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -82,5 +86,6 @@ public class LessonServiceImpl implements LessonService {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Lesson not found");
         }
         lessonRepository.deleteById(id);
+        eventPublisher.publishEvent(new QuizChangedEvent(id));
     }
 }
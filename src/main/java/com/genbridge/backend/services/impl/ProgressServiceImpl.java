@@ -3,11 +3,13 @@ package com.genbridge.backend.services.impl;
 import com.genbridge.backend.entity.LessonProgress;
 import com.genbridge.backend.repository.LessonProgressRepository;
 import com.genbridge.backend.repository.LessonRepository;
+import com.genbridge.backend.services.AnalyticsService;
 import com.genbridge.backend.services.ProgressService;
 import com.genbridge.backend.user.User;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
@@ -16,6 +18,7 @@ import java.util.Map;
 /**
  * Implementation of {@link ProgressService}.
  * Tracks lesson progress per user — records lesson start and aggregates overall completion stats.
+ * First starts are also counted in the per-lesson analytics rollup.
  */
 @Service
 @Transactional
@@ -23,11 +26,14 @@ public class ProgressServiceImpl implements ProgressService {
 
     private final LessonProgressRepository lessonProgressRepository;
     private final LessonRepository lessonRepository;
+    private final AnalyticsService analyticsService;
 
     public ProgressServiceImpl(LessonProgressRepository lessonProgressRepository,
-                                LessonRepository lessonRepository) {
+                                LessonRepository lessonRepository,
+                                AnalyticsService analyticsService) {
         this.lessonProgressRepository = lessonProgressRepository;
         this.lessonRepository = lessonRepository;
+        this.analyticsService = analyticsService;
     }
 
     @Override
@@ -36,12 +42,14 @@ public class ProgressServiceImpl implements ProgressService {
             throw new IllegalArgumentException("Lesson not found");
         }
 
+        analyticsService.recordUserActive(user.getId(), LocalDate.now());
         return lessonProgressRepository.findByUserIdAndLessonId(user.getId(), lessonId)
                 .orElseGet(() -> {
                     LessonProgress progress = new LessonProgress();
                     progress.setUserId(user.getId());
                     progress.setLessonId(lessonId);
                     progress.setStartedAt(LocalDateTime.now());
+                    analyticsService.recordLessonStarted(lessonId);
                     return lessonProgressRepository.save(progress);
                 });
     }
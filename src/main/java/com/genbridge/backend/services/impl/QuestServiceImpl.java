@@ -1,12 +1,15 @@
 package com.genbridge.backend.services.impl;
 
+import com.genbridge.backend.analytics.ActivityMetric;
 import com.genbridge.backend.dto.QuestCompletionRequest;
 import com.genbridge.backend.dto.QuestRequest;
 import com.genbridge.backend.entity.Quest;
 import com.genbridge.backend.entity.QuestCompletion;
 import com.genbridge.backend.repository.QuestCompletionRepository;
 import com.genbridge.backend.repository.QuestRepository;
+import com.genbridge.backend.services.AnalyticsService;
 import com.genbridge.backend.services.QuestService;
+import com.genbridge.backend.services.XpService;
 import com.genbridge.backend.user.User;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.Authentication;
@@ -29,11 +32,17 @@ public class QuestServiceImpl implements QuestService {
 
     private final QuestRepository questRepository;
     private final QuestCompletionRepository questCompletionRepository;
+    private final XpService xpService;
+    private final AnalyticsService analyticsService;
 
     public QuestServiceImpl(QuestRepository questRepository,
-                             QuestCompletionRepository questCompletionRepository) {
+                             QuestCompletionRepository questCompletionRepository,
+                             XpService xpService,
+                             AnalyticsService analyticsService) {
         this.questRepository = questRepository;
         this.questCompletionRepository = questCompletionRepository;
+        this.xpService = xpService;
+        this.analyticsService = analyticsService;
     }
 
     @Override
@@ -73,7 +82,11 @@ public class QuestServiceImpl implements QuestService {
         completion.setQuest(quest);
         completion.setUser(user);
         completion.setReflection(request.getReflection());
-        return questCompletionRepository.save(completion);
+        QuestCompletion saved = questCompletionRepository.save(completion);
+        xpService.recordQuestCompletion(user.getId(), saved.getCompletedAt());
+        analyticsService.recordActivity(ActivityMetric.QUEST_COMPLETIONS, saved.getCompletedAt().toLocalDate(), 1);
+        analyticsService.recordUserActive(user.getId(), saved.getCompletedAt().toLocalDate());
+        return saved;
     }
 
     @Override
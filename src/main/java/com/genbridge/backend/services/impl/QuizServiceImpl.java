@@ -1,29 +1,47 @@
 package com.genbridge.backend.services.impl;
 
+import com.genbridge.backend.analytics.ActivityMetric;
+import com.genbridge.backend.dto.BatchAnswerRequest;
 import com.genbridge.backend.dto.CreateQuizQuestionRequest;
 import com.genbridge.backend.dto.SubmitQuizRequest;
 import com.genbridge.backend.entity.LessonProgress;
 import com.genbridge.backend.entity.QuizAttempt;
 import com.genbridge.backend.entity.QuizQuestion;
+import com.genbridge.backend.event.QuizChangedEvent;
+import com.genbridge.backend.quiz.AnswerKey;
+import com.genbridge.backend.quiz.AnswerKeyCache;
+import com.genbridge.backend.quiz.QuizAttemptWriter;
 import com.genbridge.backend.repository.LessonProgressRepository;
 import com.genbridge.backend.repository.LessonRepository;
 import com.genbridge.backend.repository.QuizAttemptRepository;
 import com.genbridge.backend.repository.QuizQuestionRepository;
+import com.genbridge.backend.services.AnalyticsService;
 import com.genbridge.backend.services.QuizService;
+import com.genbridge.backend.services.XpService;
 import com.genbridge.backend.user.User;
 import com.genbridge.backend.user.UserService;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 
 /**
  * Implementation of {@link QuizService}.
  * Handles per-lesson quiz retrieval, answer grading, lesson completion tracking,
- * and streak updates after each submission.
+ * and streak updates after each submission. Answers are graded against the lesson's cached
+ * {@link AnswerKey}; every question change publishes a {@link QuizChangedEvent} to refresh it.
+ * Attempts are handed to {@link QuizAttemptWriter}, which inserts them after the request commits
+ * (or within it in synchronous mode).
  */
 @Service
 @Transactional
@@ -34,17 +52,32 @@ public class QuizServiceImpl implements QuizService {
     private final LessonProgressRepository lessonProgressRepository;
     private final LessonRepository lessonRepository;
     private final UserService userService;
+    private final XpService xpService;
+    private final AnalyticsService analyticsService;
+    private final AnswerKeyCache answerKeyCache;
+    private final QuizAttemptWriter quizAttemptWriter;
+    private final ApplicationEventPublisher eventPublisher;
 
     public QuizServiceImpl(QuizQuestionRepository quizQuestionRepository,
                             QuizAttemptRepository quizAttemptRepository,
                             LessonProgressRepository lessonProgressRepository,
                             LessonRepository lessonRepository,
-                            UserService userService) {
+                            UserService userService,
+                            XpService xpService,
+                            AnalyticsService analyticsService,
+                            AnswerKeyCache answerKeyCache,
+                            QuizAttemptWriter quizAttemptWriter,
+                            ApplicationEventPublisher eventPublisher) {
         this.quizQuestionRepository = quizQuestionRepository;
         this.quizAttemptRepository = quizAttemptRepository;
         this.lessonProgressRepository = lessonProgressRepository;
         this.lessonRepository = lessonRepository;
         this.userService = userService;
+        this.xpService = xpService;
+        this.analyticsService = analyticsService;
+        this.answerKeyCache = answerKeyCache;
+        this.quizAttemptWriter = quizAttemptWriter;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -72,7 +105,9 @@ public class QuizServiceImpl implements QuizService {
 
     @Override
     public QuizQuestion createQuizQuestion(Long lessonId, CreateQuizQuestionRequest request) {
-        ensureLessonExists(lessonId);
+        // Lock the lesson until commit so concurrent creates read the max ordinal one at a time
+        lessonRepository.findForUpdate(lessonId)
+                .orElseThrow(() -> new IllegalArgumentException("Lesson not found"));
         if (request.getOptions() == null || request.getOptions().size() != 4) {
             throw new IllegalArgumentException("Exactly 4 options are required");
         }
@@ -85,26 +120,31 @@ public class QuizServiceImpl implements QuizService {
         question.setOptionD(request.getOptions().get(3));
         question.setCorrectIndex(request.getCorrectIndex());
         question.setExplanation(request.getExplanation());
-        return quizQuestionRepository.save(question);
+        question.setOrdinal(nextOrdinal(lessonId));
+        QuizQuestion saved = quizQuestionRepository.save(question);
+        eventPublisher.publishEvent(new QuizChangedEvent(lessonId));
+        return saved;
     }
 
     @Override
     public Map<String, Object> submitQuiz(Long lessonId, SubmitQuizRequest request, User user) {
-        ensureLessonExists(lessonId);
-        List<QuizQuestion> questions = quizQuestionRepository.findByLessonIdOrderByIdAsc(lessonId);
-        if (questions.isEmpty()) {
+        AnswerKey answerKey = answerKeyCache.get(lessonId);
+        if (answerKey.size() == 0) {
             throw new IllegalArgumentException("No quiz questions found for this lesson");
         }
 
         int correctAnswers = 0;
-        for (QuizQuestion question : questions) {
-            Integer selected = request.getAnswers() == null ? null : request.getAnswers().get(question.getId());
-            if (selected != null && selected == question.getCorrectIndex()) {
+        for (int position = 0; position < answerKey.size(); position++) {
+            long questionId = answerKey.questionId(position);
+            Integer selected = request.getAnswers() == null ? null : request.getAnswers().get(questionId);
+            boolean correct = answerKey.isCorrect(position, selected);
+            if (correct) {
                 correctAnswers++;
             }
+            analyticsService.recordAnswer(questionId, lessonId, selected, correct);
         }
 
-        int totalQuestions = questions.size();
+        int totalQuestions = answerKey.size();
         int score = (int) Math.round((correctAnswers * 100.0) / totalQuestions);
         boolean allAnswersCorrect = correctAnswers == totalQuestions;
 
@@ -114,9 +154,11 @@ public class QuizServiceImpl implements QuizService {
         attempt.setScore(score);
         attempt.setTotalQuestions(totalQuestions);
         attempt.setCorrectAnswers(correctAnswers);
-        quizAttemptRepository.save(attempt);
+        quizAttemptWriter.write(List.of(attempt));
+        analyticsService.recordActivity(ActivityMetric.QUIZ_ATTEMPTS, LocalDate.now(), 1);
+        analyticsService.recordLessonLearner(lessonId, user.getId(), attempt.getSubmittedAt().toLocalDate());
 
-        updateLessonProgressStatus(user.getId(), lessonId, allAnswersCorrect);
+        updateLessonProgressStatus(findOrCreateProgress(user.getId(), lessonId), allAnswersCorrect);
         userService.updateStreak(user);
 
         Map<String, Object> result = new HashMap<>();
@@ -141,6 +183,9 @@ public class QuizServiceImpl implements QuizService {
         if (!lessonId.equals(question.getLessonId())) {
             throw new IllegalArgumentException("Question does not belong to this lesson");
         }
+        boolean answersChanged = question.getCorrectIndex() != request.getCorrectIndex()
+                || !List.of(question.getOptionA(), question.getOptionB(), question.getOptionC(), question.getOptionD())
+                        .equals(request.getOptions());
         question.setQuestionText(request.getQuestionText());
         question.setOptionA(request.getOptions().get(0));
         question.setOptionB(request.getOptions().get(1));
@@ -148,7 +193,13 @@ public class QuizServiceImpl implements QuizService {
         question.setOptionD(request.getOptions().get(3));
         question.setCorrectIndex(request.getCorrectIndex());
         question.setExplanation(request.getExplanation());
-        return quizQuestionRepository.save(question);
+        if (answersChanged) {
+            // Old selection counts describe different options — start the question's stats afresh
+            analyticsService.resetQuestionStats(questionId);
+        }
+        QuizQuestion saved = quizQuestionRepository.save(question);
+        eventPublisher.publishEvent(new QuizChangedEvent(lessonId));
+        return saved;
     }
 
     @Override
@@ -160,58 +211,202 @@ public class QuizServiceImpl implements QuizService {
             throw new IllegalArgumentException("Question does not belong to this lesson");
         }
         quizQuestionRepository.deleteById(questionId);
+        analyticsService.resetQuestionStats(questionId);
+        eventPublisher.publishEvent(new QuizChangedEvent(lessonId));
     }
 
     @Override
     public Map<String, Object> answerQuestion(Long lessonId, Long questionId, Integer selectedIndex, User user) {
-        ensureLessonExists(lessonId);
-        QuizQuestion question = quizQuestionRepository.findById(questionId)
-                .orElseThrow(() -> new IllegalArgumentException("Question not found"));
-        if (!lessonId.equals(question.getLessonId())) {
-            throw new IllegalArgumentException("Question does not belong to this lesson");
+        AnswerKey answerKey = answerKeyCache.get(lessonId);
+        int position = requirePosition(answerKey, questionId);
+        boolean isCorrect = answerKey.isCorrect(position, selectedIndex);
+
+        QuizAttempt attempt = questionAttempt(user, lessonId, questionId, selectedIndex, isCorrect);
+        quizAttemptWriter.write(List.of(attempt));
+        analyticsService.recordActivity(ActivityMetric.QUIZ_ATTEMPTS, LocalDate.now(), 1);
+        analyticsService.recordLessonLearner(lessonId, user.getId(), attempt.getSubmittedAt().toLocalDate());
+        analyticsService.recordAnswer(questionId, lessonId, selectedIndex, isCorrect);
+
+        userService.updateStreak(user);
+        boolean completed = recordMastery(user.getId(), lessonId, answerKey, new int[]{position}, new boolean[]{isCorrect});
+
+        Map<String, Object> response = answerResult(answerKey, position, selectedIndex, isCorrect);
+        response.put("lessonId", lessonId);
+        response.put("currentStreak", user.getCurrentStreak());
+        response.put("completed", completed);
+        return response;
+    }
+
+    /**
+     * Grades several single-question answers as one unit: every answer is checked before anything is
+     * written, the attempts go in as one batch insert, and the streak, analytics counters and lesson
+     * progress are each updated once for the whole request.
+     */
+    @Override
+    public Map<String, Object> answerQuestions(Long lessonId, List<BatchAnswerRequest.Answer> answers, User user) {
+        AnswerKey answerKey = answerKeyCache.get(lessonId);
+        int[] positions = new int[answers.size()];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = requirePosition(answerKey, answers.get(i).getQuestionId());
         }
 
-        boolean isCorrect = selectedIndex != null && selectedIndex == question.getCorrectIndex();
+        List<QuizAttempt> attempts = new ArrayList<>(answers.size());
+        List<Map<String, Object>> results = new ArrayList<>(answers.size());
+        boolean[] correct = new boolean[positions.length];
+        int correctCount = 0;
+        for (int i = 0; i < positions.length; i++) {
+            BatchAnswerRequest.Answer answer = answers.get(i);
+            boolean isCorrect = answerKey.isCorrect(positions[i], answer.getSelectedIndex());
+            correct[i] = isCorrect;
+            if (isCorrect) {
+                correctCount++;
+            }
+            attempts.add(questionAttempt(user, lessonId, answer.getQuestionId(), answer.getSelectedIndex(), isCorrect));
+            analyticsService.recordAnswer(answer.getQuestionId(), lessonId, answer.getSelectedIndex(), isCorrect);
+            results.add(answerResult(answerKey, positions[i], answer.getSelectedIndex(), isCorrect));
+        }
+        quizAttemptWriter.write(attempts);
+        analyticsService.recordActivity(ActivityMetric.QUIZ_ATTEMPTS, LocalDate.now(), attempts.size());
+        analyticsService.recordLessonLearner(lessonId, user.getId(), attempts.get(0).getSubmittedAt().toLocalDate());
+
+        userService.updateStreak(user);
+        boolean completed = recordMastery(user.getId(), lessonId, answerKey, positions, correct);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("lessonId", lessonId);
+        response.put("results", results);
+        response.put("correctCount", correctCount);
+        response.put("currentStreak", user.getCurrentStreak());
+        response.put("completed", completed);
+        return response;
+    }
 
+    /**
+     * ORs the bits of the correctly answered questions into the learner's mastery bitmap on their
+     * progress row and updates completion from it: the lesson is complete once every current question
+     * has been answered correctly at least once, in any number of requests. The row is locked so
+     * concurrent answers from the same learner cannot overwrite each other's bits.
+     */
+    private boolean recordMastery(UUID userId, Long lessonId, AnswerKey answerKey, int[] positions, boolean[] correct) {
+        LessonProgress progress = findOrCreateProgress(userId, lessonId);
+        BitSet mastered = progress.getMasteredOrdinals() == null
+                ? masteryFromAttempts(userId, lessonId, answerKey)
+                : BitSet.valueOf(progress.getMasteredOrdinals());
+        for (int i = 0; i < positions.length; i++) {
+            if (correct[i]) {
+                mastered.set(answerKey.ordinal(positions[i]));
+            }
+        }
+        progress.setMasteredOrdinals(mastered.toByteArray());
+        return updateLessonProgressStatus(progress, answerKey.isMastered(mastered));
+    }
+
+    /**
+     * Builds the bitmap from the learner's attempt history, for progress recorded before the bitmap
+     * existed; runs once per such row. Attempts still queued in the writer are read first so none is
+     * missed mid-flush.
+     */
+    private BitSet masteryFromAttempts(UUID userId, Long lessonId, AnswerKey answerKey) {
+        Set<Long> questionIds = quizAttemptWriter.pendingCorrectQuestionIds(userId, lessonId);
+        questionIds.addAll(quizAttemptRepository.findCorrectlyAnsweredQuestionIds(userId, lessonId));
+        BitSet mastered = new BitSet();
+        for (Long questionId : questionIds) {
+            int position = answerKey.positionOf(questionId);
+            if (position >= 0) { // Skip questions deleted since
+                mastered.set(answerKey.ordinal(position));
+            }
+        }
+        return mastered;
+    }
+
+    /**
+     * Next ordinal for a new question in the lesson. Never reuses a deleted question's ordinal, and
+     * stays clear of the ranks {@code QuizOrdinalSeeder} gives questions created before ordinals existed.
+     * The caller holds the lesson's row lock, so no concurrent create can read the same maximum.
+     */
+    private int nextOrdinal(Long lessonId) {
+        Integer max = quizQuestionRepository.findMaxOrdinalByLessonId(lessonId);
+        return (int) Math.max(max == null ? 0 : max + 1, quizQuestionRepository.countByLessonId(lessonId));
+    }
+
+    /** Returns the question's position in the answer key, or throws if it is not one of the lesson's questions. */
+    private int requirePosition(AnswerKey answerKey, Long questionId) {
+        int position = answerKey.positionOf(questionId);
+        if (position < 0) {
+            // Only read the question to tell a missing question from one in another lesson
+            throw new IllegalArgumentException(quizQuestionRepository.existsById(questionId)
+                    ? "Question does not belong to this lesson"
+                    : "Question not found");
+        }
+        return position;
+    }
+
+    private QuizAttempt questionAttempt(User user, Long lessonId, Long questionId, Integer selectedIndex, boolean isCorrect) {
         QuizAttempt attempt = new QuizAttempt();
         attempt.setUserId(user.getId());
         attempt.setLessonId(lessonId);
         attempt.setQuestionId(questionId);
+        attempt.setSelectedIndex(selectedIndex);
         attempt.setScore(isCorrect ? 100 : 0);
         attempt.setTotalQuestions(1);
         attempt.setCorrectAnswers(isCorrect ? 1 : 0);
-        quizAttemptRepository.save(attempt);
-
-        userService.updateStreak(user);
-        long totalQuestions = quizQuestionRepository.countByLessonId(lessonId);
-        long correctAnswered = quizAttemptRepository.countDistinctCorrectQuestionAttempts(user.getId(), lessonId);
-        boolean completed = updateLessonProgressStatus(user.getId(), lessonId,
-                totalQuestions > 0 && correctAnswered >= totalQuestions);
+        return attempt;
+    }
 
-        Map<String, Object> response = new HashMap<>();
-        response.put("lessonId", lessonId);
-        response.put("questionId", questionId);
-        response.put("correct", isCorrect);
-        response.put("selectedIndex", selectedIndex);
-        response.put("correctIndex", question.getCorrectIndex());
-        response.put("currentStreak", user.getCurrentStreak());
-        response.put("completed", completed);
-        response.put("explanation", question.getExplanation());
-        return response;
+    private Map<String, Object> answerResult(AnswerKey answerKey, int position, Integer selectedIndex, boolean isCorrect) {
+        Map<String, Object> result = new HashMap<>();
+        result.put("questionId", answerKey.questionId(position));
+        result.put("correct", isCorrect);
+        result.put("selectedIndex", selectedIndex);
+        result.put("correctIndex", answerKey.correctIndex(position));
+        result.put("explanation", answerKey.explanation(position));
+        return result;
     }
 
-    /** Updates or creates the lesson progress record for a user, marking it complete if applicable. */
-    private boolean updateLessonProgressStatus(java.util.UUID userId, Long lessonId, boolean completed) {
-        LessonProgress progress = lessonProgressRepository.findByUserIdAndLessonId(userId, lessonId)
+    /** Loads the learner's progress row for the lesson with a write lock, or starts a new one. */
+    private LessonProgress findOrCreateProgress(UUID userId, Long lessonId) {
+        return lessonProgressRepository.findForUpdate(userId, lessonId)
                 .orElseGet(() -> {
                     LessonProgress newProgress = new LessonProgress();
                     newProgress.setUserId(userId);
                     newProgress.setLessonId(lessonId);
+                    analyticsService.recordLessonStarted(lessonId);
                     return newProgress;
                 });
+    }
+
+    /**
+     * Saves the lesson progress record after a quiz attempt, marking it complete if applicable.
+     * The lesson's funnel counts are updated in the same transaction on the first attempt, and XP
+     * and the funnel whenever the completed flag flips.
+     */
+    private boolean updateLessonProgressStatus(LessonProgress progress, boolean completed) {
+        UUID userId = progress.getUserId();
+        Long lessonId = progress.getLessonId();
+        if (progress.getFirstAttemptedAt() == null) {
+            progress.setFirstAttemptedAt(LocalDateTime.now());
+            analyticsService.recordLessonAttempted(lessonId);
+        }
+        boolean wasCompleted = progress.isCompleted();
+        LocalDateTime previousCompletedAt = progress.getCompletedAt();
         progress.setCompleted(completed);
-        progress.setCompletedAt(completed ? LocalDateTime.now() : null);
+        // Keep the original completion time on repeat passes so XP stays in the day bucket it was awarded to
+        progress.setCompletedAt(completed ? (wasCompleted ? previousCompletedAt : LocalDateTime.now()) : null);
         lessonProgressRepository.save(progress);
+
+        if (completed && !wasCompleted) {
+            xpService.recordLessonCompletion(userId, lessonId, progress.getCompletedAt());
+            analyticsService.recordLessonCompletionChange(lessonId, 1);
+            analyticsService.recordTimeToComplete(lessonId, Duration.between(progress.getStartedAt(), progress.getCompletedAt()), 1);
+            analyticsService.recordActivity(ActivityMetric.LESSON_COMPLETIONS, progress.getCompletedAt().toLocalDate(), 1);
+        } else if (!completed && wasCompleted) {
+            xpService.revokeLessonCompletion(userId, lessonId, previousCompletedAt);
+            analyticsService.recordLessonCompletionChange(lessonId, -1);
+            if (previousCompletedAt != null) {
+                analyticsService.recordActivity(ActivityMetric.LESSON_COMPLETIONS, previousCompletedAt.toLocalDate(), -1);
+                analyticsService.recordTimeToComplete(lessonId, Duration.between(progress.getStartedAt(), previousCompletedAt), -1);
+            }
+        }
         return completed;
     }
 
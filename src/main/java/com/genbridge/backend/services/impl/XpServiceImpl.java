@@ -0,0 +1,201 @@
+package com.genbridge.backend.services.impl;
+
+import com.genbridge.backend.entity.UserXp;
+import com.genbridge.backend.entity.XpDailyBucket;
+import com.genbridge.backend.event.XpChangedEvent;
+import com.genbridge.backend.event.XpLedgerRebuiltEvent;
+import com.genbridge.backend.leaderboard.LeaderboardEntry;
+import com.genbridge.backend.leaderboard.LeaderboardWindow;
+import com.genbridge.backend.repository.LessonProgressRepository;
+import com.genbridge.backend.repository.LessonRepository;
+import com.genbridge.backend.repository.QuestCompletionRepository;
+import com.genbridge.backend.repository.UserXpRepository;
+import com.genbridge.backend.repository.XpDailyBucketRepository;
+import com.genbridge.backend.services.XpRules;
+import com.genbridge.backend.services.XpService;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Implementation of {@link XpService}.
+ * Updates the XP ledger inside the caller's transaction, so a lesson or quest completion
+ * and the XP it awards are committed together. The same XP is added to a per-day bucket
+ * keyed by the completion time, which the weekly and monthly leaderboards sum over.
+ * Ledger rows and buckets are created empty on first use with an insert that skips existing
+ * rows, then locked, so two first completions for the same user cannot both insert.
+ * {@link #rebuildLedger()} recomputes the ledger with one aggregate query over lesson progress
+ * and quest completions, and the retained buckets from their completion times, for backfills.
+ * Every change is announced with an {@link XpChangedEvent} so in-memory views such as the
+ * leaderboard index can follow.
+ */
+@Service
+@Transactional
+public class XpServiceImpl implements XpService {
+
+    private final UserXpRepository userXpRepository;
+    private final XpDailyBucketRepository xpDailyBucketRepository;
+    private final LessonRepository lessonRepository;
+    private final LessonProgressRepository lessonProgressRepository;
+    private final QuestCompletionRepository questCompletionRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public XpServiceImpl(UserXpRepository userXpRepository,
+                         XpDailyBucketRepository xpDailyBucketRepository,
+                         LessonRepository lessonRepository,
+                         LessonProgressRepository lessonProgressRepository,
+                         QuestCompletionRepository questCompletionRepository,
+                         ApplicationEventPublisher eventPublisher) {
+        this.userXpRepository = userXpRepository;
+        this.xpDailyBucketRepository = xpDailyBucketRepository;
+        this.lessonRepository = lessonRepository;
+        this.lessonProgressRepository = lessonProgressRepository;
+        this.questCompletionRepository = questCompletionRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public void recordLessonCompletion(UUID userId, Long lessonId, LocalDateTime completedAt) {
+        int lessonXp = lessonXp(lessonId);
+        UserXp xp = loadForUpdate(userId);
+        xp.setLessonXp(xp.getLessonXp() + lessonXp);
+        xp.setCompletedLessons(xp.getCompletedLessons() + 1);
+        saveWithTotal(xp);
+        addToBucket(userId, completedAt, lessonXp, 1, 0);
+    }
+
+    @Override
+    public void revokeLessonCompletion(UUID userId, Long lessonId, LocalDateTime completedAt) {
+        int lessonXp = lessonXp(lessonId);
+        UserXp xp = loadForUpdate(userId);
+        xp.setLessonXp(Math.max(0, xp.getLessonXp() - lessonXp));
+        xp.setCompletedLessons(Math.max(0, xp.getCompletedLessons() - 1));
+        saveWithTotal(xp);
+        addToBucket(userId, completedAt, -lessonXp, -1, 0);
+    }
+
+    @Override
+    public void recordQuestCompletion(UUID userId, LocalDateTime completedAt) {
+        UserXp xp = loadForUpdate(userId);
+        xp.setQuestXp(xp.getQuestXp() + XpRules.QUEST_XP);
+        xp.setCompletedQuests(xp.getCompletedQuests() + 1);
+        saveWithTotal(xp);
+        addToBucket(userId, completedAt, XpRules.QUEST_XP, 0, 1);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public UserXp getXp(UUID userId) {
+        return userXpRepository.findById(userId).orElseGet(() -> new UserXp(userId));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<LeaderboardEntry> getTopSince(LocalDate from, int limit) {
+        return xpDailyBucketRepository.findTopSince(from, PageRequest.of(0, limit)).stream()
+                .map(row -> new LeaderboardEntry(
+                        (UUID) row[0],
+                        (String) row[1],
+                        ((Number) row[3]).intValue(),
+                        ((Number) row[4]).intValue(),
+                        ((Number) row[2]).intValue()))
+                .toList();
+    }
+
+    @Override
+    public int rebuildLedger() {
+        List<UserXp> ledger = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (Object[] row : userXpRepository.aggregateXpByUser()) {
+            UserXp xp = new UserXp((UUID) row[0]);
+            xp.setLessonXp(intValue(row[1]));
+            xp.setCompletedLessons(intValue(row[2]));
+            xp.setQuestXp(intValue(row[3]));
+            xp.setCompletedQuests(intValue(row[4]));
+            xp.setTotalXp(xp.getLessonXp() + xp.getQuestXp());
+            xp.setUpdatedAt(now);
+            ledger.add(xp);
+        }
+
+        userXpRepository.deleteAllInBatch();
+        userXpRepository.saveAll(ledger);
+        rebuildBuckets();
+        eventPublisher.publishEvent(new XpLedgerRebuiltEvent(ledger.size()));
+        return ledger.size();
+    }
+
+    /** Recomputes the daily buckets still inside the retention period from completion timestamps. */
+    private void rebuildBuckets() {
+        LocalDate cutoff = LeaderboardWindow.retentionCutoff(LocalDate.now());
+        Map<String, XpDailyBucket> buckets = new HashMap<>();
+
+        for (Object[] row : lessonProgressRepository.findCompletionsSince(cutoff.atStartOfDay())) {
+            XpDailyBucket bucket = buckets.computeIfAbsent(bucketKey((UUID) row[0], (LocalDateTime) row[1]),
+                    key -> new XpDailyBucket((UUID) row[0], ((LocalDateTime) row[1]).toLocalDate()));
+            bucket.setXp(bucket.getXp() + XpRules.lessonXp((String) row[2]));
+            bucket.setCompletedLessons(bucket.getCompletedLessons() + 1);
+        }
+
+        for (Object[] row : questCompletionRepository.findCompletionTimesSince(cutoff.atStartOfDay())) {
+            XpDailyBucket bucket = buckets.computeIfAbsent(bucketKey((UUID) row[0], (LocalDateTime) row[1]),
+                    key -> new XpDailyBucket((UUID) row[0], ((LocalDateTime) row[1]).toLocalDate()));
+            bucket.setXp(bucket.getXp() + XpRules.QUEST_XP);
+            bucket.setCompletedQuests(bucket.getCompletedQuests() + 1);
+        }
+
+        xpDailyBucketRepository.deleteAllInBatch();
+        xpDailyBucketRepository.saveAll(buckets.values());
+    }
+
+    private static int intValue(Object value) {
+        return value == null ? 0 : ((Number) value).intValue();
+    }
+
+    private static String bucketKey(UUID userId, LocalDateTime completedAt) {
+        return userId + "/" + completedAt.toLocalDate();
+    }
+
+    /** Applies an XP delta to the user's bucket for the day of {@code occurredAt}. */
+    private void addToBucket(UUID userId, LocalDateTime occurredAt, int xpDelta, int lessonDelta, int questDelta) {
+        LocalDate day = (occurredAt == null ? LocalDateTime.now() : occurredAt).toLocalDate();
+        if (day.isBefore(LeaderboardWindow.retentionCutoff(LocalDate.now()))) {
+            return; // Already rolled off — no window can see this day any more
+        }
+        xpDailyBucketRepository.insertIfAbsent(userId, day);
+        XpDailyBucket bucket = xpDailyBucketRepository.findForUpdate(userId, day)
+                .orElseThrow(() -> new IllegalStateException("XP bucket missing after insert"));
+        bucket.setXp(Math.max(0, bucket.getXp() + xpDelta));
+        bucket.setCompletedLessons(Math.max(0, bucket.getCompletedLessons() + lessonDelta));
+        bucket.setCompletedQuests(Math.max(0, bucket.getCompletedQuests() + questDelta));
+        xpDailyBucketRepository.save(bucket);
+    }
+
+    /** Loads the user's ledger row under a write lock, creating an empty one on first use. */
+    private UserXp loadForUpdate(UUID userId) {
+        userXpRepository.insertIfAbsent(userId, LocalDateTime.now());
+        return userXpRepository.findForUpdate(userId)
+                .orElseThrow(() -> new IllegalStateException("XP ledger row missing after insert"));
+    }
+
+    private int lessonXp(Long lessonId) {
+        return lessonRepository.findById(lessonId)
+                .map(lesson -> XpRules.lessonXp(lesson.getDifficulty()))
+                .orElse(XpRules.BEGINNER_LESSON_XP);
+    }
+
+    private void saveWithTotal(UserXp xp) {
+        xp.setTotalXp(xp.getLessonXp() + xp.getQuestXp());
+        xp.setUpdatedAt(LocalDateTime.now());
+        userXpRepository.save(xp);
+        eventPublisher.publishEvent(new XpChangedEvent(xp.getUserId(), xp.getTotalXp(), xp.getCompletedLessons()));
+    }
+}
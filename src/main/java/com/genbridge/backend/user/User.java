@@ -6,10 +6,13 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+        @Index(name = "idx_users_last_active_date", columnList = "last_active_date")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -45,6 +48,17 @@ public class User {
     @Column(name = "suspension_reason", columnDefinition = "TEXT")
     private String suspensionReason;
 
+    /**
+     * Carried in every access and refresh token; tokens with an older version are rejected.
+     * Bumped by {@link #revokeTokens()} on password change and suspension.
+     */
+    @Column(name = "token_version", nullable = false, columnDefinition = "integer default 0")
+    private int tokenVersion = 0;
+
+    /** Registration time; null for accounts created before it was recorded. */
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
     public User(String name, String email, String passwordHash, String role) {
         this.name = name;
         this.email = email;
@@ -56,4 +70,9 @@ public class User {
     public int getCurrentStreak() {
         return currentStreak == null ? 0 : currentStreak;
     }
+
+    /** Invalidates every access and refresh token issued so far. */
+    public void revokeTokens() {
+        tokenVersion++;
+    }
 }
@@ -1,8 +1,11 @@
 package com.genbridge.backend.user;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -10,5 +13,14 @@ import java.util.UUID;
 public interface UserRepository extends JpaRepository<User, UUID> {
     Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
-    
+    long countByRoleNot(String role);
+    long countByRoleNotAndSuspendedTrue(String role);
+    long countByRoleNotAndCurrentStreakGreaterThan(String role, Integer streak);
+
+    /** Returns [userId, createdAt, lastActiveDate] for every learner, for cohort retention. */
+    @Query("select u.id, u.createdAt, u.lastActiveDate from User u where u.role <> 'ADMIN'")
+    List<Object[]> findLearnerRegistrations();
+
+    @Query("select u.tokenVersion from User u where u.id = :id")
+    Optional<Integer> findTokenVersionById(@Param("id") UUID id);
 }
@@ -5,10 +5,12 @@ import com.genbridge.backend.auth.dto.LoginRequest;
 import com.genbridge.backend.auth.dto.LoginResponse;
 import com.genbridge.backend.auth.dto.RegistrationRequest;
 
-/** Defines operations for user registration, authentication, password changes, and streak management. */
+/** Defines operations for user registration, authentication, token refresh and logout, password changes, and streak management. */
 public interface UserService {
     void registerUser(RegistrationRequest request);
     LoginResponse loginUser(LoginRequest request);
+    LoginResponse refresh(String refreshToken);
+    void logout(String accessToken, String refreshToken);
     User getByEmail(String email);
     void updateStreak(User user);
     void changePassword(String email, ChangePasswordRequest request);
@@ -1,32 +1,61 @@
 package com.genbridge.backend.user;
 
+import com.genbridge.backend.analytics.ActivityMetric;
 import com.genbridge.backend.auth.dto.ChangePasswordRequest;
 import com.genbridge.backend.auth.dto.LoginRequest;
 import com.genbridge.backend.auth.dto.LoginResponse;
 import com.genbridge.backend.auth.dto.RegistrationRequest;
+import com.genbridge.backend.config.AuthPrincipalCache;
 import com.genbridge.backend.config.JwtUtil;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import com.genbridge.backend.config.PasswordHasher;
+import com.genbridge.backend.config.TokenDenylist;
+import com.genbridge.backend.event.StreakUpdatedEvent;
+import com.genbridge.backend.event.UserChangedEvent;
+import com.genbridge.backend.event.UserRegisteredEvent;
+import com.genbridge.backend.services.AnalyticsService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.UUID;
 
 /**
  * Implementation of {@link UserService}.
- * Handles user registration, authentication, password changes, and streak management.
+ * Handles user registration, authentication, token refresh and logout, password changes, and streak management.
  * Streak logic: increments on consecutive days, resets after a gap, no-ops when already active today.
+ * Passwords are hashed and checked on the bounded {@link PasswordHasher} pool, which refuses work with
+ * 503 when a login burst fills its queue.
+ * The first streak update of a day also counts the user as active in the daily analytics and
+ * marks the day in their activity bitmap.
+ * Streaks are applied to the stored row rather than the request's principal, which may be a cached
+ * snapshot; password changes and new activity days publish a {@link UserChangedEvent} so cached
+ * principals are refreshed. A password change also bumps the token version, signing out every session;
+ * logout revokes just the presented tokens, and each refresh revokes the refresh token it consumed.
  */
 @Service
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
     private final JwtUtil jwtUtil;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AnalyticsService analyticsService;
+    private final TokenDenylist tokenDenylist;
+    private final AuthPrincipalCache principalCache;
 
-    public UserServiceImpl(UserRepository userRepository, PasswordEncoder passwordEncoder, JwtUtil jwtUtil) {
+    public UserServiceImpl(UserRepository userRepository, PasswordHasher passwordHasher, JwtUtil jwtUtil,
+                           ApplicationEventPublisher eventPublisher, AnalyticsService analyticsService,
+                           TokenDenylist tokenDenylist, AuthPrincipalCache principalCache) {
         this.userRepository = userRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHasher = passwordHasher;
         this.jwtUtil = jwtUtil;
+        this.eventPublisher = eventPublisher;
+        this.analyticsService = analyticsService;
+        this.tokenDenylist = tokenDenylist;
+        this.principalCache = principalCache;
     }
 
     @Override
@@ -35,9 +64,11 @@ public class UserServiceImpl implements UserService {
         if (userRepository.existsByEmail(request.getEmail())) {
             throw new IllegalArgumentException("Email is already registered.");
         }
-        String hashedPassword = passwordEncoder.encode(request.getPassword());
+        String hashedPassword = passwordHasher.encode(request.getPassword());
         User user = new User(request.getName(), request.getEmail(), hashedPassword, "LEARNER");
         userRepository.save(user);
+        analyticsService.recordUserRegistered(user.getId(), user.getCreatedAt().toLocalDate());
+        eventPublisher.publishEvent(new UserRegisteredEvent(user.getId(), user.getName()));
     }
 
     @Override
@@ -47,14 +78,68 @@ public class UserServiceImpl implements UserService {
                 .orElseThrow(() -> new IllegalArgumentException("Invalid email or password."));
 
         // Step 2: Compare the submitted password against the stored hash
-        // passwordEncoder.matches() hashes the raw password and compares - never store raw passwords!
-        if (!passwordEncoder.matches(request.getPassword(), user.getPasswordHash())) {
+        // passwordHasher.matches() hashes the raw password and compares - never store raw passwords!
+        if (!passwordHasher.matches(request.getPassword(), user.getPasswordHash())) {
             throw new IllegalArgumentException("Invalid email or password.");
         }
 
-        // Step 3: Credentials are correct — generate and return the JWT token
-        String token = jwtUtil.generateToken(user.getEmail(), user.getRole());
-        return new LoginResponse(token, user.getEmail(), user.getRole());
+        // Step 3: Credentials are correct — generate and return the access and refresh tokens
+        return issueTokens(user);
+    }
+
+    @Override
+    @Transactional
+    public LoginResponse refresh(String refreshToken) {
+        Claims claims;
+        try {
+            claims = jwtUtil.extractClaims(refreshToken);
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid refresh token.");
+        }
+        if (!jwtUtil.isRefreshToken(claims)) {
+            throw new IllegalArgumentException("Invalid refresh token.");
+        }
+        if (tokenDenylist.isRevoked(claims.getId())) {
+            throw new IllegalArgumentException("Refresh token has been revoked.");
+        }
+
+        UUID userId = jwtUtil.extractUserId(claims);
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new IllegalArgumentException("Invalid refresh token."));
+        if (user.getTokenVersion() != jwtUtil.extractTokenVersion(claims)) {
+            throw new IllegalArgumentException("Refresh token has been revoked.");
+        }
+        // Rotate: the refresh token just used cannot be used again. The denylist insert is the
+        // single-use check — of two concurrent refreshes with the same token, only one gets a new pair.
+        if (!tokenDenylist.consume(claims.getId(), userId, claims.getExpiration())) {
+            throw new IllegalArgumentException("Refresh token has been revoked.");
+        }
+        return issueTokens(user);
+    }
+
+    @Override
+    public void logout(String accessToken, String refreshToken) {
+        Claims access = jwtUtil.extractClaims(accessToken);
+        UUID userId = jwtUtil.extractUserId(access);
+        tokenDenylist.revoke(access.getId(), userId, access.getExpiration());
+        principalCache.evict(accessToken);
+
+        if (refreshToken == null || refreshToken.isBlank()) {
+            return;
+        }
+        try {
+            Claims refresh = jwtUtil.extractClaims(refreshToken);
+            if (jwtUtil.isRefreshToken(refresh) && userId.equals(jwtUtil.extractUserId(refresh))) {
+                tokenDenylist.revoke(refresh.getId(), userId, refresh.getExpiration());
+            }
+        } catch (JwtException | IllegalArgumentException e) {
+            // Already expired or not ours — nothing to revoke
+        }
+    }
+
+    private LoginResponse issueTokens(User user) {
+        return new LoginResponse(jwtUtil.generateAccessToken(user), jwtUtil.generateRefreshToken(user),
+                user.getEmail(), user.getRole());
     }
 
     @Override
@@ -66,9 +151,11 @@ public class UserServiceImpl implements UserService {
 
     @Override
     @Transactional
-    public void updateStreak(User user) {
+    public void updateStreak(User principal) {
+        User user = userRepository.findById(principal.getId()).orElse(principal);
         LocalDate today = LocalDate.now();
         LocalDate lastActive = user.getLastActiveDate();
+        int previousStreak = user.getCurrentStreak();
 
         if (lastActive == null) {
             // First activity ever
@@ -85,17 +172,31 @@ public class UserServiceImpl implements UserService {
 
         user.setLastActiveDate(today);
         userRepository.save(user);
+        principal.setCurrentStreak(user.getCurrentStreak());
+        principal.setLastActiveDate(today);
+
+        if (!today.equals(lastActive)) {
+            analyticsService.recordActivity(ActivityMetric.ACTIVE_USERS, today, 1);
+            analyticsService.recordUserActive(user.getId(), today);
+            eventPublisher.publishEvent(new UserChangedEvent(user.getId()));
+        }
+
+        if (user.getCurrentStreak() != previousStreak) {
+            eventPublisher.publishEvent(new StreakUpdatedEvent(user.getId(), user.getCurrentStreak()));
+        }
     }
 
     @Override
     @Transactional
     public void changePassword(String email, ChangePasswordRequest request) {
         User user = getByEmail(email);
-        if (!passwordEncoder.matches(request.getOldPassword(), user.getPasswordHash())) {
+        if (!passwordHasher.matches(request.getOldPassword(), user.getPasswordHash())) {
             throw new IllegalArgumentException("Old password is incorrect");
         }
-        String newHash = passwordEncoder.encode(request.getNewPassword());
+        String newHash = passwordHasher.encode(request.getNewPassword());
         user.setPasswordHash(newHash);
+        user.revokeTokens();
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(user.getId()));
     }
 }
@@ -186,6 +186,7 @@ const TokenExpiryHandler = () => {
       const response = await originalFetch(...args);
       if (response.status === 401) {
         localStorage.removeItem("token");
+        localStorage.removeItem("refreshToken");
         localStorage.removeItem("role");
         navigate("/login");
       }
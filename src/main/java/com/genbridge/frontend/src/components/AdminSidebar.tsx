@@ -6,6 +6,7 @@ import DictionaryIcon from "@/assets/icons/dictionary.svg?react";
 import NoteStackIcon from "@/assets/icons/note_stack.svg?react";
 import AbcIcon from "@/assets/icons/abc.svg?react";
 import KeepIcon from "@/assets/icons/keep.svg?react";
+import { logout } from "@/services/api";
 
 interface AdminSidebarProps {
   activeTab: "lessons" | "content" | "quiz" | "reports" | "forum" | "quests" | "users" | "analytics";
@@ -17,8 +18,7 @@ const AdminSidebar = ({ activeTab, onTabChange }: AdminSidebarProps) => {
   const navigate = useNavigate();
 
   const handleLogout = () => {
-    localStorage.removeItem("token");
-    localStorage.removeItem("role");
+    logout();
     navigate("/login");
   };
 
@@ -7,7 +7,7 @@ import HomeIcon from "@/assets/icons/home.svg?react";
 import DictionaryIcon from "@/assets/icons/dictionary.svg?react";
 import AccountIcon from "@/assets/icons/account.svg?react";
 import SettingsIcon from "@/assets/icons/settings.svg?react";
-import api from "@/services/api";
+import api, { logout } from "@/services/api";
 
 interface AppSidebarProps {
   activePage: "home" | "learn" | "glossary" | "forum" | "quests" | "profile" | "settings" | "leaderboard";
@@ -27,8 +27,7 @@ const AppSidebar = ({ activePage }: AppSidebarProps) => {
   }, []);
 
   const handleLogout = () => {
-    localStorage.removeItem("token");
-    localStorage.removeItem("role");
+    logout();
     navigate("/login");
   };
 
@@ -4,6 +4,7 @@ import { Button } from "@/components/ui/button";
 import { LogOut, Flame, Star, Trophy } from "lucide-react";
 import BridgeIcon from "@/assets/icons/bridge.svg?react";
 import { useToast } from "@/hooks/use-toast";
+import { logout } from "@/services/api";
 
 const Navbar = () => {
   const token = localStorage.getItem("token");
@@ -25,8 +26,7 @@ const Navbar = () => {
   }, []);
 
   const handleLogout = () => {
-    localStorage.removeItem("token");
-    localStorage.removeItem("role");
+    logout();
     toast({ title: "Logged out", description: "See you next time!" });
     navigate("/login");
   };
@@ -1,4 +1,4 @@
-import { useEffect, useState, useRef } from "react";
+import { useCallback, useEffect, useState, useRef } from "react";
 import { Navigate } from "react-router-dom";
 import AdminSidebar from "@/components/AdminSidebar";
 import api from "@/services/api";
@@ -1288,13 +1288,39 @@ function AnalyticsTab() {
   const [data, setData] = useState<any>(null);
   const [loading, setLoading] = useState(true);
 
-  useEffect(() => {
-    api.get("/admin/analytics")
-      .then(res => setData(res.data))
-      .catch(() => {})
-      .finally(() => setLoading(false));
+  const [refreshing, setRefreshing] = useState(false);
+
+  // The report is built in the background: 202 means none exists yet and `refreshing` means a newer
+  // one is on its way, so keep polling until the build finishes
+  const load = useCallback(() => {
+    let timer: ReturnType<typeof setTimeout> | undefined;
+    const fetchReport = () => {
+      api.get("/admin/analytics")
+        .then(res => {
+          if (res.status === 202) {
+            timer = setTimeout(fetchReport, Number(res.headers["retry-after"] ?? 2) * 1000);
+            return;
+          }
+          setData(res.data);
+          setRefreshing(Boolean(res.data.refreshing));
+          setLoading(false);
+          if (res.data.refreshing) timer = setTimeout(fetchReport, 2000);
+        })
+        .catch(() => setLoading(false));
+    };
+    fetchReport();
+    return () => clearTimeout(timer);
   }, []);
 
+  useEffect(() => load(), [load]);
+
+  const refresh = () => {
+    setRefreshing(true);
+    api.post("/admin/analytics/refresh")
+      .then(res => setTimeout(load, Number(res.headers["retry-after"] ?? 2) * 1000))
+      .catch(() => setRefreshing(false));
+  };
+
   if (loading) return <div className="text-muted-foreground py-20 text-center">Loading...</div>;
   if (!data) return <div className="text-muted-foreground py-20 text-center">Failed to load analytics.</div>;
 
@@ -1309,6 +1335,16 @@ function AnalyticsTab() {
 
   return (
     <div className="space-y-8">
+      <div className="flex items-center justify-between text-sm text-muted-foreground">
+        <span>
+          Generated {new Date(data.generatedAt).toLocaleString()}
+          {data.stale && " (out of date)"}
+        </span>
+        <Button variant="outline" size="sm" onClick={refresh} disabled={refreshing}>
+          {refreshing ? "Refreshing..." : "Refresh"}
+        </Button>
+      </div>
+
       {/* Stat cards */}
       <div className="grid grid-cols-2 md:grid-cols-3 gap-4">
         {statCards.map(({ label, value }) => (
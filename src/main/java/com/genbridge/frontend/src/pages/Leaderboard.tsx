@@ -1,17 +1,9 @@
 import { useEffect, useState } from "react";
 import AppSidebar from "@/components/AppSidebar";
 import api from "@/services/api";
+import { subscribeLeaderboard, LeaderboardView as LeaderboardEntry } from "@/services/leaderboardStream";
 import { Trophy, Flame, Star } from "lucide-react";
 
-interface LeaderboardEntry {
-  rank: number;
-  id: string;
-  name: string;
-  xp: number;
-  completedLessons: number;
-  currentStreak: number;
-}
-
 const Leaderboard = () => {
   const [entries, setEntries] = useState<LeaderboardEntry[]>([]);
   const [loading, setLoading] = useState(true);
@@ -21,6 +13,8 @@ const Leaderboard = () => {
       .then(res => setEntries(res.data))
       .catch(() => {})
       .finally(() => setLoading(false));
+    // Live updates: the server only pushes when the top of the board changes
+    return subscribeLeaderboard(setEntries);
   }, []);
 
   return (
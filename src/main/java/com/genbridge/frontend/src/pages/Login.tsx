@@ -27,6 +27,7 @@ const Login = () => {
       if (res.ok) {
         const data = await res.json();
         localStorage.setItem("token", data.token);
+        localStorage.setItem("refreshToken", data.refreshToken);
         localStorage.setItem("role", data.role);
         window.dispatchEvent(new Event("gb_login"));
         toast({ title: "Welcome back!", description: "Login successful." });
@@ -1,11 +1,68 @@
 import axios from "axios";
 
-const api = axios.create({
-  baseURL: import.meta.env.VITE_API_URL ?? "/api",
-});
+const baseURL = import.meta.env.VITE_API_URL ?? "/api";
+
+const api = axios.create({ baseURL });
+
+// Access tokens live for 15 minutes; renew a little before expiry so requests never carry a stale one
+const REFRESH_MARGIN_MS = 30_000;
+
+let refreshing: Promise<string | null> | null = null;
+
+const expiresSoon = (token: string) => {
+  try {
+    const payload = JSON.parse(atob(token.split(".")[1].replace(/-/g, "+").replace(/_/g, "/")));
+    return typeof payload.exp === "number" && payload.exp * 1000 < Date.now() + REFRESH_MARGIN_MS;
+  } catch {
+    return false;
+  }
+};
+
+export const clearSession = () => {
+  localStorage.removeItem("token");
+  localStorage.removeItem("refreshToken");
+  localStorage.removeItem("role");
+};
 
-api.interceptors.request.use((config) => {
+const refreshAccessToken = async (): Promise<string | null> => {
+  const refreshToken = localStorage.getItem("refreshToken");
+  if (!refreshToken) return null;
+  try {
+    const { data } = await axios.post(`${baseURL}/auth/refresh`, { refreshToken });
+    localStorage.setItem("token", data.token);
+    localStorage.setItem("refreshToken", data.refreshToken);
+    localStorage.setItem("role", data.role);
+    return data.token;
+  } catch {
+    clearSession();
+    return null;
+  }
+};
+
+/** Returns a usable access token, refreshing it first when it is about to expire. Concurrent callers share one refresh. */
+export const getAccessToken = async (): Promise<string | null> => {
+  const token = localStorage.getItem("token");
+  if (!token || !expiresSoon(token)) return token;
+  refreshing ??= refreshAccessToken().finally(() => {
+    refreshing = null;
+  });
+  return refreshing;
+};
+
+/** Revokes the current tokens on the server (best effort) and clears them locally. */
+export const logout = () => {
   const token = localStorage.getItem("token");
+  const refreshToken = localStorage.getItem("refreshToken");
+  clearSession();
+  if (token) {
+    axios
+      .post(`${baseURL}/auth/logout`, { refreshToken }, { headers: { Authorization: `Bearer ${token}` } })
+      .catch(() => {});
+  }
+};
+
+api.interceptors.request.use(async (config) => {
+  const token = await getAccessToken();
   if (token) {
     config.headers.Authorization = `Bearer ${token}`;
   }
@@ -16,8 +73,7 @@ api.interceptors.response.use(
   (response) => response,
   (error) => {
     if (error.response?.status === 401) {
-      localStorage.removeItem("token");
-      localStorage.removeItem("role");
+      clearSession();
       window.location.href = "/login";
     }
     return Promise.reject(error);
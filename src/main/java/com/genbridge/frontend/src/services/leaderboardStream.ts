@@ -0,0 +1,82 @@
+import { getAccessToken } from "./api";
+
+export interface LeaderboardView {
+  rank: number;
+  id: string;
+  name: string;
+  xp: number;
+  completedLessons: number;
+  currentStreak: number;
+}
+
+interface Delta {
+  changed: LeaderboardView[];
+  removed: string[];
+}
+
+const RECONNECT_DELAY_MS = 3000;
+
+const applyDelta = (entries: LeaderboardView[], delta: Delta): LeaderboardView[] => {
+  const removed = new Set(delta.removed);
+  const byId = new Map(entries.filter((e) => !removed.has(e.id)).map((e) => [e.id, e]));
+  delta.changed.forEach((e) => byId.set(e.id, e));
+  return [...byId.values()].sort((a, b) => a.rank - b.rank);
+};
+
+/**
+ * Follows GET /leaderboard/stream (Server-Sent Events). Uses fetch rather than EventSource
+ * so the bearer token can be sent. Reconnects when the server closes the stream.
+ * Returns a function that stops the subscription.
+ */
+export const subscribeLeaderboard = (onUpdate: (entries: LeaderboardView[]) => void): (() => void) => {
+  const controller = new AbortController();
+  const baseUrl = import.meta.env.VITE_API_URL ?? "/api";
+  let entries: LeaderboardView[] = [];
+
+  const handleEvent = (block: string) => {
+    let event = "message";
+    let data = "";
+    for (const line of block.split("\n")) {
+      if (line.startsWith("event:")) event = line.slice(6).trim();
+      else if (line.startsWith("data:")) data += line.slice(5).trim();
+    }
+    if (!data) return;
+    if (event === "snapshot") entries = JSON.parse(data).entries;
+    else if (event === "delta") entries = applyDelta(entries, JSON.parse(data));
+    else return;
+    onUpdate(entries);
+  };
+
+  const connect = async () => {
+    while (!controller.signal.aborted) {
+      try {
+        const token = await getAccessToken();
+        const res = await fetch(`${baseUrl}/leaderboard/stream`, {
+          headers: token ? { Authorization: `Bearer ${token}` } : {},
+          signal: controller.signal,
+        });
+        if (!res.ok || !res.body) throw new Error(`stream failed: ${res.status}`);
+
+        const reader = res.body.getReader();
+        const decoder = new TextDecoder();
+        let buffer = "";
+        for (;;) {
+          const { done, value } = await reader.read();
+          if (done) break;
+          buffer += decoder.decode(value, { stream: true }).replace(/\r\n/g, "\n");
+          let end;
+          while ((end = buffer.indexOf("\n\n")) >= 0) {
+            handleEvent(buffer.slice(0, end));
+            buffer = buffer.slice(end + 2);
+          }
+        }
+      } catch {
+        if (controller.signal.aborted) return;
+      }
+      await new Promise((resolve) => setTimeout(resolve, RECONNECT_DELAY_MS));
+    }
+  };
+
+  connect();
+  return () => controller.abort();
+};
@@ -0,0 +1,51 @@
+package com.genbridge.backend.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ActivityBitmapTest {
+
+    private final LocalDate monday = LocalDate.of(2026, 3, 2);
+
+    @Test
+    void mark_isIdempotentAndRoundTripsThroughBytes() {
+        ActivityBitmap bitmap = ActivityBitmap.startingAt(monday);
+
+        assertThat(bitmap.mark(monday.plusDays(3))).isTrue();
+        assertThat(bitmap.mark(monday.plusDays(3))).isFalse();
+        assertThat(bitmap.mark(monday.plusDays(400))).isTrue();
+
+        ActivityBitmap decoded = ActivityBitmap.of(monday, bitmap.toBytes());
+        assertThat(decoded.toBytes()).hasSize(51);
+        assertThat(decoded.activeDays()).isEqualTo(2);
+        assertThat(decoded.isActive(monday.plusDays(3))).isTrue();
+        assertThat(decoded.isActive(monday.plusDays(4))).isFalse();
+        assertThat(decoded.firstActiveDay()).isEqualTo(monday.plusDays(3));
+    }
+
+    @Test
+    void mark_beforeOrigin_movesOriginBackAndKeepsHistory() {
+        ActivityBitmap bitmap = ActivityBitmap.startingAt(monday);
+        bitmap.mark(monday.plusDays(1));
+
+        bitmap.mark(monday.minusDays(10));
+
+        assertThat(bitmap.origin()).isEqualTo(monday.minusDays(10));
+        assertThat(bitmap.isActive(monday.minusDays(10))).isTrue();
+        assertThat(bitmap.isActive(monday.plusDays(1))).isTrue();
+        assertThat(bitmap.activeDays()).isEqualTo(2);
+    }
+
+    @Test
+    void isActiveBetween_checksHalfOpenRange() {
+        ActivityBitmap bitmap = ActivityBitmap.startingAt(monday);
+        bitmap.mark(monday.plusDays(7));
+
+        assertThat(bitmap.isActiveBetween(monday, monday.plusDays(7))).isFalse();
+        assertThat(bitmap.isActiveBetween(monday.plusDays(7), monday.plusDays(14))).isTrue();
+        assertThat(bitmap.isActiveBetween(monday.minusDays(14), monday.minusDays(7))).isFalse();
+    }
+}
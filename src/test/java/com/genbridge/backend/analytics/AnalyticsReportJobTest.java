@@ -0,0 +1,127 @@
+package com.genbridge.backend.analytics;
+
+import com.genbridge.backend.services.AnalyticsService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AnalyticsReportJobTest {
+
+    @Mock
+    private AnalyticsService analyticsService;
+
+    @Test
+    void latest_beforeFirstBuild_isEmptyAndSchedulesBuild() {
+        List<Runnable> queued = new ArrayList<>();
+        AnalyticsReportJob job = new AnalyticsReportJob(analyticsService, Duration.ofMinutes(5), queued::add);
+        when(analyticsService.getAnalytics()).thenReturn(Map.of("totalUsers", 3L));
+
+        assertThat(job.latest()).isEmpty();
+        assertThat(job.isRunning()).isTrue();
+        verify(analyticsService, never()).getAnalytics();
+
+        queued.forEach(Runnable::run);
+
+        assertThat(job.isRunning()).isFalse();
+        AnalyticsReportJob.Report report = job.latest().orElseThrow();
+        assertThat(report.data()).containsEntry("totalUsers", 3L);
+        assertThat(report.generatedAt()).isNotNull();
+    }
+
+    @Test
+    void refresh_whileBuildRunning_isNotQueuedAgain() {
+        List<Runnable> queued = new ArrayList<>();
+        AnalyticsReportJob job = new AnalyticsReportJob(analyticsService, Duration.ofMinutes(5), queued::add);
+
+        assertThat(job.refresh()).isTrue();
+        assertThat(job.refresh()).isFalse();
+        assertThat(queued).hasSize(1);
+    }
+
+    @Test
+    void latest_withinBudget_servesCachedReportWithoutRebuilding() {
+        AnalyticsReportJob job = new AnalyticsReportJob(analyticsService, Duration.ofMinutes(5), Runnable::run);
+        when(analyticsService.getAnalytics()).thenReturn(Map.of("totalUsers", 3L));
+        job.refresh();
+
+        job.latest();
+        job.latest();
+
+        verify(analyticsService, times(1)).getAnalytics();
+    }
+
+    @Test
+    void latest_pastBudget_servesStaleReportAndRebuilds() {
+        AnalyticsReportJob job = new AnalyticsReportJob(analyticsService, Duration.ofSeconds(-1), Runnable::run);
+        when(analyticsService.getAnalytics()).thenReturn(Map.of("totalUsers", 3L), Map.of("totalUsers", 4L));
+        job.refresh();
+
+        AnalyticsReportJob.Report served = job.latest().orElseThrow();
+
+        assertThat(job.isStale(served)).isTrue();
+        assertThat(served.data()).containsEntry("totalUsers", 3L);
+        assertThat(job.current().orElseThrow().data()).containsEntry("totalUsers", 4L);
+    }
+
+    @Test
+    void failedBuild_keepsPreviousReport() {
+        AnalyticsReportJob job = new AnalyticsReportJob(analyticsService, Duration.ofMinutes(5), Runnable::run);
+        when(analyticsService.getAnalytics())
+                .thenReturn(Map.of("totalUsers", 3L))
+                .thenThrow(new IllegalStateException("connection lost"));
+        job.refresh();
+
+        assertThat(job.refresh()).isTrue();
+
+        assertThat(job.isRunning()).isFalse();
+        assertThat(job.current().orElseThrow().data()).containsEntry("totalUsers", 3L);
+    }
+
+    @Test
+    void submit_queuesTaskOnceAndRecordsItsCount() {
+        List<Runnable> queued = new ArrayList<>();
+        AnalyticsReportJob job = new AnalyticsReportJob(analyticsService, Duration.ofMinutes(5), queued::add);
+
+        AnalyticsReportJob.TaskStatus first = job.submit("timeseries-rebuild", () -> 42);
+        AnalyticsReportJob.TaskStatus second = job.submit("timeseries-rebuild", () -> 43);
+
+        assertThat(first.state()).isEqualTo(AnalyticsReportJob.TaskState.QUEUED);
+        assertThat(second).isSameAs(first);
+        assertThat(queued).hasSize(1);
+
+        queued.forEach(Runnable::run);
+
+        AnalyticsReportJob.TaskStatus done = job.task("timeseries-rebuild").orElseThrow();
+        assertThat(done.state()).isEqualTo(AnalyticsReportJob.TaskState.SUCCEEDED);
+        assertThat(done.count()).isEqualTo(42);
+        assertThat(done.finishedAt()).isNotNull();
+    }
+
+    @Test
+    void submit_failingTask_recordsErrorAndCanBeResubmitted() {
+        AnalyticsReportJob job = new AnalyticsReportJob(analyticsService, Duration.ofMinutes(5), Runnable::run);
+
+        job.submit("retention-rebuild", () -> {
+            throw new IllegalStateException("connection lost");
+        });
+
+        AnalyticsReportJob.TaskStatus failed = job.task("retention-rebuild").orElseThrow();
+        assertThat(failed.state()).isEqualTo(AnalyticsReportJob.TaskState.FAILED);
+        assertThat(failed.error()).isEqualTo("connection lost");
+        assertThat(job.submit("retention-rebuild", () -> 3).state()).isEqualTo(AnalyticsReportJob.TaskState.QUEUED);
+        assertThat(job.task("retention-rebuild").orElseThrow().count()).isEqualTo(3);
+    }
+}
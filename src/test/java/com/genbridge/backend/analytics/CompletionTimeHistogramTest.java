@@ -0,0 +1,39 @@
+package com.genbridge.backend.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompletionTimeHistogramTest {
+
+    @Test
+    void representativeSeconds_staysWithinRelativeAccuracyOfEveryValueInBucket() {
+        for (long seconds : new long[]{2, 59, 600, 3_600, 86_400, 30L * 86_400}) {
+            int bucket = CompletionTimeHistogram.bucketOf(Duration.ofSeconds(seconds));
+            double reported = CompletionTimeHistogram.representativeSeconds(bucket);
+
+            assertThat(Math.abs(reported - seconds) / seconds).isLessThanOrEqualTo(0.1);
+        }
+    }
+
+    @Test
+    void bucketOf_clampsSubSecondAndNegativeDurations() {
+        assertThat(CompletionTimeHistogram.bucketOf(Duration.ofMillis(300))).isZero();
+        assertThat(CompletionTimeHistogram.bucketOf(Duration.ofSeconds(-5))).isZero();
+    }
+
+    @Test
+    void quantileSeconds_walksBucketsInOrder() {
+        SortedMap<Integer, Long> counts = new TreeMap<>();
+        counts.put(CompletionTimeHistogram.bucketOf(Duration.ofMinutes(1)), 3L);
+        counts.put(CompletionTimeHistogram.bucketOf(Duration.ofHours(1)), 1L);
+
+        assertThat(CompletionTimeHistogram.quantileSeconds(counts, 0.5)).isBetween(54L, 66L);
+        assertThat(CompletionTimeHistogram.quantileSeconds(counts, 1.0)).isBetween(3_240L, 3_960L);
+        assertThat(CompletionTimeHistogram.quantileSeconds(new TreeMap<>(), 0.5)).isNull();
+    }
+}
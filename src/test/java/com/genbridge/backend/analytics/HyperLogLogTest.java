@@ -0,0 +1,78 @@
+package com.genbridge.backend.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HyperLogLogTest {
+
+    private final Random random = new Random(42);
+
+    @Test
+    void estimate_smallSets_areExact() {
+        HyperLogLog sketch = new HyperLogLog();
+        for (int i = 0; i < 50; i++) {
+            UUID learner = randomUuid();
+            sketch.add(learner);
+            sketch.add(learner);
+        }
+
+        assertThat(sketch.estimate()).isEqualTo(50L);
+    }
+
+    @Test
+    void estimate_largeSets_staysWithinThreeStandardErrors() {
+        HyperLogLog sketch = new HyperLogLog();
+        int distinct = 200_000;
+        for (int i = 0; i < distinct; i++) {
+            sketch.add(randomUuid());
+        }
+
+        double error = Math.abs(sketch.estimate() - distinct) / (double) distinct;
+        assertThat(error).isLessThan(3 * HyperLogLog.RELATIVE_ERROR);
+    }
+
+    @Test
+    void merge_countsOverlapOnceAndIsIdempotent() {
+        HyperLogLog monday = new HyperLogLog();
+        HyperLogLog tuesday = new HyperLogLog();
+        for (int i = 0; i < 3000; i++) {
+            UUID learner = randomUuid();
+            monday.add(learner);
+            if (i % 2 == 0) {
+                tuesday.add(learner);
+            }
+        }
+        for (int i = 0; i < 1000; i++) {
+            tuesday.add(randomUuid());
+        }
+
+        HyperLogLog week = monday.copy();
+        week.merge(tuesday);
+        long once = week.estimate();
+        week.merge(tuesday);
+
+        assertThat(week.estimate()).isEqualTo(once);
+        assertThat(Math.abs(once - 4000) / 4000.0).isLessThan(3 * HyperLogLog.RELATIVE_ERROR);
+    }
+
+    @Test
+    void toBytes_roundTripsAndCompressesSparseSketches() {
+        HyperLogLog sketch = new HyperLogLog();
+        for (int i = 0; i < 20; i++) {
+            sketch.add(randomUuid());
+        }
+
+        byte[] bytes = sketch.toBytes();
+
+        assertThat(bytes.length).isLessThan(HyperLogLog.REGISTERS / 10);
+        assertThat(HyperLogLog.fromBytes(bytes).estimate()).isEqualTo(sketch.estimate());
+    }
+
+    private UUID randomUuid() {
+        return new UUID(random.nextLong(), random.nextLong());
+    }
+}
@@ -0,0 +1,129 @@
+package com.genbridge.backend.config;
+
+import com.genbridge.backend.event.UserChangedEvent;
+import com.genbridge.backend.user.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuthPrincipalCacheTest {
+
+    private final MutableClock clock = new MutableClock();
+    private AuthPrincipalCache cache;
+    private User alice;
+
+    @BeforeEach
+    void setUp() {
+        cache = new AuthPrincipalCache(2, Duration.ofMinutes(5), clock);
+        alice = user("alice@example.com");
+    }
+
+    @Test
+    void get_afterPut_returnsCopyOfPrincipal() {
+        cache.put("token-a", alice, inMinutes(60));
+
+        User cached = cache.get("token-a").orElseThrow();
+        cached.setCurrentStreak(9);
+
+        assertThat(cached).isNotSameAs(alice);
+        assertThat(cached.getId()).isEqualTo(alice.getId());
+        assertThat(cached.getRole()).isEqualTo("LEARNER");
+        assertThat(cache.get("token-a").orElseThrow().getCurrentStreak()).isZero();
+    }
+
+    @Test
+    void get_unknownToken_isEmpty() {
+        cache.put("token-a", alice, inMinutes(60));
+
+        assertThat(cache.get("token-b")).isEmpty();
+    }
+
+    @Test
+    void get_pastTtl_isEmpty() {
+        cache.put("token-a", alice, inMinutes(60));
+
+        clock.advance(Duration.ofMinutes(5));
+
+        assertThat(cache.get("token-a")).isEmpty();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void get_pastTokenExpiry_isEmptyEvenWithinTtl() {
+        cache.put("token-a", alice, inMinutes(1));
+
+        clock.advance(Duration.ofMinutes(2));
+
+        assertThat(cache.get("token-a")).isEmpty();
+    }
+
+    @Test
+    void put_beyondMaxSize_dropsLeastRecentlyUsed() {
+        cache.put("token-a", alice, inMinutes(60));
+        cache.put("token-b", user("bob@example.com"), inMinutes(60));
+        cache.get("token-a");
+
+        cache.put("token-c", user("carol@example.com"), inMinutes(60));
+
+        assertThat(cache.get("token-a")).isPresent();
+        assertThat(cache.get("token-b")).isEmpty();
+        assertThat(cache.get("token-c")).isPresent();
+    }
+
+    @Test
+    void onUserChanged_dropsEveryTokenOfThatUserOnly() {
+        User bob = user("bob@example.com");
+        cache = new AuthPrincipalCache(10, Duration.ofMinutes(5), clock);
+        cache.put("token-a1", alice, inMinutes(60));
+        cache.put("token-a2", alice, inMinutes(60));
+        cache.put("token-b", bob, inMinutes(60));
+
+        cache.onUserChanged(new UserChangedEvent(alice.getId()));
+
+        assertThat(cache.get("token-a1")).isEmpty();
+        assertThat(cache.get("token-a2")).isEmpty();
+        assertThat(cache.get("token-b")).isPresent();
+    }
+
+    private Date inMinutes(long minutes) {
+        return Date.from(clock.instant().plus(Duration.ofMinutes(minutes)));
+    }
+
+    private static User user(String email) {
+        User user = new User("Name", email, "hashedpw", "LEARNER");
+        user.setId(UUID.randomUUID());
+        return user;
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2024-03-01T10:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
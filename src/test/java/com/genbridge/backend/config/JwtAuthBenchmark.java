@@ -0,0 +1,82 @@
+package com.genbridge.backend.config;
+
+import com.genbridge.backend.user.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Date;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request token handling in {@link JwtAuthFilter}, excluding the user lookup.
+ * {@code rebuildKeyAndParseTwice} is what the filter used to do — rebuild the key and parser and
+ * parse the token for the email and again for the expiry; {@code parseOnce} is a cache miss now,
+ * and {@code cacheHit} a repeat token.
+ * Not run by the test suite: run {@link #main} from the IDE, or
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.genbridge.backend.config.JwtAuthBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-that-is-at-least-256-bits-long-for-hs256";
+
+    private JwtUtil jwtUtil;
+    private AuthPrincipalCache principalCache;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil(SECRET, 900_000L, 604_800_000L);
+        User user = new User("Alice", "alice@example.com", "hashedpw", "LEARNER");
+        user.setId(UUID.randomUUID());
+        token = jwtUtil.generateAccessToken(user);
+
+        principalCache = new AuthPrincipalCache(10_000, 300);
+        principalCache.put(token, user, jwtUtil.extractClaims(token).getExpiration());
+    }
+
+    @Benchmark
+    public boolean rebuildKeyAndParseTwice() {
+        String email = Jwts.parser().verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes())).build()
+                .parseSignedClaims(token).getPayload().getSubject();
+        boolean expired = Jwts.parser().verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes())).build()
+                .parseSignedClaims(token).getPayload().getExpiration().before(new Date());
+        return email != null && !expired;
+    }
+
+    @Benchmark
+    public boolean parseOnce() {
+        Claims claims = jwtUtil.extractClaims(token);
+        return jwtUtil.isAccessToken(claims) && !jwtUtil.isExpired(claims) && jwtUtil.toPrincipal(claims) != null;
+    }
+
+    @Benchmark
+    public Optional<User> cacheHit() {
+        return principalCache.get(token);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JwtAuthBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,64 @@
+package com.genbridge.backend.config;
+
+import com.genbridge.backend.user.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtUtilTest {
+
+    private static final String SECRET = "test-secret-key-that-is-long-enough-for-hmac-sha256";
+
+    private final JwtUtil jwtUtil = new JwtUtil(SECRET, 900_000L, 604_800_000L);
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User("Alice", "alice@example.com", "hashedpw", "LEARNER");
+        user.setId(UUID.randomUUID());
+        user.revokeTokens();
+    }
+
+    @Test
+    void accessToken_roundTripsPrincipalWithoutLookup() {
+        user.setSuspended(true);
+        user.setSuspensionReason("Spam");
+
+        Claims claims = jwtUtil.extractClaims(jwtUtil.generateAccessToken(user));
+        User principal = jwtUtil.toPrincipal(claims);
+
+        assertThat(jwtUtil.isAccessToken(claims)).isTrue();
+        assertThat(jwtUtil.isRefreshToken(claims)).isFalse();
+        assertThat(principal.getId()).isEqualTo(user.getId());
+        assertThat(principal.getEmail()).isEqualTo("alice@example.com");
+        assertThat(principal.getName()).isEqualTo("Alice");
+        assertThat(principal.getRole()).isEqualTo("LEARNER");
+        assertThat(principal.getTokenVersion()).isEqualTo(1);
+        assertThat(principal.isSuspended()).isTrue();
+        assertThat(principal.getSuspensionReason()).isEqualTo("Spam");
+    }
+
+    @Test
+    void refreshToken_isNotAnAccessToken() {
+        Claims claims = jwtUtil.extractClaims(jwtUtil.generateRefreshToken(user));
+
+        assertThat(jwtUtil.isRefreshToken(claims)).isTrue();
+        assertThat(jwtUtil.isAccessToken(claims)).isFalse();
+        assertThat(jwtUtil.extractUserId(claims)).isEqualTo(user.getId());
+        assertThat(jwtUtil.extractTokenVersion(claims)).isEqualTo(1);
+    }
+
+    @Test
+    void extractClaims_otherSigningKey_isRejected() {
+        JwtUtil other = new JwtUtil(SECRET.replace('t', 'x'), 900_000L, 604_800_000L);
+        String token = other.generateAccessToken(user);
+
+        assertThatThrownBy(() -> jwtUtil.extractClaims(token)).isInstanceOf(JwtException.class);
+    }
+}
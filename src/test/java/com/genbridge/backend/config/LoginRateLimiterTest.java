@@ -0,0 +1,67 @@
+package com.genbridge.backend.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LoginRateLimiterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicLong nanos = new AtomicLong();
+
+    // 3 attempts per email, 5 per IP, each refilling at 6 per minute (one every 10 seconds)
+    private final LoginRateLimiter limiter =
+            new LoginRateLimiter(meterRegistry, 3, 6, 5, 6, 1000, 60_000, nanos::get);
+
+    @Test
+    void emailOverLimit_isRefusedWith429AndRetryAfter_untilATokenRefills() {
+        for (int i = 0; i < 3; i++) {
+            limiter.check("user@test.com", "10.0.0." + i);
+        }
+
+        assertThatThrownBy(() -> limiter.check(" USER@test.com", "10.0.0.9"))
+                .isInstanceOfSatisfying(TooManyLoginAttemptsException.class, e -> {
+                    assertThat(e.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+                    assertThat(e.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("10");
+                });
+        assertThat(meterRegistry.get("auth.login.rate_limited").tag("key", "email").counter().count()).isEqualTo(1.0);
+
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        assertThatCode(() -> limiter.check("user@test.com", "10.0.0.9")).doesNotThrowAnyException();
+    }
+
+    @Test
+    void ipOverLimit_isRefusedAcrossDifferentEmails() {
+        for (int i = 0; i < 5; i++) {
+            limiter.check("user" + i + "@test.com", "10.0.0.1");
+        }
+
+        assertThatThrownBy(() -> limiter.check("other@test.com", "10.0.0.1"))
+                .isInstanceOf(TooManyLoginAttemptsException.class);
+        assertThat(meterRegistry.get("auth.login.rate_limited").tag("key", "ip").counter().count()).isEqualTo(1.0);
+        assertThatCode(() -> limiter.check("other@test.com", "10.0.0.2")).doesNotThrowAnyException();
+    }
+
+    @Test
+    void evictIdle_dropsOnlyKeysThatHaveRefilled() {
+        limiter.check("idle@test.com", "10.0.0.1");
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(50));
+        for (int i = 0; i < 3; i++) {
+            limiter.check("busy@test.com", "10.0.0.2");
+        }
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(15));
+
+        limiter.evictIdle();
+
+        // idle@ and 10.0.0.1 were untouched for over a minute and are full again; busy@ and 10.0.0.2 are not
+        assertThat(meterRegistry.get("auth.login.rate_limit.keys").gauge().value()).isEqualTo(2.0);
+    }
+}
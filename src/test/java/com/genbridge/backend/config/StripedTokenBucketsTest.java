@@ -0,0 +1,38 @@
+package com.genbridge.backend.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StripedTokenBucketsTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    @Test
+    void tryAcquire_allowsBurstThenReportsWaitUntilNextToken() {
+        StripedTokenBuckets buckets = new StripedTokenBuckets(2, 60, 100, 4, nanos::get); // one token per second
+
+        assertThat(buckets.tryAcquire("a")).isZero();
+        assertThat(buckets.tryAcquire("a")).isZero();
+        assertThat(buckets.tryAcquire("a")).isEqualTo(1_000_000_000L);
+
+        nanos.addAndGet(400_000_000L);
+        assertThat(buckets.tryAcquire("a")).isEqualTo(600_000_000L);
+        nanos.addAndGet(600_000_000L);
+        assertThat(buckets.tryAcquire("a")).isZero();
+        assertThat(buckets.tryAcquire("b")).isZero();
+    }
+
+    @Test
+    void stripes_areBoundedAndDropLeastRecentlyUsedKeys() {
+        StripedTokenBuckets buckets = new StripedTokenBuckets(1, 60, 1, 1, nanos::get);
+
+        buckets.tryAcquire("a");
+        buckets.tryAcquire("b");
+
+        assertThat(buckets.size()).isEqualTo(1);
+        assertThat(buckets.tryAcquire("b")).isPositive();
+    }
+}
@@ -0,0 +1,127 @@
+package com.genbridge.backend.config;
+
+import com.genbridge.backend.entity.RevokedToken;
+import com.genbridge.backend.repository.RevokedTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TokenDenylistTest {
+
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+
+    private TokenDenylist denylist;
+
+    @BeforeEach
+    void setUp() {
+        denylist = new TokenDenylist(revokedTokenRepository, 100);
+    }
+
+    @Test
+    void revoke_storesAndRefusesToken() {
+        when(revokedTokenRepository.insertIfAbsent(eq("jti-1"), any(), any(), any())).thenReturn(1);
+
+        denylist.revoke("jti-1", UUID.randomUUID(), inMinutes(15));
+
+        assertThat(denylist.isRevoked("jti-1")).isTrue();
+        assertThat(denylist.isRevoked("jti-2")).isFalse();
+    }
+
+    @Test
+    void revoke_expiredToken_isIgnored() {
+        denylist.revoke("jti-1", UUID.randomUUID(), inMinutes(-1));
+
+        assertThat(denylist.isRevoked("jti-1")).isFalse();
+        verify(revokedTokenRepository, never()).insertIfAbsent(any(), any(), any(), any());
+    }
+
+    @Test
+    void consume_firstUse_succeedsAndSecondIsRefused() {
+        when(revokedTokenRepository.insertIfAbsent(eq("jti-1"), any(), any(), any())).thenReturn(1);
+
+        assertThat(denylist.consume("jti-1", UUID.randomUUID(), inMinutes(15))).isTrue();
+        assertThat(denylist.consume("jti-1", UUID.randomUUID(), inMinutes(15))).isFalse();
+        verify(revokedTokenRepository, times(1)).insertIfAbsent(any(), any(), any(), any());
+    }
+
+    @Test
+    void consume_alreadyRevokedInDatabase_isRefusedAndNotRemembered() {
+        when(revokedTokenRepository.insertIfAbsent(eq("jti-1"), any(), any(), any())).thenReturn(0);
+
+        assertThat(denylist.consume("jti-1", UUID.randomUUID(), inMinutes(15))).isFalse();
+        assertThat(denylist.size()).isZero();
+    }
+
+    @Test
+    void consume_insideTransaction_reachesMemoryOnlyAfterCommit() {
+        when(revokedTokenRepository.insertIfAbsent(eq("jti-1"), any(), any(), any())).thenReturn(1);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertThat(denylist.consume("jti-1", UUID.randomUUID(), inMinutes(15))).isTrue();
+            assertThat(denylist.isRevoked("jti-1")).isFalse();
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(denylist.isRevoked("jti-1")).isTrue();
+    }
+
+    @Test
+    void load_restoresRevocationsStillInForce() {
+        when(revokedTokenRepository.findByExpiresAtAfter(any())).thenReturn(List.of(
+                new RevokedToken("jti-1", UUID.randomUUID(), LocalDateTime.now().plusMinutes(10))));
+
+        denylist.load();
+
+        assertThat(denylist.isRevoked("jti-1")).isTrue();
+    }
+
+    @Test
+    void revoke_pastFilterCapacity_keepsEveryEntry() {
+        when(revokedTokenRepository.insertIfAbsent(any(), any(), any(), any())).thenReturn(1);
+        for (int i = 0; i < 250; i++) {
+            denylist.revoke("jti-" + i, UUID.randomUUID(), inMinutes(15));
+        }
+
+        assertThat(denylist.size()).isEqualTo(250);
+        for (int i = 0; i < 250; i++) {
+            assertThat(denylist.isRevoked("jti-" + i)).isTrue();
+        }
+    }
+
+    @Test
+    void purgeExpired_deletesExpiredRows() {
+        when(revokedTokenRepository.insertIfAbsent(any(), any(), any(), any())).thenReturn(1);
+        denylist.revoke("jti-1", UUID.randomUUID(), inMinutes(15));
+
+        denylist.purgeExpired();
+
+        verify(revokedTokenRepository).deleteExpired(any());
+        assertThat(denylist.isRevoked("jti-1")).isTrue();
+    }
+
+    private static Date inMinutes(long minutes) {
+        return new Date(System.currentTimeMillis() + minutes * 60_000);
+    }
+}
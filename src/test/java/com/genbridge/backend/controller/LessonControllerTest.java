@@ -1,11 +1,13 @@
 package com.genbridge.backend.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.genbridge.backend.config.AuthPrincipalCache;
 import com.genbridge.backend.config.JwtUtil;
 import com.genbridge.backend.config.SecurityConfig;
+import com.genbridge.backend.config.TokenDenylist;
+import com.genbridge.backend.config.TokenVersionRegistry;
 import com.genbridge.backend.entity.Lesson;
 import com.genbridge.backend.services.LessonService;
-import com.genbridge.backend.user.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -41,7 +43,9 @@ class LessonControllerTest {
 
     // Beans needed by JwtAuthFilter
     @MockBean JwtUtil jwtUtil;
-    @MockBean UserRepository userRepository;
+    @MockBean AuthPrincipalCache principalCache;
+    @MockBean TokenVersionRegistry tokenVersions;
+    @MockBean TokenDenylist tokenDenylist;
 
     private Lesson lesson;
 
@@ -123,6 +123,30 @@ class AuthIntegrationTest {
             .statusCode(HttpStatus.UNAUTHORIZED.value());
     }
 
+    @Test
+    void login_repeatedFailuresForOneEmail_returns429WithRetryAfter() {
+        String body = """
+            {
+              "email": "Target@test.com",
+              "password": "WrongPassword@1"
+            }
+            """;
+        for (int i = 0; i < 5; i++) {
+            given().contentType(MediaType.APPLICATION_JSON_VALUE).body(body)
+            .when().post("/api/auth/login")
+            .then().statusCode(HttpStatus.UNAUTHORIZED.value());
+        }
+
+        given()
+            .contentType(MediaType.APPLICATION_JSON_VALUE)
+            .body(body.replace("Target@", "target@"))
+        .when()
+            .post("/api/auth/login")
+        .then()
+            .statusCode(HttpStatus.TOO_MANY_REQUESTS.value())
+            .header("Retry-After", notNullValue());
+    }
+
     @Test
     void protectedEndpoint_withoutToken_returns403() {
         given()
@@ -131,4 +155,157 @@ class AuthIntegrationTest {
         .then()
             .statusCode(HttpStatus.FORBIDDEN.value());
     }
+
+    @Test
+    void refresh_afterPasswordChange_isRejected() {
+        given()
+            .contentType(MediaType.APPLICATION_JSON_VALUE)
+            .body("""
+                {
+                  "name": "Refresh Test",
+                  "email": "refreshtest@test.com",
+                  "password": "Password@123"
+                }
+                """)
+        .when()
+            .post("/api/auth/register");
+
+        String loginBody = """
+            {
+              "email": "refreshtest@test.com",
+              "password": "Password@123"
+            }
+            """;
+        String accessToken = given().contentType(MediaType.APPLICATION_JSON_VALUE).body(loginBody)
+                .when().post("/api/auth/login").then().extract().path("token");
+        String refreshToken = given().contentType(MediaType.APPLICATION_JSON_VALUE).body(loginBody)
+                .when().post("/api/auth/login").then().extract().path("refreshToken");
+
+        // A refresh token is exchanged for a working access token
+        String renewed = given()
+            .contentType(MediaType.APPLICATION_JSON_VALUE)
+            .body("{\"refreshToken\": \"" + refreshToken + "\"}")
+        .when()
+            .post("/api/auth/refresh")
+        .then()
+            .statusCode(HttpStatus.OK.value())
+            .body("refreshToken", notNullValue())
+            .extract().path("token");
+
+        given()
+            .header("Authorization", "Bearer " + renewed)
+        .when()
+            .get("/api/profile")
+        .then()
+            .statusCode(HttpStatus.OK.value())
+            .body("email", equalTo("refreshtest@test.com"));
+
+        // A refresh token works once: reusing it is refused
+        given()
+            .contentType(MediaType.APPLICATION_JSON_VALUE)
+            .body("{\"refreshToken\": \"" + refreshToken + "\"}")
+        .when()
+            .post("/api/auth/refresh")
+        .then()
+            .statusCode(HttpStatus.UNAUTHORIZED.value());
+
+        // Refresh tokens are not accepted as access tokens
+        given()
+            .header("Authorization", "Bearer " + refreshToken)
+        .when()
+            .get("/api/profile")
+        .then()
+            .statusCode(HttpStatus.FORBIDDEN.value());
+
+        // Changing the password revokes every token issued before it
+        given()
+            .header("Authorization", "Bearer " + accessToken)
+            .contentType(MediaType.APPLICATION_JSON_VALUE)
+            .body("""
+                {
+                  "oldPassword": "Password@123",
+                  "newPassword": "Password@456"
+                }
+                """)
+        .when()
+            .put("/api/auth/change-password")
+        .then()
+            .statusCode(HttpStatus.OK.value());
+
+        given()
+            .header("Authorization", "Bearer " + renewed)
+        .when()
+            .get("/api/profile")
+        .then()
+            .statusCode(HttpStatus.FORBIDDEN.value());
+
+        given()
+            .contentType(MediaType.APPLICATION_JSON_VALUE)
+            .body("{\"refreshToken\": \"" + refreshToken + "\"}")
+        .when()
+            .post("/api/auth/refresh")
+        .then()
+            .statusCode(HttpStatus.UNAUTHORIZED.value());
+    }
+
+    @Test
+    void logout_revokesAccessAndRefreshTokens() {
+        given()
+            .contentType(MediaType.APPLICATION_JSON_VALUE)
+            .body("""
+                {
+                  "name": "Logout Test",
+                  "email": "logouttest@test.com",
+                  "password": "Password@123"
+                }
+                """)
+        .when()
+            .post("/api/auth/register");
+
+        var login = given()
+            .contentType(MediaType.APPLICATION_JSON_VALUE)
+            .body("""
+                {
+                  "email": "logouttest@test.com",
+                  "password": "Password@123"
+                }
+                """)
+        .when()
+            .post("/api/auth/login")
+        .then()
+            .extract();
+        String accessToken = login.path("token");
+        String refreshToken = login.path("refreshToken");
+
+        given()
+            .header("Authorization", "Bearer " + accessToken)
+        .when()
+            .get("/api/profile")
+        .then()
+            .statusCode(HttpStatus.OK.value());
+
+        given()
+            .header("Authorization", "Bearer " + accessToken)
+            .contentType(MediaType.APPLICATION_JSON_VALUE)
+            .body("{\"refreshToken\": \"" + refreshToken + "\"}")
+        .when()
+            .post("/api/auth/logout")
+        .then()
+            .statusCode(HttpStatus.OK.value());
+
+        given()
+            .header("Authorization", "Bearer " + accessToken)
+        .when()
+            .get("/api/profile")
+        .then()
+            .statusCode(HttpStatus.FORBIDDEN.value());
+
+        given()
+            .contentType(MediaType.APPLICATION_JSON_VALUE)
+            .body("{\"refreshToken\": \"" + refreshToken + "\"}")
+        .when()
+            .post("/api/auth/refresh")
+        .then()
+            .statusCode(HttpStatus.UNAUTHORIZED.value());
+    }
 }
@@ -0,0 +1,99 @@
+package com.genbridge.backend.integration;
+
+import com.genbridge.backend.entity.Quest;
+import com.genbridge.backend.entity.QuestCompletion;
+import com.genbridge.backend.entity.QuizAttempt;
+import com.genbridge.backend.export.ExportDataset;
+import com.genbridge.backend.export.ExportFormat;
+import com.genbridge.backend.repository.QuestCompletionRepository;
+import com.genbridge.backend.repository.QuestRepository;
+import com.genbridge.backend.repository.QuizAttemptRepository;
+import com.genbridge.backend.services.ExportService;
+import com.genbridge.backend.user.User;
+import com.genbridge.backend.user.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "export.fetch-size=1")
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class ExportIntegrationTest {
+
+    @Autowired private ExportService exportService;
+    @Autowired private UserRepository userRepository;
+    @Autowired private QuizAttemptRepository quizAttemptRepository;
+    @Autowired private QuestRepository questRepository;
+    @Autowired private QuestCompletionRepository questCompletionRepository;
+
+    @Test
+    void quizAttempts_ndjson_filtersByInclusiveDateRange() throws Exception {
+        User alice = userRepository.save(new User("Alice", "alice@test.com", "hash", "LEARNER"));
+        saveAttempt(alice, LocalDateTime.of(2026, 3, 1, 23, 59));
+        QuizAttempt inRange = saveAttempt(alice, LocalDateTime.of(2026, 3, 2, 0, 0));
+        saveAttempt(alice, LocalDateTime.of(2026, 3, 3, 23, 59));
+        saveAttempt(alice, LocalDateTime.of(2026, 3, 4, 0, 0));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long rows = exportService.export(ExportDataset.QUIZ_ATTEMPTS, ExportFormat.NDJSON,
+                LocalDate.of(2026, 3, 2), LocalDate.of(2026, 3, 3), out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(rows).isEqualTo(2);
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).startsWith("{\"id\":" + inRange.getId() + ",\"user_id\":\"" + alice.getId() + "\"")
+                .contains("\"question_id\":null", "\"score\":80", "\"submitted_at\":\"2026-03-02T00:00\"");
+        assertThat(lines[1]).contains("\"submitted_at\":\"2026-03-03T23:59\"");
+    }
+
+    @Test
+    void questCompletions_csv_quotesFreeText() throws Exception {
+        User bob = userRepository.save(new User("Bob", "bob@test.com", "hash", "LEARNER"));
+        Quest quest = new Quest();
+        quest.setTitle("Quest");
+        quest.setDescription("Description");
+        quest.setInstruction("Instruction");
+        quest = questRepository.save(quest);
+        QuestCompletion completion = new QuestCompletion();
+        completion.setQuest(quest);
+        completion.setUser(bob);
+        completion.setReflection("Asked my nephew, \"what's rizz\", then\nlaughed");
+        completion = questCompletionRepository.save(completion);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(ExportDataset.QUEST_COMPLETIONS, ExportFormat.CSV, null, null, out);
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).startsWith(
+                "id,quest_id,user_id,reflection,completed_at\r\n"
+                        + completion.getId() + "," + quest.getId() + "," + bob.getId()
+                        + ",\"Asked my nephew, \"\"what's rizz\"\", then\nlaughed\",");
+    }
+
+    @Test
+    void export_rejectsInvertedRange() {
+        assertThatThrownBy(() -> exportService.export(ExportDataset.LESSON_PROGRESS, ExportFormat.CSV,
+                LocalDate.of(2026, 3, 3), LocalDate.of(2026, 3, 2), new ByteArrayOutputStream()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private QuizAttempt saveAttempt(User user, LocalDateTime submittedAt) {
+        QuizAttempt attempt = new QuizAttempt();
+        attempt.setUserId(user.getId());
+        attempt.setLessonId(1L);
+        attempt.setScore(80);
+        attempt.setTotalQuestions(5);
+        attempt.setCorrectAnswers(4);
+        attempt.setSubmittedAt(submittedAt);
+        return quizAttemptRepository.save(attempt);
+    }
+}
@@ -129,4 +129,58 @@ class LessonIntegrationTest {
         .then()
             .statusCode(HttpStatus.NOT_FOUND.value());
     }
+
+    @Test
+    void answerQuestions_batch_gradesEachAnswerAndCompletesLesson() {
+        Integer lessonId = given()
+            .header("Authorization", "Bearer " + adminToken)
+            .contentType(MediaType.APPLICATION_JSON_VALUE)
+            .body("""
+                {"title":"Batch Lesson","description":"d","difficulty":"BEGINNER","objective":"o"}
+                """)
+            .post("/api/lessons")
+            .then().extract().path("id");
+        Integer first = createQuestion(lessonId, 1);
+        Integer second = createQuestion(lessonId, 2);
+
+        given()
+            .header("Authorization", "Bearer " + learnerToken)
+            .contentType(MediaType.APPLICATION_JSON_VALUE)
+            .body("""
+                {"answers":[{"questionId":%d,"selectedIndex":0},{"questionId":%d,"selectedIndex":2}]}
+                """.formatted(first, second))
+        .when()
+            .post("/api/lessons/" + lessonId + "/quiz/answers")
+        .then()
+            .statusCode(HttpStatus.OK.value())
+            .body("results", hasSize(2))
+            .body("results[0].correct", equalTo(false))
+            .body("results[1].correct", equalTo(true))
+            .body("completed", equalTo(false));
+
+        given()
+            .header("Authorization", "Bearer " + learnerToken)
+            .contentType(MediaType.APPLICATION_JSON_VALUE)
+            .body("""
+                {"answers":[{"questionId":%d,"selectedIndex":1}]}
+                """.formatted(first))
+        .when()
+            .post("/api/lessons/" + lessonId + "/quiz/answers")
+        .then()
+            .statusCode(HttpStatus.OK.value())
+            .body("correctCount", equalTo(1))
+            .body("completed", equalTo(true));
+    }
+
+    private Integer createQuestion(Integer lessonId, int correctIndex) {
+        return given()
+            .header("Authorization", "Bearer " + adminToken)
+            .contentType(MediaType.APPLICATION_JSON_VALUE)
+            .body("""
+                {"questionText":"Q?","options":["A","B","C","D"],"correctIndex":%d}
+                """.formatted(correctIndex))
+            .post("/api/lessons/" + lessonId + "/quiz")
+            .then().statusCode(HttpStatus.CREATED.value())
+            .extract().path("id");
+    }
 }
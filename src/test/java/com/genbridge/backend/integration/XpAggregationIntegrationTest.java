@@ -0,0 +1,100 @@
+package com.genbridge.backend.integration;
+
+import com.genbridge.backend.entity.Lesson;
+import com.genbridge.backend.entity.LessonProgress;
+import com.genbridge.backend.entity.Quest;
+import com.genbridge.backend.entity.QuestCompletion;
+import com.genbridge.backend.repository.LessonProgressRepository;
+import com.genbridge.backend.repository.LessonRepository;
+import com.genbridge.backend.repository.QuestCompletionRepository;
+import com.genbridge.backend.repository.QuestRepository;
+import com.genbridge.backend.repository.UserXpRepository;
+import com.genbridge.backend.services.XpRules;
+import com.genbridge.backend.user.User;
+import com.genbridge.backend.user.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class XpAggregationIntegrationTest {
+
+    @Autowired private UserRepository userRepository;
+    @Autowired private LessonRepository lessonRepository;
+    @Autowired private LessonProgressRepository lessonProgressRepository;
+    @Autowired private QuestRepository questRepository;
+    @Autowired private QuestCompletionRepository questCompletionRepository;
+    @Autowired private UserXpRepository userXpRepository;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void aggregateXpByUser_appliesXpRulesInOneStatement() {
+        User alice = userRepository.save(new User("Alice", "alice@test.com", "hash", "LEARNER"));
+        User bob = userRepository.save(new User("Bob", "bob@test.com", "hash", "LEARNER"));
+        userRepository.save(new User("Carol", "carol@test.com", "hash", "LEARNER"));
+
+        Lesson beginner = lessonRepository.save(lesson("beginner"));
+        Lesson advanced = lessonRepository.save(lesson("ADVANCED"));
+        completeLesson(alice, beginner);
+        completeLesson(alice, advanced);
+        completeLesson(bob, beginner);
+        LessonProgress started = new LessonProgress();
+        started.setUserId(bob.getId());
+        started.setLessonId(advanced.getId());
+        lessonProgressRepository.save(started);
+
+        Quest quest = new Quest();
+        quest.setTitle("Quest");
+        quest.setDescription("Description");
+        quest.setInstruction("Instruction");
+        quest = questRepository.save(quest);
+        QuestCompletion completion = new QuestCompletion();
+        completion.setQuest(quest);
+        completion.setUser(bob);
+        completion.setReflection("Done");
+        questCompletionRepository.save(completion);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<Object[]> rows = userXpRepository.aggregateXpByUser();
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(rows).hasSize(2);
+        assertThat(rows.get(0)[0]).isEqualTo(alice.getId());
+        assertThat(((Number) rows.get(0)[1]).intValue())
+                .isEqualTo(XpRules.BEGINNER_LESSON_XP + XpRules.ADVANCED_LESSON_XP);
+        assertThat(((Number) rows.get(0)[2]).intValue()).isEqualTo(2);
+        assertThat(rows.get(0)[3]).isNull();
+        assertThat(rows.get(1)[0]).isEqualTo(bob.getId());
+        assertThat(((Number) rows.get(1)[1]).intValue()).isEqualTo(XpRules.BEGINNER_LESSON_XP);
+        assertThat(((Number) rows.get(1)[3]).intValue()).isEqualTo(XpRules.QUEST_XP);
+        assertThat(((Number) rows.get(1)[4]).intValue()).isEqualTo(1);
+    }
+
+    private Lesson lesson(String difficulty) {
+        Lesson lesson = new Lesson();
+        lesson.setTitle("Lesson " + difficulty);
+        lesson.setDifficulty(difficulty);
+        return lesson;
+    }
+
+    private void completeLesson(User user, Lesson lesson) {
+        LessonProgress progress = new LessonProgress();
+        progress.setUserId(user.getId());
+        progress.setLessonId(lesson.getId());
+        progress.setCompleted(true);
+        lessonProgressRepository.save(progress);
+    }
+}
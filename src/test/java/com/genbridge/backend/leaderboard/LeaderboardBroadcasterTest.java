@@ -0,0 +1,116 @@
+package com.genbridge.backend.leaderboard;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class LeaderboardBroadcasterTest {
+
+    private final LeaderboardEntry alice = new LeaderboardEntry(UUID.randomUUID(), "Alice", 50, 4, 2);
+    private final LeaderboardEntry bob = new LeaderboardEntry(UUID.randomUUID(), "Bob", 40, 3, 1);
+    private final LeaderboardEntry cara = new LeaderboardEntry(UUID.randomUUID(), "Cara", 30, 2, 0);
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void delta_reportsMovedAndRemovedEntries() {
+        LeaderboardEntry boostedCara = cara.withXp(60, 3);
+
+        Map<String, Object> delta = LeaderboardBroadcaster.delta(List.of(alice, bob), List.of(boostedCara, alice));
+
+        List<Map<String, Object>> changed = (List<Map<String, Object>>) delta.get("changed");
+        assertThat(changed).extracting(view -> view.get("name")).containsExactly("Cara", "Alice");
+        assertThat(changed).extracting(view -> view.get("rank")).containsExactly(1, 2);
+        assertThat((List<UUID>) delta.get("removed")).containsExactly(bob.userId());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void delta_unchangedPrefix_isOmitted() {
+        Map<String, Object> delta = LeaderboardBroadcaster.delta(List.of(alice, bob), List.of(alice, bob, cara));
+
+        List<Map<String, Object>> changed = (List<Map<String, Object>>) delta.get("changed");
+        assertThat(changed).extracting(view -> view.get("name")).containsExactly("Cara");
+        assertThat((List<UUID>) delta.get("removed")).isEmpty();
+    }
+
+    @Test
+    void stalledSubscriber_doesNotHoldUpOthers_andIsDroppedWhenItFallsBehind() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ExecutorService senders = Executors.newFixedThreadPool(2);
+        LeaderboardBroadcaster broadcaster =
+                new LeaderboardBroadcaster(mock(LeaderboardIndex.class), meterRegistry, 60_000, 2, senders);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch stalledCompleted = new CountDownLatch(1);
+        AtomicInteger stalledSends = new AtomicInteger();
+        AtomicInteger healthySends = new AtomicInteger();
+        try {
+            broadcaster.register(new SseEmitter() {
+                @Override
+                public void send(SseEventBuilder event) {
+                    stalledSends.incrementAndGet();
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+
+                @Override
+                public void complete() {
+                    stalledCompleted.countDown();
+                }
+            });
+            broadcaster.register(new SseEmitter() {
+                @Override
+                public void send(SseEventBuilder event) {
+                    healthySends.incrementAndGet();
+                }
+            });
+            waitForSubscribers(broadcaster, 2);
+
+            // Each keep-alive reaches the healthy client while the other is stuck on its snapshot
+            for (int i = 1; i <= 5; i++) {
+                broadcaster.heartbeat();
+                waitFor(healthySends, i + 1);
+            }
+
+            assertThat(broadcaster.subscriberCount()).isEqualTo(1);
+            assertThat(meterRegistry.get("leaderboard.stream.dropped").counter().count()).isEqualTo(1.0);
+
+            release.countDown();
+            assertThat(stalledCompleted.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(stalledSends.get()).isEqualTo(1);
+        } finally {
+            release.countDown();
+            broadcaster.shutdown();
+        }
+    }
+
+    private static void waitFor(AtomicInteger sends, int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (sends.get() < count && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(sends.get()).isEqualTo(count);
+    }
+
+    private static void waitForSubscribers(LeaderboardBroadcaster broadcaster, int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (broadcaster.subscriberCount() < count && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(broadcaster.subscriberCount()).isEqualTo(count);
+    }
+}
@@ -0,0 +1,127 @@
+package com.genbridge.backend.leaderboard;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LeaderboardIndexTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private LeaderboardIndex index;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        index = new LeaderboardIndex(meterRegistry);
+    }
+
+    @Test
+    void top_returnsHighestXpFirst() {
+        index.upsert(entry("Alice", 30));
+        index.upsert(entry("Bob", 50));
+        index.upsert(entry("Cara", 10));
+
+        assertThat(index.top(2)).extracting(LeaderboardEntry::name).containsExactly("Bob", "Alice");
+        assertThat(index.top(10)).hasSize(3);
+    }
+
+    @Test
+    void upsert_existingUser_movesEntry() {
+        LeaderboardEntry alice = entry("Alice", 10);
+        index.upsert(alice);
+        index.upsert(entry("Bob", 20));
+
+        index.upsert(alice.withXp(40, 2));
+
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(index.top(1).get(0).name()).isEqualTo("Alice");
+        assertThat(index.get(alice.userId())).get().extracting(LeaderboardEntry::xp).isEqualTo(40);
+    }
+
+    @Test
+    void remove_dropsEntry() {
+        LeaderboardEntry alice = entry("Alice", 10);
+        index.upsert(alice);
+
+        index.remove(alice.userId());
+
+        assertThat(index.size()).isZero();
+        assertThat(index.get(alice.userId())).isEmpty();
+    }
+
+    @Test
+    void randomUpdates_matchFullSort() {
+        Random random = new Random(42);
+        List<LeaderboardEntry> entries = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            entries.add(entry("user" + i, random.nextInt(200)));
+        }
+        index.replaceAll(entries);
+        for (int i = 0; i < 2000; i++) {
+            int pick = random.nextInt(entries.size());
+            LeaderboardEntry updated = entries.get(pick).withXp(random.nextInt(200), 0);
+            entries.set(pick, updated);
+            index.upsert(updated);
+        }
+
+        List<LeaderboardEntry> sorted = entries.stream().sorted(LeaderboardEntry.RANKING).toList();
+        assertThat(index.top(25)).containsExactlyElementsOf(sorted.subList(0, 25));
+        assertThat(index.size()).isEqualTo(500);
+        for (int rank = 1; rank <= sorted.size(); rank += 37) {
+            assertThat(index.standing(sorted.get(rank - 1).userId(), 0).orElseThrow().rank()).isEqualTo(rank);
+        }
+    }
+
+    @Test
+    void standing_returnsRankAndNeighbours() {
+        List<LeaderboardEntry> entries = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            entries.add(entry("user" + i, i * 10)); // user9 is first, user0 last
+        }
+        index.replaceAll(entries);
+
+        LeaderboardStanding standing = index.standing(entries.get(5).userId(), 2).orElseThrow();
+
+        assertThat(standing.rank()).isEqualTo(5);
+        assertThat(standing.totalLearners()).isEqualTo(10);
+        assertThat(standing.above()).extracting(LeaderboardEntry::name).containsExactly("user7", "user6");
+        assertThat(standing.below()).extracting(LeaderboardEntry::name).containsExactly("user4", "user3");
+    }
+
+    @Test
+    void standing_atEdges_truncatesNeighbours() {
+        LeaderboardEntry top = entry("top", 100);
+        LeaderboardEntry bottom = entry("bottom", 0);
+        index.replaceAll(List.of(top, entry("middle", 50), bottom));
+
+        LeaderboardStanding first = index.standing(top.userId(), 3).orElseThrow();
+        LeaderboardStanding last = index.standing(bottom.userId(), 3).orElseThrow();
+
+        assertThat(first.rank()).isEqualTo(1);
+        assertThat(first.above()).isEmpty();
+        assertThat(first.below()).extracting(LeaderboardEntry::name).containsExactly("middle", "bottom");
+        assertThat(last.rank()).isEqualTo(3);
+        assertThat(last.above()).extracting(LeaderboardEntry::name).containsExactly("top", "middle");
+        assertThat(last.below()).isEmpty();
+        assertThat(index.standing(UUID.randomUUID(), 1)).isEmpty();
+    }
+
+    @Test
+    void metrics_reportSizeAndUpdates() {
+        index.upsert(entry("Alice", 10));
+
+        assertThat(meterRegistry.get("leaderboard.index.size").gauge().value()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("leaderboard.index.update").timer().count()).isEqualTo(1);
+    }
+
+    private LeaderboardEntry entry(String name, int xp) {
+        return new LeaderboardEntry(UUID.randomUUID(), name, xp, 0, 0);
+    }
+}
@@ -0,0 +1,118 @@
+package com.genbridge.backend.leaderboard;
+
+import com.genbridge.backend.entity.LeaderboardSnapshot;
+import com.genbridge.backend.repository.UserXpRepository;
+import com.genbridge.backend.user.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LeaderboardIndexUpdaterTest {
+
+    @Mock private UserXpRepository userXpRepository;
+    @Mock private UserRepository userRepository;
+    @Mock private LeaderboardSnapshotter snapshotter;
+    @Mock private LeaderboardBroadcaster broadcaster;
+
+    private LeaderboardIndex index;
+    private LeaderboardIndexUpdater updater;
+
+    private final LeaderboardEntry alice = new LeaderboardEntry(UUID.randomUUID(), "Alice", 40, 3, 2);
+    private final LeaderboardEntry bob = new LeaderboardEntry(UUID.randomUUID(), "Bob", 20, 1, 1);
+
+    @BeforeEach
+    void setUp() {
+        index = new LeaderboardIndex(new SimpleMeterRegistry());
+        updater = new LeaderboardIndexUpdater(index, userXpRepository, userRepository, snapshotter, broadcaster, 60);
+    }
+
+    @Test
+    void run_withSnapshot_replaysOnlyChangedLearners() {
+        LocalDateTime takenAt = LocalDateTime.now().minusMinutes(5);
+        when(snapshotter.latest()).thenReturn(Optional.of(snapshot(takenAt, List.of(alice, bob))));
+        when(userXpRepository.findLearnerStandingsChangedSince(takenAt.minusSeconds(60), takenAt.minusSeconds(60).toLocalDate()))
+                .thenReturn(List.<Object[]>of(new Object[]{bob.userId(), "Bob", 65, 4, 2}));
+        when(userRepository.countByRoleNot("ADMIN")).thenReturn(2L);
+
+        updater.run();
+
+        assertThat(index.top(2)).extracting(LeaderboardEntry::name).containsExactly("Bob", "Alice");
+        assertThat(index.get(bob.userId()).orElseThrow().xp()).isEqualTo(65);
+        verify(userXpRepository, never()).findLearnerStandings();
+        verify(broadcaster).refresh();
+    }
+
+    @Test
+    void run_snapshotMissingLearners_fallsBackToFullReload() {
+        LocalDateTime takenAt = LocalDateTime.now().minusMinutes(5);
+        when(snapshotter.latest()).thenReturn(Optional.of(snapshot(takenAt, List.of(alice))));
+        when(userXpRepository.findLearnerStandingsChangedSince(any(), any())).thenReturn(List.of());
+        when(userRepository.countByRoleNot("ADMIN")).thenReturn(2L);
+        when(userXpRepository.findLearnerStandings()).thenReturn(List.of(
+                new Object[]{alice.userId(), "Alice", 40, 3, 2},
+                new Object[]{bob.userId(), "Bob", 0, 0, 0}));
+
+        updater.run();
+
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    void run_replayFails_fallsBackToFullReload() {
+        LocalDateTime takenAt = LocalDateTime.now().minusMinutes(5);
+        when(snapshotter.latest()).thenReturn(Optional.of(snapshot(takenAt, List.of(alice))));
+        when(userXpRepository.findLearnerStandingsChangedSince(any(), any()))
+                .thenThrow(new IllegalStateException("query failed"));
+        when(userXpRepository.findLearnerStandings()).thenReturn(List.<Object[]>of(
+                new Object[]{alice.userId(), "Alice", 40, 3, 2}));
+
+        updater.run();
+
+        assertThat(index.top(1)).containsExactly(alice);
+        verify(broadcaster).refresh();
+    }
+
+    @Test
+    void run_fullReloadFails_propagates() {
+        when(snapshotter.latest()).thenReturn(Optional.empty());
+        when(userXpRepository.findLearnerStandings()).thenThrow(new IllegalStateException("query failed"));
+
+        assertThatThrownBy(() -> updater.run()).isInstanceOf(IllegalStateException.class);
+        verify(broadcaster, never()).refresh();
+    }
+
+    @Test
+    void run_withoutSnapshot_loadsFromLedger() {
+        when(snapshotter.latest()).thenReturn(Optional.empty());
+        when(userXpRepository.findLearnerStandings()).thenReturn(List.<Object[]>of(
+                new Object[]{alice.userId(), "Alice", 40, 3, 2}));
+
+        updater.run();
+
+        assertThat(index.top(1)).containsExactly(alice);
+    }
+
+    private LeaderboardSnapshot snapshot(LocalDateTime takenAt, List<LeaderboardEntry> entries) {
+        LeaderboardSnapshot snapshot = new LeaderboardSnapshot();
+        snapshot.setTakenAt(takenAt);
+        snapshot.setEntryCount(entries.size());
+        snapshot.setData(LeaderboardSnapshotCodec.encode(entries));
+        return snapshot;
+    }
+}
@@ -0,0 +1,43 @@
+package com.genbridge.backend.leaderboard;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LeaderboardSnapshotCodecTest {
+
+    @Test
+    void encode_thenDecode_roundTripsEntries() {
+        List<LeaderboardEntry> entries = List.of(
+                new LeaderboardEntry(UUID.randomUUID(), "Alice", 120, 8, 3),
+                new LeaderboardEntry(UUID.randomUUID(), "Zoë", 0, 0, 0),
+                new LeaderboardEntry(UUID.randomUUID(), null, 15, 1, 1));
+
+        List<LeaderboardEntry> decoded = LeaderboardSnapshotCodec.decode(LeaderboardSnapshotCodec.encode(entries));
+
+        assertThat(decoded).hasSize(3);
+        assertThat(decoded.subList(0, 2)).containsExactlyElementsOf(entries.subList(0, 2));
+        assertThat(decoded.get(2).name()).isEmpty();
+    }
+
+    @Test
+    void encode_isCompact() {
+        List<LeaderboardEntry> entries = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            entries.add(new LeaderboardEntry(UUID.randomUUID(), "Learner " + i, i % 500, i % 20, i % 7));
+        }
+
+        assertThat(LeaderboardSnapshotCodec.encode(entries).length).isLessThan(10_000 * 40);
+    }
+
+    @Test
+    void decode_garbage_throws() {
+        assertThatThrownBy(() -> LeaderboardSnapshotCodec.decode(new byte[]{1, 2, 3}))
+                .isInstanceOf(RuntimeException.class);
+    }
+}
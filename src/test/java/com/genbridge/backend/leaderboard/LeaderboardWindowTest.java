@@ -0,0 +1,36 @@
+package com.genbridge.backend.leaderboard;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LeaderboardWindowTest {
+
+    private final LocalDate wednesday = LocalDate.of(2026, 4, 1);
+
+    @Test
+    void parse_acceptsQueryValues() {
+        assertThat(LeaderboardWindow.parse(null)).isEqualTo(LeaderboardWindow.ALL_TIME);
+        assertThat(LeaderboardWindow.parse("all-time")).isEqualTo(LeaderboardWindow.ALL_TIME);
+        assertThat(LeaderboardWindow.parse("Weekly")).isEqualTo(LeaderboardWindow.WEEKLY);
+        assertThat(LeaderboardWindow.parse("monthly")).isEqualTo(LeaderboardWindow.MONTHLY);
+        assertThatThrownBy(() -> LeaderboardWindow.parse("yearly"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void startDate_alignsToWeekAndMonth() {
+        assertThat(LeaderboardWindow.WEEKLY.startDate(wednesday)).isEqualTo(LocalDate.of(2026, 3, 30));
+        assertThat(LeaderboardWindow.MONTHLY.startDate(wednesday)).isEqualTo(LocalDate.of(2026, 4, 1));
+    }
+
+    @Test
+    void retentionCutoff_coversWeekSpanningMonthBoundary() {
+        LocalDate cutoff = LeaderboardWindow.retentionCutoff(wednesday);
+        assertThat(cutoff).isEqualTo(LocalDate.of(2026, 3, 1));
+        assertThat(LeaderboardWindow.WEEKLY.startDate(wednesday)).isAfterOrEqualTo(cutoff);
+    }
+}
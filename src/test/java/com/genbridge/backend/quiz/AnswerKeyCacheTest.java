@@ -0,0 +1,105 @@
+package com.genbridge.backend.quiz;
+
+import com.genbridge.backend.entity.QuizQuestion;
+import com.genbridge.backend.event.QuizChangedEvent;
+import com.genbridge.backend.repository.LessonRepository;
+import com.genbridge.backend.repository.QuizQuestionRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.BitSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AnswerKeyCacheTest {
+
+    @Mock private QuizQuestionRepository quizQuestionRepository;
+    @Mock private LessonRepository lessonRepository;
+
+    @InjectMocks
+    private AnswerKeyCache cache;
+
+    @Test
+    void get_compilesOnceAndGradesByOrdinal() {
+        when(lessonRepository.existsById(1L)).thenReturn(true);
+        when(quizQuestionRepository.findByLessonIdOrderByIdAsc(1L))
+                .thenReturn(List.of(question(30L, 2, "c"), question(10L, 0, "a")));
+
+        AnswerKey key = cache.get(1L);
+        assertThat(cache.get(1L)).isSameAs(key);
+
+        assertThat(key.size()).isEqualTo(2);
+        assertThat(key.positionOf(10L)).isZero();
+        assertThat(key.positionOf(30L)).isEqualTo(1);
+        assertThat(key.positionOf(20L)).isEqualTo(-1);
+        assertThat(key.isCorrect(1, 2)).isTrue();
+        assertThat(key.isCorrect(1, null)).isFalse();
+        assertThat(key.explanation(0)).isEqualTo("a");
+        verify(quizQuestionRepository, times(1)).findByLessonIdOrderByIdAsc(1L);
+    }
+
+    @Test
+    void isMastered_needsEveryLiveOrdinalAndIgnoresDeletedOnes() {
+        QuizQuestion first = question(10L, 0, "a");
+        first.setOrdinal(0);
+        QuizQuestion third = question(30L, 2, "c");
+        third.setOrdinal(2); // ordinal 1 was deleted
+        AnswerKey key = AnswerKey.compile(List.of(first, third));
+
+        assertThat(key.ordinal(key.positionOf(30L))).isEqualTo(2);
+        assertThat(key.isMastered(BitSet.valueOf(new long[]{0b011}))).isFalse();
+        assertThat(key.isMastered(BitSet.valueOf(new long[]{0b101}))).isTrue();
+        assertThat(AnswerKey.compile(List.of()).isMastered(new BitSet())).isFalse();
+    }
+
+    @Test
+    void onQuizChanged_dropsKeySoNextGetRecompiles() {
+        when(lessonRepository.existsById(1L)).thenReturn(true);
+        when(quizQuestionRepository.findByLessonIdOrderByIdAsc(1L))
+                .thenReturn(List.of(question(10L, 0, "a")))
+                .thenReturn(List.of(question(10L, 3, "a")));
+        cache.get(1L);
+
+        cache.onQuizChanged(new QuizChangedEvent(1L));
+
+        assertThat(cache.size()).isZero();
+        assertThat(cache.get(1L).correctIndex(0)).isEqualTo(3);
+    }
+
+    @Test
+    void get_missingLesson_throwsAndCachesNothing() {
+        when(lessonRepository.existsById(99L)).thenReturn(false);
+
+        assertThatThrownBy(() -> cache.get(99L))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Lesson not found");
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void compile_questionWithoutOrdinal_failsFast() {
+        QuizQuestion unassigned = question(10L, 0, "a");
+        unassigned.setOrdinal(null);
+
+        assertThatThrownBy(() -> AnswerKey.compile(List.of(unassigned)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("10");
+    }
+
+    private QuizQuestion question(Long id, int correctIndex, String explanation) {
+        QuizQuestion question = new QuizQuestion();
+        question.setId(id);
+        question.setLessonId(1L);
+        question.setCorrectIndex(correctIndex);
+        question.setExplanation(explanation);
+        question.setOrdinal(id.intValue());
+        return question;
+    }
+}
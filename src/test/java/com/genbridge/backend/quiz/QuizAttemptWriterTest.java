@@ -0,0 +1,248 @@
+package com.genbridge.backend.quiz;
+
+import com.genbridge.backend.entity.QuizAttempt;
+import com.genbridge.backend.repository.QuizAttemptRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class QuizAttemptWriterTest {
+
+    private static final UUID USER = UUID.randomUUID();
+
+    @Mock private QuizAttemptRepository quizAttemptRepository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<List<QuizAttempt>> inserted = new ArrayList<>();
+    private QuizAttemptWriter writer;
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void write_buffersUntilFlushThenInsertsInBatches() {
+        recordInserts();
+        writer = writer(false, 2, 100);
+
+        writer.write(List.of(attempt(1L, true)));
+        assertThat(inserted).isEmpty();
+        assertThat(writer.pendingCorrectQuestionIds(USER, 1L)).containsExactly(1L);
+
+        writer.write(List.of(attempt(2L, false), attempt(3L, true)));
+        writer.flush();
+
+        assertThat(inserted).extracting(List::size).containsExactly(2, 1);
+        assertThat(writer.pendingCount()).isZero();
+        assertThat(meterRegistry.get("quiz.attempts.written").counter().count()).isEqualTo(3.0);
+    }
+
+    @Test
+    void synchronousMode_insertsBeforeWriteReturns() {
+        recordInserts();
+        writer = writer(true, 200, 10_000);
+
+        writer.write(List.of(attempt(1L, true)));
+
+        assertThat(inserted).hasSize(1);
+        assertThat(writer.pendingCount()).isZero();
+    }
+
+    @Test
+    void write_insideTransaction_waitsForCommit() {
+        writer = writer(false, 200, 10_000);
+        TransactionSynchronizationManager.initSynchronization();
+
+        writer.write(List.of(attempt(1L, true)));
+        assertThat(writer.pendingCount()).isZero();
+
+        completeTransaction(TransactionSynchronization.STATUS_COMMITTED);
+        assertThat(writer.pendingCount()).isEqualTo(1);
+    }
+
+    @Test
+    void fullBuffer_refusesRequestWith503AndRetryAfter() {
+        writer = writer(false, 2, 2);
+        writer.write(List.of(attempt(1L, true), attempt(2L, true)));
+
+        assertThatThrownBy(() -> writer.write(List.of(attempt(3L, true))))
+                .isInstanceOfSatisfying(QuizAttemptsOverloadedException.class, e -> {
+                    assertThat(e.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+                    assertThat(e.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("2");
+                });
+        assertThat(writer.pendingCount()).isEqualTo(2);
+        assertThat(meterRegistry.get("quiz.attempts.rejected").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void uncommittedAttempts_holdRoomUntilRollback() {
+        writer = writer(false, 2, 2);
+        TransactionSynchronizationManager.initSynchronization();
+        writer.write(List.of(attempt(1L, true), attempt(2L, true)));
+
+        assertThatThrownBy(() -> writer.write(List.of(attempt(3L, true))))
+                .isInstanceOf(QuizAttemptsOverloadedException.class);
+
+        completeTransaction(TransactionSynchronization.STATUS_ROLLED_BACK);
+        TransactionSynchronizationManager.clearSynchronization();
+        writer.write(List.of(attempt(3L, true)));
+
+        assertThat(writer.pendingCount()).isEqualTo(1);
+    }
+
+    @Test
+    void failedFlush_requeuesBatchInOrderWithoutThrowing() {
+        writer = writer(false, 200, 10_000);
+        doThrow(new CannotCreateTransactionException("database down")).when(quizAttemptRepository).insertAll(any());
+        writer.write(List.of(attempt(1L, true), attempt(2L, true)));
+
+        writer.flush();
+
+        assertThat(writer.pendingCount()).isEqualTo(2);
+        assertThat(writer.pendingCorrectQuestionIds(USER, 1L)).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(meterRegistry.get("quiz.attempts.flush.failures").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void failedFlush_afterMaxRetries_splitsBatchAndDropsOnlyFailingRow() {
+        List<Long> written = new ArrayList<>();
+        doAnswer(inv -> {
+            List<QuizAttempt> batch = inv.getArgument(0);
+            if (batch.stream().anyMatch(attempt -> attempt.getQuestionId() == 3L)) {
+                throw new DataIntegrityViolationException("bad row");
+            }
+            batch.forEach(attempt -> written.add(attempt.getQuestionId()));
+            return null;
+        }).when(quizAttemptRepository).insertAll(any());
+        writer = writer(false, 200, 10_000);
+        writer.write(List.of(attempt(1L, true), attempt(2L, true), attempt(3L, true), attempt(4L, true)));
+
+        writer.flush();
+        writer.flush();
+        assertThat(writer.pendingCount()).isEqualTo(4);
+
+        writer.flush();
+
+        assertThat(writer.pendingCount()).isZero();
+        assertThat(written).containsExactly(1L, 2L, 4L);
+        assertThat(meterRegistry.get("quiz.attempts.dropped").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("quiz.attempts.written").counter().count()).isEqualTo(3.0);
+    }
+
+    @Test
+    void databaseOutage_backsOffAndNeverDropsRows() {
+        List<Long> written = new ArrayList<>();
+        AtomicInteger calls = new AtomicInteger();
+        doAnswer(inv -> {
+            if (calls.incrementAndGet() <= 5) {
+                throw new CannotGetJdbcConnectionException("connection refused");
+            }
+            List<QuizAttempt> batch = inv.getArgument(0);
+            batch.forEach(attempt -> written.add(attempt.getQuestionId()));
+            return null;
+        }).when(quizAttemptRepository).insertAll(any());
+        writer = new QuizAttemptWriter(quizAttemptRepository, TransactionOperations.withoutTransaction(),
+                meterRegistry, false, 2, 10_000, 2, 0, 2);
+        writer.write(List.of(attempt(1L, true), attempt(2L, true), attempt(3L, true), attempt(4L, true)));
+
+        for (int i = 0; i < 5; i++) {
+            writer.flush();
+            assertThat(writer.pendingCount()).isEqualTo(4);
+        }
+        writer.flush();
+
+        assertThat(written).containsExactly(1L, 2L, 3L, 4L);
+        assertThat(writer.pendingCount()).isZero();
+        assertThat(meterRegistry.get("quiz.attempts.dropped").counter().count()).isZero();
+    }
+
+    @Test
+    void databaseOutage_skipsFlushesUntilBackoffElapses() {
+        doThrow(new CannotCreateTransactionException("database down")).when(quizAttemptRepository).insertAll(any());
+        writer = new QuizAttemptWriter(quizAttemptRepository, TransactionOperations.withoutTransaction(),
+                meterRegistry, false, 200, 10_000, 2, 60_000, 2);
+        writer.write(List.of(attempt(1L, true)));
+
+        writer.flush();
+        writer.flush();
+        writer.flush();
+
+        verify(quizAttemptRepository, times(1)).insertAll(any());
+        assertThat(writer.pendingCount()).isEqualTo(1);
+    }
+
+    @Test
+    void synchronousMode_failedInsert_failsTheRequest() {
+        doThrow(new CannotGetJdbcConnectionException("database down")).when(quizAttemptRepository).insertAll(any());
+        writer = writer(true, 200, 10_000);
+        TransactionSynchronizationManager.initSynchronization();
+
+        assertThatThrownBy(() -> writer.write(List.of(attempt(1L, true))))
+                .isInstanceOf(CannotGetJdbcConnectionException.class);
+        assertThat(TransactionSynchronizationManager.getSynchronizations()).isEmpty();
+        assertThat(writer.pendingCount()).isZero();
+    }
+
+    @Test
+    void shutdown_drainsBuffer() {
+        recordInserts();
+        writer = writer(false, 200, 10_000);
+        writer.write(List.of(attempt(1L, true)));
+
+        writer.shutdown();
+
+        assertThat(inserted).hasSize(1);
+    }
+
+    private QuizAttemptWriter writer(boolean synchronous, int batchSize, int capacity) {
+        return new QuizAttemptWriter(quizAttemptRepository, TransactionOperations.withoutTransaction(),
+                meterRegistry, synchronous, batchSize, capacity, 2, 0, 2);
+    }
+
+    private static void completeTransaction(int status) {
+        TransactionSynchronizationManager.getSynchronizations().forEach(sync -> sync.afterCompletion(status));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void recordInserts() {
+        doAnswer(inv -> inserted.add(new ArrayList<>((List<QuizAttempt>) inv.getArgument(0))))
+                .when(quizAttemptRepository).insertAll(any());
+    }
+
+    private QuizAttempt attempt(Long questionId, boolean correct) {
+        QuizAttempt attempt = new QuizAttempt();
+        attempt.setUserId(USER);
+        attempt.setLessonId(1L);
+        attempt.setQuestionId(questionId);
+        attempt.setSelectedIndex(0);
+        attempt.setScore(correct ? 100 : 0);
+        attempt.setTotalQuestions(1);
+        attempt.setCorrectAnswers(correct ? 1 : 0);
+        return attempt;
+    }
+}
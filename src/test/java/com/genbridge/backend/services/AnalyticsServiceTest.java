@@ -0,0 +1,404 @@
+package com.genbridge.backend.services;
+
+import com.genbridge.backend.analytics.ActivityBitmap;
+import com.genbridge.backend.analytics.ActivityMetric;
+import com.genbridge.backend.analytics.CompletionTimeHistogram;
+import com.genbridge.backend.analytics.HyperLogLog;
+import com.genbridge.backend.analytics.LearnerSketchBuffer;
+import com.genbridge.backend.analytics.TimeseriesGranularity;
+import com.genbridge.backend.entity.DailyActivity;
+import com.genbridge.backend.entity.Lesson;
+import com.genbridge.backend.entity.LessonCompletionTime;
+import com.genbridge.backend.entity.LessonLearnerSketch;
+import com.genbridge.backend.entity.LessonStats;
+import com.genbridge.backend.entity.QuestionStats;
+import com.genbridge.backend.entity.QuizQuestion;
+import com.genbridge.backend.entity.UserActivity;
+import com.genbridge.backend.repository.DailyActivityRepository;
+import com.genbridge.backend.repository.ForumPostRepository;
+import com.genbridge.backend.repository.LessonCompletionTimeRepository;
+import com.genbridge.backend.repository.LessonLearnerSketchRepository;
+import com.genbridge.backend.repository.LessonProgressRepository;
+import com.genbridge.backend.repository.LessonRepository;
+import com.genbridge.backend.repository.LessonStatsRepository;
+import com.genbridge.backend.repository.QuestCompletionRepository;
+import com.genbridge.backend.repository.QuestionStatsRepository;
+import com.genbridge.backend.repository.QuizAttemptRepository;
+import com.genbridge.backend.repository.QuizQuestionRepository;
+import com.genbridge.backend.repository.UserActivityRepository;
+import com.genbridge.backend.services.impl.AnalyticsServiceImpl;
+import com.genbridge.backend.user.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AnalyticsServiceTest {
+
+    @Mock private UserRepository userRepository;
+    @Mock private LessonRepository lessonRepository;
+    @Mock private LessonStatsRepository lessonStatsRepository;
+    @Mock private LessonProgressRepository lessonProgressRepository;
+    @Mock private QuestCompletionRepository questCompletionRepository;
+    @Mock private ForumPostRepository forumPostRepository;
+    @Mock private QuizAttemptRepository quizAttemptRepository;
+    @Mock private DailyActivityRepository dailyActivityRepository;
+    @Mock private QuizQuestionRepository quizQuestionRepository;
+    @Mock private QuestionStatsRepository questionStatsRepository;
+    @Mock private LessonLearnerSketchRepository lessonLearnerSketchRepository;
+    @Mock private LessonCompletionTimeRepository lessonCompletionTimeRepository;
+    @Mock private UserActivityRepository userActivityRepository;
+    @Spy private LearnerSketchBuffer learnerSketchBuffer = new LearnerSketchBuffer();
+
+    @InjectMocks
+    private AnalyticsServiceImpl analyticsService;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void getDistinctLearners_mergesStoredDaysWithUnflushedLearners() {
+        UUID alice = UUID.randomUUID();
+        UUID bob = UUID.randomUUID();
+        UUID cara = UUID.randomUUID();
+        LocalDate monday = LocalDate.of(2026, 3, 2);
+        LocalDate tuesday = monday.plusDays(1);
+        when(lessonLearnerSketchRepository.findByLessonIdAndActivityDateBetween(1L, monday, tuesday))
+                .thenReturn(List.of(storedSketch(1L, monday, alice, bob), storedSketch(1L, tuesday, bob)));
+        when(lessonRepository.findAllById(any())).thenReturn(List.of(lesson(1L, "Slang 101")));
+        analyticsService.recordLessonLearner(1L, cara, tuesday);
+        analyticsService.recordLessonLearner(1L, alice, tuesday);
+        analyticsService.recordLessonLearner(2L, UUID.randomUUID(), tuesday);
+        analyticsService.recordLessonLearner(1L, UUID.randomUUID(), tuesday.plusDays(1));
+
+        Map<String, Object> result = analyticsService.getDistinctLearners(1L, monday, tuesday);
+
+        List<Map<String, Object>> lessons = (List<Map<String, Object>>) result.get("lessons");
+        assertThat(lessons).singleElement().satisfies(lesson -> {
+            assertThat(lesson.get("title")).isEqualTo("Slang 101");
+            assertThat(lesson.get("distinctLearners")).isEqualTo(3L);
+        });
+    }
+
+    @Test
+    void mergeLearnerSketches_maxMergesIntoStoredSketch() {
+        UUID alice = UUID.randomUUID();
+        UUID bob = UUID.randomUUID();
+        LocalDate day = LocalDate.of(2026, 3, 2);
+        LessonLearnerSketch stored = storedSketch(1L, day, alice);
+        when(lessonLearnerSketchRepository.findByLessonIdAndActivityDate(1L, day)).thenReturn(Optional.of(stored));
+        analyticsService.recordLessonLearner(1L, alice, day);
+        analyticsService.recordLessonLearner(1L, bob, day);
+
+        analyticsService.mergeLearnerSketches(learnerSketchBuffer.drain());
+
+        verify(lessonLearnerSketchRepository).save(stored);
+        assertThat(HyperLogLog.fromBytes(stored.getRegisters()).estimate()).isEqualTo(2L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void getAnalytics_readsRollupInsteadOfProgress() {
+        Lesson lesson = lesson(1L, "Slang 101");
+        LessonStats stats = new LessonStats(1L);
+        stats.setStartedCount(8);
+        stats.setCompletedCount(5);
+        when(userRepository.countByRoleNot("ADMIN")).thenReturn(10L);
+        when(lessonRepository.findByPublishedTrue()).thenReturn(List.of(lesson, lesson(2L, "Memes")));
+        when(lessonStatsRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(stats));
+
+        Map<String, Object> analytics = analyticsService.getAnalytics();
+
+        List<Map<String, Object>> lessonStats = (List<Map<String, Object>>) analytics.get("lessonStats");
+        assertThat(lessonStats).hasSize(2);
+        assertThat(lessonStats.get(0).get("lessonId")).isEqualTo(1L);
+        assertThat(lessonStats.get(0).get("completions")).isEqualTo(5L);
+        assertThat(lessonStats.get(0).get("completionRate")).isEqualTo(50.0);
+        assertThat(lessonStats.get(1).get("completions")).isEqualTo(0L);
+        verifyNoInteractions(lessonProgressRepository);
+    }
+
+    @Test
+    void recordLessonStarted_missingRow_insertsIt() {
+        when(lessonStatsRepository.insertIfAbsent(eq(3L), eq(1L), eq(0L), eq(0L), any())).thenReturn(1);
+
+        analyticsService.recordLessonStarted(3L);
+
+        verify(lessonStatsRepository, never()).increment(any(), anyLong(), anyLong(), anyLong(), any());
+        verify(lessonStatsRepository, never()).save(any());
+    }
+
+    @Test
+    void recordLessonCompletionChange_existingRow_updatesInPlace() {
+        when(lessonStatsRepository.insertIfAbsent(eq(3L), eq(0L), eq(0L), eq(0L), any())).thenReturn(0);
+
+        analyticsService.recordLessonCompletionChange(3L, -1);
+
+        verify(lessonStatsRepository).increment(eq(3L), eq(0L), eq(0L), eq(-1L), any());
+        verify(lessonStatsRepository, never()).save(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void reconcileLessonStats_rebuildsFromProgress() {
+        when(lessonRepository.findAll()).thenReturn(List.of(lesson(1L, "Slang 101"), lesson(2L, "Memes")));
+        when(lessonProgressRepository.countFunnelStagesByLesson()).thenReturn(List.of(
+                new Object[]{1L, 4L, 3L, 2L},
+                new Object[]{99L, 2L, 1L, 1L}));
+        when(lessonProgressRepository.findCompletionDurations()).thenReturn(List.of(
+                new Object[]{1L, LocalDateTime.of(2026, 3, 2, 9, 0), LocalDateTime.of(2026, 3, 2, 9, 10)},
+                new Object[]{1L, LocalDateTime.of(2026, 3, 2, 10, 0), LocalDateTime.of(2026, 3, 2, 10, 10)},
+                new Object[]{99L, LocalDateTime.of(2026, 3, 2, 9, 0), LocalDateTime.of(2026, 3, 2, 9, 5)}));
+
+        int lessons = analyticsService.reconcileLessonStats();
+
+        assertThat(lessons).isEqualTo(2);
+        ArgumentCaptor<Collection<LessonStats>> saved = ArgumentCaptor.forClass(Collection.class);
+        verify(lessonStatsRepository).deleteAllInBatch();
+        verify(lessonStatsRepository).saveAll(saved.capture());
+        assertThat(saved.getValue())
+                .extracting(LessonStats::getLessonId, LessonStats::getStartedCount,
+                        LessonStats::getAttemptedCount, LessonStats::getCompletedCount)
+                .containsExactlyInAnyOrder(
+                        tuple(1L, 4L, 3L, 2L),
+                        tuple(2L, 0L, 0L, 0L));
+        verify(lessonProgressRepository).backfillFirstAttemptedAt();
+        ArgumentCaptor<Collection<LessonCompletionTime>> times = ArgumentCaptor.forClass(Collection.class);
+        verify(lessonCompletionTimeRepository).saveAll(times.capture());
+        assertThat(times.getValue()).singleElement().satisfies(time -> {
+            assertThat(time.getLessonId()).isEqualTo(1L);
+            assertThat(time.getLearners()).isEqualTo(2L);
+        });
+    }
+
+    @Test
+    void recordTimeToComplete_lostCompletion_neverInsertsBucket() {
+        analyticsService.recordTimeToComplete(3L, Duration.ofMinutes(10), -1);
+
+        verify(lessonCompletionTimeRepository, never()).insertIfAbsent(any(), anyInt(), anyLong());
+        verify(lessonCompletionTimeRepository).increment(eq(3L), anyInt(), eq(-1L));
+    }
+
+    @Test
+    void getFunnel_reportsStageCountsDropOffAndMedianFromRollups() {
+        LessonStats stats = new LessonStats(1L);
+        stats.setStartedCount(10);
+        stats.setAttemptedCount(8);
+        stats.setCompletedCount(4);
+        when(lessonRepository.findById(1L)).thenReturn(Optional.of(lesson(1L, "Slang 101")));
+        when(lessonStatsRepository.findAllById(List.of(1L))).thenReturn(List.of(stats));
+        when(lessonCompletionTimeRepository.findByLessonIdIn(List.of(1L))).thenReturn(List.of(
+                completionTime(1L, Duration.ofMinutes(2), 1),
+                completionTime(1L, Duration.ofMinutes(10), 2),
+                completionTime(1L, Duration.ofHours(3), 1)));
+
+        Map<String, Object> funnel = analyticsService.getFunnel(1L).get(0);
+
+        assertThat(funnel).containsEntry("started", 10L)
+                .containsEntry("attempted", 8L)
+                .containsEntry("completed", 4L)
+                .containsEntry("attemptRate", 80.0)
+                .containsEntry("completionRate", 50.0)
+                .containsEntry("droppedBeforeAttempt", 2L)
+                .containsEntry("droppedBeforeCompletion", 4L);
+        assertThat((Long) funnel.get("medianSecondsToComplete")).isBetween(540L, 660L);
+        assertThat((Long) funnel.get("p90SecondsToComplete")).isBetween(9800L, 11800L);
+        verifyNoInteractions(lessonProgressRepository);
+    }
+
+    @Test
+    void recordUserActive_dayAlreadyMarked_skipsWrite() {
+        UUID userId = UUID.randomUUID();
+        LocalDate today = LocalDate.now();
+        when(userActivityRepository.findForUpdate(userId)).thenReturn(Optional.of(userActivity(userId, today)));
+
+        analyticsService.recordUserActive(userId, today);
+
+        verify(userActivityRepository, never()).save(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void getCohortRetention_countsActiveWeeksPerCohortFromBitmaps() {
+        LocalDate thisWeek = LocalDate.now().with(DayOfWeek.MONDAY);
+        LocalDate lastWeek = thisWeek.minusWeeks(1);
+        UUID returning = UUID.randomUUID();
+        UUID churned = UUID.randomUUID();
+        UUID legacy = UUID.randomUUID();
+        UUID tooOld = UUID.randomUUID();
+        when(userRepository.findLearnerRegistrations()).thenReturn(List.of(
+                new Object[]{returning, lastWeek.atTime(9, 0), null},
+                new Object[]{churned, lastWeek.plusDays(2).atTime(9, 0), null},
+                new Object[]{legacy, null, null},
+                new Object[]{tooOld, thisWeek.minusWeeks(5).atTime(9, 0), null}));
+        when(userActivityRepository.findAllById(any())).thenReturn(List.of(
+                userActivity(returning, lastWeek, thisWeek.plusDays(1)),
+                userActivity(churned, lastWeek.plusDays(2)),
+                userActivity(legacy, thisWeek)));
+
+        Map<String, Object> retention = analyticsService.getCohortRetention(2);
+
+        List<Map<String, Object>> cohorts = (List<Map<String, Object>>) retention.get("cohorts");
+        assertThat(cohorts).hasSize(2);
+        assertThat(cohorts.get(0)).containsEntry("cohortStart", lastWeek).containsEntry("size", 2L);
+        assertThat((List<Map<String, Object>>) cohorts.get(0).get("retention"))
+                .extracting(cell -> cell.get("active"), cell -> cell.get("rate"))
+                .containsExactly(tuple(2L, 100.0), tuple(1L, 50.0));
+        assertThat(cohorts.get(1)).containsEntry("cohortStart", thisWeek).containsEntry("size", 1L);
+        assertThat((List<Map<String, Object>>) cohorts.get(1).get("retention"))
+                .extracting(cell -> cell.get("active"))
+                .containsExactly(1L);
+    }
+
+    @Test
+    void recordActivity_newDay_createsRow() {
+        LocalDate day = LocalDate.of(2026, 3, 2);
+        when(dailyActivityRepository.insertIfAbsent(day, 0, 0, 0, 1, 0)).thenReturn(1);
+
+        analyticsService.recordActivity(ActivityMetric.QUEST_COMPLETIONS, day, 1);
+
+        verify(dailyActivityRepository, never()).increment(any(), anyLong(), anyLong(), anyLong(), anyLong(), anyLong());
+    }
+
+    @Test
+    void recordActivity_existingDay_updatesInPlace() {
+        LocalDate day = LocalDate.of(2026, 3, 2);
+        when(dailyActivityRepository.insertIfAbsent(day, 0, 1, 0, 0, 0)).thenReturn(0);
+
+        analyticsService.recordActivity(ActivityMetric.QUIZ_ATTEMPTS, day, 1);
+
+        verify(dailyActivityRepository).increment(day, 0, 1, 0, 0, 0);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void getTimeseries_week_fillsGapsAndAveragesActiveUsers() {
+        LocalDate monday = LocalDate.of(2026, 3, 2);
+        DailyActivity first = new DailyActivity(monday);
+        first.setActiveUsers(4);
+        first.setQuizAttempts(10);
+        DailyActivity second = new DailyActivity(monday.plusDays(8));
+        second.setActiveUsers(7);
+        second.setForumPosts(2);
+        when(dailyActivityRepository.findByActivityDateBetweenOrderByActivityDateAsc(monday, monday.plusDays(13)))
+                .thenReturn(List.of(first, second));
+
+        Map<String, Object> series = analyticsService.getTimeseries(monday, monday.plusDays(13), TimeseriesGranularity.WEEK);
+
+        List<Map<String, Object>> points = (List<Map<String, Object>>) series.get("points");
+        assertThat(points).extracting(p -> p.get("date")).containsExactly(monday, monday.plusDays(7));
+        assertThat(points.get(0).get("quizAttempts")).isEqualTo(10L);
+        assertThat(points.get(0).get("activeUsers")).isEqualTo(0.6);
+        assertThat(points.get(1).get("forumPosts")).isEqualTo(2L);
+        assertThat(points.get(1).get("activeUsers")).isEqualTo(1.0);
+    }
+
+    @Test
+    void getTimeseries_fromAfterTo_throws() {
+        LocalDate day = LocalDate.of(2026, 3, 2);
+
+        assertThatThrownBy(() -> analyticsService.getTimeseries(day, day.minusDays(1), TimeseriesGranularity.DAY))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void recordAnswer_countsSelectedOptionInPlace() {
+        when(questionStatsRepository.insertIfAbsent(eq(7L), eq(1L), eq(1L), eq(0L), eq(1L), eq(0L), eq(0L), any())).thenReturn(0);
+
+        analyticsService.recordAnswer(7L, 1L, 1, true);
+
+        verify(questionStatsRepository).recordAnswer(eq(7L), eq(1L), eq(0L), eq(1L), eq(0L), eq(0L), any());
+        verify(questionStatsRepository, never()).save(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void getQuestionStats_reportsPercentCorrectAndOptionShares() {
+        QuizQuestion question = question();
+        QuestionStats stats = new QuestionStats(7L, 1L);
+        stats.setAttempts(8);
+        stats.setCorrectCount(6);
+        stats.setOptionACount(1);
+        stats.setOptionBCount(6);
+        stats.setOptionDCount(1);
+        when(quizQuestionRepository.findByLessonIdOrderByIdAsc(1L)).thenReturn(List.of(question));
+        when(questionStatsRepository.findByLessonId(1L)).thenReturn(List.of(stats));
+
+        List<Map<String, Object>> result = analyticsService.getQuestionStats(1L);
+
+        assertThat(result).hasSize(1);
+        assertThat(result.get(0).get("percentCorrect")).isEqualTo(75.0);
+        List<Map<String, Object>> options = (List<Map<String, Object>>) result.get(0).get("options");
+        assertThat(options).extracting(o -> o.get("percent")).containsExactly(12.5, 75.0, 0.0, 12.5);
+    }
+
+    private QuizQuestion question() {
+        QuizQuestion question = new QuizQuestion();
+        question.setId(7L);
+        question.setLessonId(1L);
+        question.setQuestionText("What does rizz mean?");
+        question.setOptionA("Anger");
+        question.setOptionB("Charm");
+        question.setOptionC("Rice");
+        question.setOptionD("Rain");
+        question.setCorrectIndex(1);
+        return question;
+    }
+
+    private Lesson lesson(Long id, String title) {
+        Lesson lesson = new Lesson();
+        lesson.setId(id);
+        lesson.setTitle(title);
+        lesson.setDifficulty("BEGINNER");
+        lesson.setPublished(true);
+        return lesson;
+    }
+
+    private static LessonLearnerSketch storedSketch(Long lessonId, LocalDate day, UUID... learners) {
+        HyperLogLog sketch = new HyperLogLog();
+        for (UUID learner : learners) {
+            sketch.add(learner);
+        }
+        LessonLearnerSketch stored = new LessonLearnerSketch(lessonId, day);
+        stored.setRegisters(sketch.toBytes());
+        return stored;
+    }
+
+    private static LessonCompletionTime completionTime(Long lessonId, Duration elapsed, long learners) {
+        LessonCompletionTime time = new LessonCompletionTime(lessonId, CompletionTimeHistogram.bucketOf(elapsed));
+        time.setLearners(learners);
+        return time;
+    }
+
+    private static UserActivity userActivity(UUID userId, LocalDate... activeDays) {
+        ActivityBitmap bitmap = ActivityBitmap.startingAt(activeDays[0]);
+        for (LocalDate day : activeDays) {
+            bitmap.mark(day);
+        }
+        UserActivity activity = new UserActivity(userId);
+        activity.setOriginDate(bitmap.origin());
+        activity.setDays(bitmap.toBytes());
+        return activity;
+    }
+}
@@ -3,6 +3,7 @@ package com.genbridge.backend.services;
 import com.genbridge.backend.dto.ContentRequest;
 import com.genbridge.backend.entity.Content;
 import com.genbridge.backend.repository.ContentRepository;
+import com.genbridge.backend.services.impl.ContentServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -4,6 +4,7 @@ import com.genbridge.backend.entity.ForumComment;
 import com.genbridge.backend.entity.ForumPost;
 import com.genbridge.backend.repository.ForumCommentRepository;
 import com.genbridge.backend.repository.ForumPostRepository;
+import com.genbridge.backend.services.impl.ForumServiceImpl;
 import com.genbridge.backend.user.User;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -31,6 +32,9 @@ class ForumServiceTest {
     @Mock
     private ForumCommentRepository commentRepository;
 
+    @Mock
+    private AnalyticsService analyticsService;
+
     @InjectMocks
     private ForumServiceImpl forumService;
 
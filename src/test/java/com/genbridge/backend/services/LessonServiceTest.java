@@ -2,13 +2,16 @@ package com.genbridge.backend.services;
 
 import com.genbridge.backend.dto.LessonRequest;
 import com.genbridge.backend.entity.Lesson;
+import com.genbridge.backend.event.QuizChangedEvent;
 import com.genbridge.backend.repository.LessonRepository;
+import com.genbridge.backend.services.impl.LessonServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
@@ -25,6 +28,9 @@ class LessonServiceTest {
     @Mock
     private LessonRepository lessonRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private LessonServiceImpl lessonService;
 
@@ -144,5 +150,6 @@ class LessonServiceTest {
         lessonService.deleteLesson(1L);
 
         verify(lessonRepository).deleteById(1L);
+        verify(eventPublisher).publishEvent(new QuizChangedEvent(1L));
     }
 }
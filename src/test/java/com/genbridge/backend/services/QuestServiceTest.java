@@ -6,7 +6,9 @@ import com.genbridge.backend.entity.Quest;
 import com.genbridge.backend.entity.QuestCompletion;
 import com.genbridge.backend.repository.QuestCompletionRepository;
 import com.genbridge.backend.repository.QuestRepository;
+import com.genbridge.backend.services.impl.QuestServiceImpl;
 import com.genbridge.backend.user.User;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -34,6 +36,12 @@ class QuestServiceTest {
     @Mock
     private QuestCompletionRepository questCompletionRepository;
 
+    @Mock
+    private XpService xpService;
+
+    @Mock
+    private AnalyticsService analyticsService;
+
     @InjectMocks
     private QuestServiceImpl questService;
 
@@ -58,6 +66,11 @@ class QuestServiceTest {
         SecurityContextHolder.getContext().setAuthentication(auth);
     }
 
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
     @Test
     void createQuest_savesAndReturns() {
         QuestRequest request = new QuestRequest();
@@ -137,5 +150,6 @@ class QuestServiceTest {
         QuestCompletion result = questService.completeQuest(1L, request);
         assertThat(result.getReflection()).isEqualTo("Amazing");
         verify(questCompletionRepository).save(any(QuestCompletion.class));
+        verify(xpService).recordQuestCompletion(user.getId(), result.getCompletedAt());
     }
 }
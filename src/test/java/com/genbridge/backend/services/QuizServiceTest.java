@@ -1,27 +1,42 @@
 package com.genbridge.backend.services;
 
+import com.genbridge.backend.dto.BatchAnswerRequest;
 import com.genbridge.backend.dto.CreateQuizQuestionRequest;
+import com.genbridge.backend.dto.SubmitQuizRequest;
+import com.genbridge.backend.entity.Lesson;
+import com.genbridge.backend.entity.LessonProgress;
+import com.genbridge.backend.entity.QuizAttempt;
 import com.genbridge.backend.entity.QuizQuestion;
+import com.genbridge.backend.event.QuizChangedEvent;
+import com.genbridge.backend.quiz.AnswerKey;
+import com.genbridge.backend.quiz.AnswerKeyCache;
+import com.genbridge.backend.quiz.QuizAttemptWriter;
 import com.genbridge.backend.repository.LessonProgressRepository;
 import com.genbridge.backend.repository.LessonRepository;
 import com.genbridge.backend.repository.QuizAttemptRepository;
 import com.genbridge.backend.repository.QuizQuestionRepository;
+import com.genbridge.backend.services.impl.QuizServiceImpl;
 import com.genbridge.backend.user.User;
 import com.genbridge.backend.user.UserService;
 import com.genbridge.backend.user.UserServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
+import java.util.BitSet;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -32,6 +47,11 @@ class QuizServiceTest {
     @Mock private LessonProgressRepository lessonProgressRepository;
     @Mock private LessonRepository lessonRepository;
     @Mock private UserService userService;
+    @Mock private XpService xpService;
+    @Mock private AnalyticsService analyticsService;
+    @Mock private AnswerKeyCache answerKeyCache;
+    @Mock private QuizAttemptWriter quizAttemptWriter;
+    @Mock private ApplicationEventPublisher eventPublisher;
 
     @InjectMocks
     private QuizServiceImpl quizService;
@@ -53,6 +73,7 @@ class QuizServiceTest {
         question.setOptionD("A meme");
         question.setCorrectIndex(0);
         question.setExplanation("NPC stands for Non-Playable Character");
+        question.setOrdinal(0);
     }
 
     @Test
@@ -75,7 +96,7 @@ class QuizServiceTest {
 
     @Test
     void createQuizQuestion_invalidOptions_throws() {
-        when(lessonRepository.existsById(1L)).thenReturn(true);
+        when(lessonRepository.findForUpdate(1L)).thenReturn(Optional.of(new Lesson()));
 
         CreateQuizQuestionRequest request = new CreateQuizQuestionRequest();
         request.setQuestionText("Q?");
@@ -89,8 +110,10 @@ class QuizServiceTest {
 
     @Test
     void createQuizQuestion_valid_saves() {
-        when(lessonRepository.existsById(1L)).thenReturn(true);
+        when(lessonRepository.findForUpdate(1L)).thenReturn(Optional.of(new Lesson()));
         when(quizQuestionRepository.save(any(QuizQuestion.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(quizQuestionRepository.findMaxOrdinalByLessonId(1L)).thenReturn(4);
+        when(quizQuestionRepository.countByLessonId(1L)).thenReturn(3L);
 
         CreateQuizQuestionRequest request = new CreateQuizQuestionRequest();
         request.setQuestionText("What is NPC?");
@@ -101,6 +124,8 @@ class QuizServiceTest {
         QuizQuestion result = quizService.createQuizQuestion(1L, request);
         assertThat(result.getQuestionText()).isEqualTo("What is NPC?");
         assertThat(result.getCorrectIndex()).isEqualTo(0);
+        assertThat(result.getOrdinal()).isEqualTo(5);
+        verify(eventPublisher).publishEvent(new QuizChangedEvent(1L));
     }
 
     @Test
@@ -126,4 +151,159 @@ class QuizServiceTest {
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("does not belong");
     }
+
+    @Test
+    void answerQuestion_recordsSelectionAndQuestionStats() {
+        when(answerKeyCache.get(1L)).thenReturn(AnswerKey.compile(List.of(question)));
+        when(lessonProgressRepository.findForUpdate(any(), eq(1L))).thenReturn(Optional.empty());
+
+        Map<String, Object> result = quizService.answerQuestion(1L, 1L, 2, user);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<QuizAttempt>> attempts = ArgumentCaptor.forClass(List.class);
+        verify(quizAttemptWriter).write(attempts.capture());
+        assertThat(attempts.getValue()).singleElement().extracting(QuizAttempt::getSelectedIndex).isEqualTo(2);
+        assertThat(result.get("correct")).isEqualTo(false);
+        assertThat(result.get("correctIndex")).isEqualTo(0);
+        assertThat(result.get("explanation")).isEqualTo("NPC stands for Non-Playable Character");
+        verify(analyticsService).recordAnswer(1L, 1L, 2, false);
+        verifyNoInteractions(lessonRepository);
+        verify(quizQuestionRepository, never()).findById(any());
+    }
+
+    @Test
+    void answerQuestion_questionFromAnotherLesson_throws() {
+        when(answerKeyCache.get(1L)).thenReturn(AnswerKey.compile(List.of(question)));
+        when(quizQuestionRepository.existsById(5L)).thenReturn(true);
+
+        assertThatThrownBy(() -> quizService.answerQuestion(1L, 5L, 0, user))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("does not belong");
+        verifyNoInteractions(quizAttemptWriter);
+    }
+
+    @Test
+    void answerQuestions_insertsAttemptsInOneBatchAndUpdatesProgressOnce() {
+        when(answerKeyCache.get(1L)).thenReturn(AnswerKey.compile(List.of(question)));
+        when(lessonProgressRepository.findForUpdate(any(), eq(1L))).thenReturn(Optional.empty());
+
+        Map<String, Object> result = quizService.answerQuestions(1L, List.of(answer(1L, 2), answer(1L, 0)), user);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<QuizAttempt>> attempts = ArgumentCaptor.forClass(List.class);
+        verify(quizAttemptWriter).write(attempts.capture());
+        assertThat(attempts.getValue()).extracting(QuizAttempt::getCorrectAnswers).containsExactly(0, 1);
+        verify(userService, times(1)).updateStreak(user);
+        verify(lessonProgressRepository, times(1)).save(any());
+        assertThat(result.get("correctCount")).isEqualTo(1);
+        assertThat(result.get("completed")).isEqualTo(true);
+        assertThat((List<?>) result.get("results")).hasSize(2);
+    }
+
+    @Test
+    void answerQuestion_orsCorrectAnswerIntoMasteryBitmap() {
+        QuizQuestion second = question(2L, 1);
+        QuizQuestion third = question(3L, 2);
+        question.setOrdinal(0);
+        when(answerKeyCache.get(1L)).thenReturn(AnswerKey.compile(List.of(question, second, third)));
+        LessonProgress progress = progress(BitSet.valueOf(new long[]{0b110}).toByteArray());
+        when(lessonProgressRepository.findForUpdate(any(), eq(1L))).thenReturn(Optional.of(progress));
+
+        Map<String, Object> result = quizService.answerQuestion(1L, 1L, 0, user);
+
+        assertThat(result.get("completed")).isEqualTo(true);
+        assertThat(BitSet.valueOf(progress.getMasteredOrdinals())).isEqualTo(BitSet.valueOf(new long[]{0b111}));
+        verifyNoInteractions(quizAttemptRepository);
+    }
+
+    @Test
+    void answerQuestion_progressWithoutBitmap_rebuildsItFromQueuedAndStoredAttempts() {
+        QuizQuestion second = question(2L, 1);
+        QuizQuestion third = question(3L, 2);
+        question.setOrdinal(0);
+        when(answerKeyCache.get(1L)).thenReturn(AnswerKey.compile(List.of(question, second, third)));
+        LessonProgress progress = progress(null);
+        when(lessonProgressRepository.findForUpdate(any(), eq(1L))).thenReturn(Optional.of(progress));
+        when(quizAttemptWriter.pendingCorrectQuestionIds(any(), eq(1L))).thenReturn(new HashSet<>(List.of(2L)));
+        when(quizAttemptRepository.findCorrectlyAnsweredQuestionIds(any(), eq(1L))).thenReturn(List.of(3L, 99L));
+
+        Map<String, Object> result = quizService.answerQuestion(1L, 1L, 0, user);
+
+        assertThat(result.get("completed")).isEqualTo(true);
+        assertThat(BitSet.valueOf(progress.getMasteredOrdinals()).cardinality()).isEqualTo(3);
+    }
+
+    @Test
+    void answerQuestions_unknownQuestion_writesNothing() {
+        when(answerKeyCache.get(1L)).thenReturn(AnswerKey.compile(List.of(question)));
+        when(quizQuestionRepository.existsById(9L)).thenReturn(false);
+
+        assertThatThrownBy(() -> quizService.answerQuestions(1L, List.of(answer(1L, 0), answer(9L, 0)), user))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Question not found");
+        verifyNoInteractions(quizAttemptWriter);
+        verifyNoInteractions(analyticsService);
+    }
+
+    @Test
+    void submitQuiz_gradesAgainstCachedAnswerKey() {
+        QuizQuestion second = new QuizQuestion();
+        second.setId(2L);
+        second.setLessonId(1L);
+        second.setCorrectIndex(3);
+        second.setOrdinal(1);
+        when(answerKeyCache.get(1L)).thenReturn(AnswerKey.compile(List.of(second, question)));
+        when(lessonProgressRepository.findForUpdate(any(), eq(1L))).thenReturn(Optional.empty());
+        SubmitQuizRequest request = new SubmitQuizRequest();
+        request.setAnswers(Map.of(1L, 0, 2L, 1));
+
+        Map<String, Object> result = quizService.submitQuiz(1L, request, user);
+
+        assertThat(result.get("correctAnswers")).isEqualTo(1);
+        assertThat(result.get("score")).isEqualTo(50);
+        verify(analyticsService).recordAnswer(1L, 1L, 0, true);
+        verify(analyticsService).recordAnswer(2L, 1L, 1, false);
+        verify(quizQuestionRepository, never()).findByLessonIdOrderByIdAsc(any());
+    }
+
+    @Test
+    void updateQuizQuestion_correctAnswerChanged_resetsQuestionStats() {
+        when(lessonRepository.existsById(1L)).thenReturn(true);
+        when(quizQuestionRepository.findById(1L)).thenReturn(Optional.of(question));
+        when(quizQuestionRepository.save(any(QuizQuestion.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        CreateQuizQuestionRequest request = new CreateQuizQuestionRequest();
+        request.setQuestionText("What is NPC?");
+        request.setOptions(List.of("A video game character", "A food", "A dance", "A meme"));
+        request.setCorrectIndex(3);
+
+        quizService.updateQuizQuestion(1L, 1L, request);
+
+        verify(analyticsService).resetQuestionStats(1L);
+        verify(eventPublisher).publishEvent(new QuizChangedEvent(1L));
+    }
+
+    private BatchAnswerRequest.Answer answer(Long questionId, int selectedIndex) {
+        BatchAnswerRequest.Answer answer = new BatchAnswerRequest.Answer();
+        answer.setQuestionId(questionId);
+        answer.setSelectedIndex(selectedIndex);
+        return answer;
+    }
+
+    private QuizQuestion question(Long id, int ordinal) {
+        QuizQuestion other = new QuizQuestion();
+        other.setId(id);
+        other.setLessonId(1L);
+        other.setOrdinal(ordinal);
+        return other;
+    }
+
+    private LessonProgress progress(byte[] masteredOrdinals) {
+        LessonProgress progress = new LessonProgress();
+        progress.setUserId(user.getId());
+        progress.setLessonId(1L);
+        progress.setFirstAttemptedAt(java.time.LocalDateTime.now());
+        progress.setMasteredOrdinals(masteredOrdinals);
+        return progress;
+    }
 }
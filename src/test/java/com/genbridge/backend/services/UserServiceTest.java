@@ -1,29 +1,48 @@
 package com.genbridge.backend.services;
 
+import com.genbridge.backend.analytics.ActivityMetric;
+import com.genbridge.backend.auth.dto.ChangePasswordRequest;
+import com.genbridge.backend.auth.dto.LoginResponse;
+import com.genbridge.backend.config.AuthPrincipalCache;
 import com.genbridge.backend.config.JwtUtil;
+import com.genbridge.backend.config.PasswordHasher;
+import com.genbridge.backend.config.TokenDenylist;
+import com.genbridge.backend.event.UserChangedEvent;
 import com.genbridge.backend.user.User;
 import com.genbridge.backend.user.UserRepository;
 import com.genbridge.backend.user.UserServiceImpl;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.time.LocalDate;
+import java.util.Optional;
+import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class UserServiceTest {
 
     @Mock private UserRepository userRepository;
-    @Mock private PasswordEncoder passwordEncoder;
+    @Mock private PasswordHasher passwordHasher;
     @Mock private JwtUtil jwtUtil;
+    @Mock private ApplicationEventPublisher eventPublisher;
+    @Mock private AnalyticsService analyticsService;
+    @Mock private TokenDenylist tokenDenylist;
+    @Mock private AuthPrincipalCache principalCache;
 
     @InjectMocks
     private UserServiceImpl userService;
@@ -45,6 +64,7 @@ class UserServiceTest {
         assertThat(user.getCurrentStreak()).isEqualTo(1);
         assertThat(user.getLastActiveDate()).isEqualTo(LocalDate.now());
         verify(userRepository).save(user);
+        verify(analyticsService).recordActivity(ActivityMetric.ACTIVE_USERS, LocalDate.now(), 1);
     }
 
     @Test
@@ -65,6 +85,7 @@ class UserServiceTest {
         userService.updateStreak(user);
 
         assertThat(user.getCurrentStreak()).isEqualTo(5);
+        verifyNoInteractions(analyticsService);
     }
 
     @Test
@@ -96,4 +117,110 @@ class UserServiceTest {
         assertThat(user.getCurrentStreak()).isEqualTo(1);
         verify(userRepository).save(any(User.class));
     }
+
+    @Test
+    void updateStreak_staleCachedPrincipal_appliesToStoredRow() {
+        UUID id = UUID.randomUUID();
+        user.setId(id);
+        user.setLastActiveDate(LocalDate.now().minusDays(3));
+        user.setCurrentStreak(2);
+        User stored = new User("Alice", "alice@example.com", "hashedpw", "LEARNER");
+        stored.setId(id);
+        stored.setLastActiveDate(LocalDate.now().minusDays(1));
+        stored.setCurrentStreak(6);
+        when(userRepository.findById(id)).thenReturn(Optional.of(stored));
+
+        userService.updateStreak(user);
+
+        assertThat(stored.getCurrentStreak()).isEqualTo(7);
+        assertThat(user.getCurrentStreak()).isEqualTo(7);
+        verify(userRepository).save(stored);
+        verify(eventPublisher).publishEvent(new UserChangedEvent(id));
+    }
+
+    @Test
+    void changePassword_publishesUserChanged() {
+        UUID id = UUID.randomUUID();
+        user.setId(id);
+        ChangePasswordRequest request = new ChangePasswordRequest();
+        request.setOldPassword("old");
+        request.setNewPassword("new-password");
+        when(userRepository.findByEmail("alice@example.com")).thenReturn(Optional.of(user));
+        when(passwordHasher.matches("old", "hashedpw")).thenReturn(true);
+        when(passwordHasher.encode("new-password")).thenReturn("newhash");
+
+        userService.changePassword("alice@example.com", request);
+
+        assertThat(user.getPasswordHash()).isEqualTo("newhash");
+        assertThat(user.getTokenVersion()).isEqualTo(1);
+        verify(eventPublisher).publishEvent(new UserChangedEvent(id));
+    }
+
+    @Test
+    void refresh_currentVersion_issuesNewPair() {
+        UUID id = UUID.randomUUID();
+        user.setId(id);
+        Claims claims = Jwts.claims().id("refresh-jti").add("typ", "refresh").build();
+        when(jwtUtil.extractClaims("refresh-token")).thenReturn(claims);
+        when(jwtUtil.isRefreshToken(claims)).thenReturn(true);
+        when(jwtUtil.extractUserId(claims)).thenReturn(id);
+        when(jwtUtil.extractTokenVersion(claims)).thenReturn(0);
+        when(userRepository.findById(id)).thenReturn(Optional.of(user));
+        when(tokenDenylist.consume(claims.getId(), id, claims.getExpiration())).thenReturn(true);
+        when(jwtUtil.generateAccessToken(user)).thenReturn("new-access");
+        when(jwtUtil.generateRefreshToken(user)).thenReturn("new-refresh");
+
+        LoginResponse response = userService.refresh("refresh-token");
+
+        assertThat(response.getToken()).isEqualTo("new-access");
+        assertThat(response.getRefreshToken()).isEqualTo("new-refresh");
+    }
+
+    @Test
+    void refresh_concurrentUseOfSameToken_isRejected() {
+        UUID id = UUID.randomUUID();
+        user.setId(id);
+        Claims claims = Jwts.claims().id("refresh-jti").add("typ", "refresh").build();
+        when(jwtUtil.extractClaims("refresh-token")).thenReturn(claims);
+        when(jwtUtil.isRefreshToken(claims)).thenReturn(true);
+        when(jwtUtil.extractUserId(claims)).thenReturn(id);
+        when(jwtUtil.extractTokenVersion(claims)).thenReturn(0);
+        when(userRepository.findById(id)).thenReturn(Optional.of(user));
+        when(tokenDenylist.consume(claims.getId(), id, claims.getExpiration())).thenReturn(false);
+
+        assertThatThrownBy(() -> userService.refresh("refresh-token"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("revoked");
+        verify(jwtUtil, never()).generateRefreshToken(any());
+    }
+
+    @Test
+    void refresh_afterRevocation_isRejected() {
+        UUID id = UUID.randomUUID();
+        user.setId(id);
+        user.revokeTokens();
+        Claims claims = Jwts.claims().id("refresh-jti").add("typ", "refresh").build();
+        when(jwtUtil.extractClaims("refresh-token")).thenReturn(claims);
+        when(jwtUtil.isRefreshToken(claims)).thenReturn(true);
+        when(jwtUtil.extractUserId(claims)).thenReturn(id);
+        when(jwtUtil.extractTokenVersion(claims)).thenReturn(0);
+        when(userRepository.findById(id)).thenReturn(Optional.of(user));
+
+        assertThatThrownBy(() -> userService.refresh("refresh-token"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("revoked");
+    }
+
+    @Test
+    void refresh_alreadyUsedToken_isRejected() {
+        Claims claims = Jwts.claims().id("refresh-jti").add("typ", "refresh").build();
+        when(jwtUtil.extractClaims("refresh-token")).thenReturn(claims);
+        when(jwtUtil.isRefreshToken(claims)).thenReturn(true);
+        when(tokenDenylist.isRevoked("refresh-jti")).thenReturn(true);
+
+        assertThatThrownBy(() -> userService.refresh("refresh-token"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("revoked");
+        verifyNoInteractions(userRepository);
+    }
 }
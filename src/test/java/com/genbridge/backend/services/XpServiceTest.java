@@ -0,0 +1,168 @@
+package com.genbridge.backend.services;
+
+import com.genbridge.backend.entity.Lesson;
+import com.genbridge.backend.entity.UserXp;
+import com.genbridge.backend.entity.XpDailyBucket;
+import com.genbridge.backend.event.XpChangedEvent;
+import com.genbridge.backend.repository.LessonProgressRepository;
+import com.genbridge.backend.repository.LessonRepository;
+import com.genbridge.backend.repository.QuestCompletionRepository;
+import com.genbridge.backend.repository.UserXpRepository;
+import com.genbridge.backend.repository.XpDailyBucketRepository;
+import com.genbridge.backend.services.impl.XpServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class XpServiceTest {
+
+    @Mock private UserXpRepository userXpRepository;
+    @Mock private XpDailyBucketRepository xpDailyBucketRepository;
+    @Mock private LessonRepository lessonRepository;
+    @Mock private LessonProgressRepository lessonProgressRepository;
+    @Mock private QuestCompletionRepository questCompletionRepository;
+    @Mock private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private XpServiceImpl xpService;
+
+    private UUID userId;
+    private Lesson advancedLesson;
+
+    @BeforeEach
+    void setUp() {
+        userId = UUID.randomUUID();
+        advancedLesson = new Lesson();
+        advancedLesson.setId(3L);
+        advancedLesson.setDifficulty("ADVANCED");
+    }
+
+    @Test
+    void xpRules_matchDifficultyCaseInsensitively() {
+        assertThat(XpRules.lessonXp("BEGINNER")).isEqualTo(10);
+        assertThat(XpRules.lessonXp("Intermediate")).isEqualTo(15);
+        assertThat(XpRules.lessonXp("advanced")).isEqualTo(20);
+        assertThat(XpRules.lessonXp(null)).isEqualTo(10);
+    }
+
+    @Test
+    void recordLessonCompletion_firstCompletion_createsThenLocksLedgerRow() {
+        when(userXpRepository.findForUpdate(userId)).thenReturn(Optional.of(new UserXp(userId)));
+        when(lessonRepository.findById(3L)).thenReturn(Optional.of(advancedLesson));
+
+        LocalDateTime now = LocalDateTime.now();
+        when(xpDailyBucketRepository.findForUpdate(userId, now.toLocalDate()))
+                .thenReturn(Optional.of(new XpDailyBucket(userId, now.toLocalDate())));
+
+        xpService.recordLessonCompletion(userId, 3L, now);
+
+        InOrder inOrder = inOrder(userXpRepository, xpDailyBucketRepository);
+        inOrder.verify(userXpRepository).insertIfAbsent(eq(userId), any());
+        inOrder.verify(userXpRepository).findForUpdate(userId);
+        inOrder.verify(xpDailyBucketRepository).insertIfAbsent(userId, now.toLocalDate());
+        inOrder.verify(xpDailyBucketRepository).findForUpdate(userId, now.toLocalDate());
+
+        ArgumentCaptor<UserXp> saved = ArgumentCaptor.forClass(UserXp.class);
+        verify(userXpRepository).save(saved.capture());
+        assertThat(saved.getValue().getUserId()).isEqualTo(userId);
+        assertThat(saved.getValue().getLessonXp()).isEqualTo(20);
+        assertThat(saved.getValue().getTotalXp()).isEqualTo(20);
+        assertThat(saved.getValue().getCompletedLessons()).isEqualTo(1);
+        verify(eventPublisher).publishEvent(new XpChangedEvent(userId, 20, 1));
+
+        ArgumentCaptor<XpDailyBucket> bucket = ArgumentCaptor.forClass(XpDailyBucket.class);
+        verify(xpDailyBucketRepository).save(bucket.capture());
+        assertThat(bucket.getValue().getBucketDate()).isEqualTo(now.toLocalDate());
+        assertThat(bucket.getValue().getXp()).isEqualTo(20);
+    }
+
+    @Test
+    void revokeLessonCompletion_subtractsLessonXp() {
+        UserXp existing = new UserXp(userId);
+        existing.setLessonXp(30);
+        existing.setQuestXp(15);
+        existing.setCompletedLessons(2);
+        existing.setCompletedQuests(1);
+        when(userXpRepository.findForUpdate(userId)).thenReturn(Optional.of(existing));
+        when(lessonRepository.findById(3L)).thenReturn(Optional.of(advancedLesson));
+        LocalDateTime completedAt = LocalDateTime.now().minusDays(1);
+        XpDailyBucket bucket = new XpDailyBucket(userId, completedAt.toLocalDate());
+        bucket.setXp(20);
+        bucket.setCompletedLessons(1);
+        when(xpDailyBucketRepository.findForUpdate(userId, completedAt.toLocalDate()))
+                .thenReturn(Optional.of(bucket));
+
+        xpService.revokeLessonCompletion(userId, 3L, completedAt);
+
+        assertThat(bucket.getXp()).isZero();
+        assertThat(bucket.getCompletedLessons()).isZero();
+        assertThat(existing.getLessonXp()).isEqualTo(10);
+        assertThat(existing.getCompletedLessons()).isEqualTo(1);
+        assertThat(existing.getTotalXp()).isEqualTo(25);
+    }
+
+    @Test
+    void recordQuestCompletion_addsFlatQuestXp() {
+        UserXp existing = new UserXp(userId);
+        existing.setLessonXp(10);
+        when(userXpRepository.findForUpdate(userId)).thenReturn(Optional.of(existing));
+        LocalDateTime now = LocalDateTime.now();
+        when(xpDailyBucketRepository.findForUpdate(userId, now.toLocalDate()))
+                .thenReturn(Optional.of(new XpDailyBucket(userId, now.toLocalDate())));
+
+        xpService.recordQuestCompletion(userId, now);
+
+        assertThat(existing.getQuestXp()).isEqualTo(XpRules.QUEST_XP);
+        assertThat(existing.getCompletedQuests()).isEqualTo(1);
+        assertThat(existing.getTotalXp()).isEqualTo(25);
+    }
+
+    @Test
+    void recordQuestCompletion_beforeRetentionCutoff_skipsBucket() {
+        when(userXpRepository.findForUpdate(userId)).thenReturn(Optional.of(new UserXp(userId)));
+
+        xpService.recordQuestCompletion(userId, LocalDate.now().minusMonths(3).atStartOfDay());
+
+        verifyNoInteractions(xpDailyBucketRepository);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void rebuildLedger_savesAggregatedRows() {
+        when(userXpRepository.aggregateXpByUser()).thenReturn(List.<Object[]>of(
+                new Object[]{userId, 35L, 3L, 30L, 2L}
+        ));
+
+        int users = xpService.rebuildLedger();
+
+        assertThat(users).isEqualTo(1);
+        ArgumentCaptor<Collection<UserXp>> saved = ArgumentCaptor.forClass(Collection.class);
+        verify(userXpRepository).deleteAllInBatch();
+        verify(userXpRepository).saveAll(saved.capture());
+        UserXp xp = saved.getValue().iterator().next();
+        assertThat(xp.getLessonXp()).isEqualTo(35);
+        assertThat(xp.getQuestXp()).isEqualTo(30);
+        assertThat(xp.getTotalXp()).isEqualTo(65);
+        assertThat(xp.getCompletedLessons()).isEqualTo(3);
+        assertThat(xp.getCompletedQuests()).isEqualTo(2);
+    }
+}